@@ -13,8 +13,4 @@ CREATE TABLE users (
     verified_at TIMESTAMP WITH TIME ZONE
 );
 
--- Create indexes for better performance
-CREATE INDEX idx_users_id ON users (id);
-CREATE INDEX idx_users_username ON users (username);
-CREATE INDEX idx_users_email ON users (email);
-CREATE INDEX idx_users_phone ON users (phone);
\ No newline at end of file
+-- username, email and phone are indexed by their UNIQUE constraints and id by the primary key
@@ -0,0 +1,46 @@
+package com.example.register.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * {@link BCryptPasswordEncoder#encode} across the cost range the service
+ * calibrates within ({@code register.password.min-cost} to {@code max-cost}).
+ * Each step doubles the time; compare with {@code register.password.hash-budget}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class BCryptBenchmark {
+    
+    @Param({"4", "10", "11", "12", "13", "14"})
+    private int cost;
+    
+    private BCryptPasswordEncoder encoder;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(cost);
+    }
+    
+    @Benchmark
+    public String encode() {
+        return encoder.encode("Pa$$w0rd2025!");
+    }
+}
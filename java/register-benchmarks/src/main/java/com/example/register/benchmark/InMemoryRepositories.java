@@ -0,0 +1,89 @@
+package com.example.register.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.example.register.entity.IdempotencyRecord;
+import com.example.register.entity.OutboxMessage;
+import com.example.register.entity.User;
+import com.example.register.repository.IdempotencyRecordRepository;
+import com.example.register.repository.OutboxMessageRepository;
+import com.example.register.repository.RegistrationView;
+import com.example.register.repository.UserRepository;
+
+/**
+ * Map-backed stand-ins for the JPA repositories, implementing only the
+ * methods {@code RegisterService.register} calls, so the benchmark measures
+ * the service rather than a database or a mocking library.
+ */
+final class InMemoryRepositories {
+    
+    private final Map<String, User> usersByUsername = new ConcurrentHashMap<>();
+    private final Map<String, User> usersByEmail = new ConcurrentHashMap<>();
+    private final Map<String, User> usersByPhone = new ConcurrentHashMap<>();
+    private final Map<String, IdempotencyRecord> idempotencyRecords = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    
+    final UserRepository userRepository = proxy(UserRepository.class, (proxy, method, args) -> switch (method.getName()) {
+        case "save" -> save((User) args[0]);
+        case "existsByUsername" -> usersByUsername.containsKey((String) args[0]);
+        case "existsByEmail" -> usersByEmail.containsKey((String) args[0]);
+        case "existsByPhone" -> usersByPhone.containsKey((String) args[0]);
+        case "findUniqueKeys" -> List.of();
+        default -> throw new UnsupportedOperationException(method.getName());
+    });
+    
+    final IdempotencyRecordRepository idempotencyRepository = proxy(IdempotencyRecordRepository.class,
+        (proxy, method, args) -> switch (method.getName()) {
+            case "save" -> {
+                IdempotencyRecord record = (IdempotencyRecord) args[0];
+                idempotencyRecords.put(record.getIdempotencyKey(), record);
+                yield record;
+            }
+            case "findRegistration" -> Optional.ofNullable(idempotencyRecords.get((String) args[0]))
+                .map(record -> new RegistrationView(record.getIdempotencyKey(), record.getFingerprint(),
+                    record.getUserId(), record.getStatus(), record.getCreatedAt(), null));
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    
+    final OutboxMessageRepository outboxRepository = proxy(OutboxMessageRepository.class,
+        (proxy, method, args) -> switch (method.getName()) {
+            case "save" -> {
+                OutboxMessage message = (OutboxMessage) args[0];
+                message.setId(ids.incrementAndGet());
+                yield message;
+            }
+            case "findSentAtByUserId" -> Optional.empty();
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    
+    void clear() {
+        usersByUsername.clear();
+        usersByEmail.clear();
+        usersByPhone.clear();
+        idempotencyRecords.clear();
+    }
+    
+    private User save(User user) {
+        user.setId(ids.incrementAndGet());
+        usersByUsername.put(user.getUsername(), user);
+        usersByEmail.put(user.getEmail(), user);
+        usersByPhone.put(user.getPhone(), user);
+        return user;
+    }
+    
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        InvocationHandler withObjectMethods = (proxy, method, args) -> switch (method.getName()) {
+            case "toString" -> "InMemory" + type.getSimpleName();
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> handler.invoke(proxy, method, args);
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, withObjectMethods));
+    }
+}
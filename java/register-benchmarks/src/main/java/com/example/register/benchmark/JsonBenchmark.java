@@ -0,0 +1,91 @@
+package com.example.register.benchmark;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.register.dto.ErrorResponse;
+import com.example.register.dto.RegisterRequest;
+import com.example.register.dto.RegisterResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Jackson (de)serialization of the API DTOs with the mapper settings from
+ * {@code application.properties} (ISO dates, UTC), through readers and
+ * writers cached up front as the Spring message converters do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+    
+    private ObjectReader requestReader;
+    private ObjectWriter requestWriter;
+    private ObjectWriter responseWriter;
+    private ObjectWriter errorWriter;
+    private byte[] requestJson;
+    private RegisterRequest request;
+    private RegisterResponse response;
+    private ErrorResponse error;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .timeZone("UTC")
+            .build();
+        requestReader = objectMapper.readerFor(RegisterRequest.class);
+        requestWriter = objectMapper.writerFor(RegisterRequest.class);
+        responseWriter = objectMapper.writerFor(RegisterResponse.class);
+        errorWriter = objectMapper.writerFor(ErrorResponse.class);
+        
+        request = Requests.valid(0);
+        requestJson = requestWriter.writeValueAsBytes(request);
+        response = new RegisterResponse("usr_01hx5m0d7e", "pending_verification",
+            new RegisterResponse.VerificationInfo("email", LocalDateTime.of(2025, 10, 1, 12, 0, 0)));
+        error = new ErrorResponse(new ErrorResponse.ErrorDetail("VALIDATION_FAILED", Map.of(
+            "username", "Username already exists",
+            "email", "Email already registered",
+            "confirmPassword", "Passwords do not match")));
+    }
+    
+    @Benchmark
+    public RegisterRequest readRequest() throws IOException {
+        return requestReader.readValue(requestJson);
+    }
+    
+    @Benchmark
+    public byte[] writeRequest() throws IOException {
+        return requestWriter.writeValueAsBytes(request);
+    }
+    
+    @Benchmark
+    public byte[] writeResponse() throws IOException {
+        return responseWriter.writeValueAsBytes(response);
+    }
+    
+    @Benchmark
+    public byte[] writeErrorResponse() throws IOException {
+        return errorWriter.writeValueAsBytes(error);
+    }
+}
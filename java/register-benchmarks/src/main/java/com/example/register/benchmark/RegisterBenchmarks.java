@@ -0,0 +1,38 @@
+package com.example.register.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code target/benchmarks.jar}. Accepts the usual JMH
+ * command line and always adds the GC profiler, so every result comes with
+ * its allocation rate ({@code gc.alloc.rate.norm}, bytes per operation):
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar                      # everything
+ * java -jar target/benchmarks.jar Validation -f 1      # one class, one fork
+ * java -jar target/benchmarks.jar -rf json -rff base.json
+ * </pre>
+ */
+public final class RegisterBenchmarks {
+    
+    private RegisterBenchmarks() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers()
+                || commandLine.shouldListResultFormats() || commandLine.shouldListWithParams()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        Options options = new OptionsBuilder()
+            .parent(commandLine)
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.register.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.example.register.audit.AuditLog;
+import com.example.register.dto.RegisterRequest;
+import com.example.register.dto.RegisterResponse;
+import com.example.register.service.BCryptPasswordHasher;
+import com.example.register.service.IdempotencyCache;
+import com.example.register.service.PasswordHashingExecutor;
+import com.example.register.service.RegisterService;
+import com.example.register.service.RegistrationValidator;
+import com.example.register.service.TimeOrderedUserIdGenerator;
+import com.example.register.service.UniquenessIndex;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+
+/**
+ * {@link RegisterService#register} end to end against in-memory repositories:
+ * a new registration (idempotency miss, uniqueness checks, hashing hand-off,
+ * save, outbox, cache) and a replay served from the idempotency cache. The
+ * bcrypt cost defaults to the minimum so the service's own overhead is
+ * visible; {@link BCryptBenchmark} covers the hash itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegisterServiceBenchmark {
+    
+    @Param({"4"})
+    private int cost;
+    
+    private final AtomicLong sequence = new AtomicLong();
+    private InMemoryRepositories repositories;
+    private PasswordHashingExecutor passwordHashingExecutor;
+    private ValidatorFactory validatorFactory;
+    private RegisterService registerService;
+    private RegisterRequest replayRequest;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        repositories = new InMemoryRepositories();
+        UniquenessIndex uniquenessIndex = new UniquenessIndex(repositories.userRepository, meterRegistry,
+            1_000_000, 0.01, "", 10_000);
+        uniquenessIndex.warmUp();
+        passwordHashingExecutor = new PasswordHashingExecutor(new BCryptPasswordHasher(cost), meterRegistry,
+            0, 1024, 1);
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        registerService = new RegisterService(repositories.userRepository, repositories.outboxRepository,
+            repositories.idempotencyRepository, uniquenessIndex, new RegistrationValidator(validatorFactory.getValidator()),
+            new TimeOrderedUserIdGenerator(0, System::currentTimeMillis), passwordHashingExecutor,
+            new IdempotencyCache(meterRegistry, 100_000, Duration.ofMinutes(10)), AuditLog.disabled(),
+            new NoOpTransactionManager(), meterRegistry, Duration.ofHours(24));
+        
+        replayRequest = Requests.valid(-1);
+        registerService.register(replayRequest, "replay-key");
+    }
+    
+    // Keeps the maps (and the Bloom filter's fill) from growing without bound across iterations
+    @Setup(Level.Iteration)
+    public void clearRepositories() {
+        repositories.clear();
+        registerService.register(replayRequest, "replay-key");
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        passwordHashingExecutor.shutdown();
+        validatorFactory.close();
+    }
+    
+    @Benchmark
+    public RegisterResponse registerNew() {
+        long n = sequence.incrementAndGet();
+        return registerService.register(Requests.valid(n), "key-" + n);
+    }
+    
+    @Benchmark
+    public RegisterResponse replayCached() {
+        return registerService.register(replayRequest, "replay-key");
+    }
+    
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+        
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+        
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+        
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
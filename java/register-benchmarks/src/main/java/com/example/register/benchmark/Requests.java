@@ -0,0 +1,28 @@
+package com.example.register.benchmark;
+
+import java.time.LocalDate;
+
+import com.example.register.dto.RegisterRequest;
+
+/**
+ * Request fixtures shared by the benchmarks; {@code n} makes the unique
+ * fields unique.
+ */
+final class Requests {
+    
+    private Requests() {
+    }
+    
+    static RegisterRequest valid(long n) {
+        RegisterRequest request = new RegisterRequest();
+        request.setFullName("Somkiat Pui");
+        request.setUsername("somkiat.p" + n);
+        request.setEmail("somkiat.p" + n + "@example.com");
+        request.setPhone("+66" + (800000000L + n));
+        request.setPassword("Pa$$w0rd2025!");
+        request.setConfirmPassword("Pa$$w0rd2025!");
+        request.setDob(LocalDate.of(1995, 5, 10));
+        request.setAcceptTerms(true);
+        return request;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.register.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.register.service.TimeOrderedUserIdGenerator;
+
+/**
+ * User id generation: the previous {@code UUID.randomUUID()} truncated to ten
+ * hex characters, which draws from one shared {@code SecureRandom}, against
+ * {@link TimeOrderedUserIdGenerator}. Runs on every core by default, since
+ * contention is the difference being measured; add {@code -t 1} for the
+ * uncontended cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(Threads.MAX)
+@Fork(1)
+public class UserIdBenchmark {
+    
+    private final TimeOrderedUserIdGenerator timeOrdered =
+        new TimeOrderedUserIdGenerator(0, System::currentTimeMillis);
+    
+    @Benchmark
+    public String randomUuid() {
+        return "usr_" + UUID.randomUUID().toString().replace("-", "").substring(0, 10);
+    }
+    
+    @Benchmark
+    public String timeOrdered() {
+        return timeOrdered.next();
+    }
+}
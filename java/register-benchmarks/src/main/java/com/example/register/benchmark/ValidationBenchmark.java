@@ -0,0 +1,89 @@
+package com.example.register.benchmark;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.register.dto.RegisterRequest;
+import com.example.register.service.RegistrationValidator;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+/**
+ * Bean Validation of {@link RegisterRequest}: the whole object, and the
+ * password {@code @Pattern} on its own, since its lookaheads backtrack over
+ * the full input for every failed alternative; then the same request through
+ * {@link RegistrationValidator}, which replaces it. The {@code password} shapes
+ * are a typical valid one, a short weak one, and a 64-char one that only
+ * fails at the last character (the worst case for the regex).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+    
+    @Param({"valid", "weak", "long-invalid"})
+    private String password;
+    
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private RegistrationValidator registrationValidator;
+    private RegisterRequest request;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        registrationValidator = new RegistrationValidator(validator);
+        request = Requests.valid(0);
+        request.setPassword(switch (password) {
+            case "valid" -> "Pa$$w0rd2025!";
+            case "weak" -> "weak";
+            case "long-invalid" -> "Aa1!".repeat(15) + "Aa1" + "é";
+            default -> throw new IllegalArgumentException(password);
+        });
+        request.setConfirmPassword(request.getPassword());
+        request.setDob(LocalDate.of(1995, 5, 10));
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+    
+    @Benchmark
+    public Set<ConstraintViolation<RegisterRequest>> validateRequest() {
+        return validator.validate(request);
+    }
+    
+    @Benchmark
+    public Set<ConstraintViolation<RegisterRequest>> validatePassword() {
+        return validator.validateProperty(request, "password");
+    }
+    
+    @Benchmark
+    public Map<String, String> registrationValidator() {
+        return registrationValidator.errors(request);
+    }
+}
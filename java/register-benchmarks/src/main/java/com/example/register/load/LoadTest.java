@@ -0,0 +1,263 @@
+package com.example.register.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.register.RegisterApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Open-model load test of {@code POST /api/v1/register}: requests are sent
+ * at a constant arrival rate whatever the server's latency, like real
+ * sign-up traffic, instead of a fixed number of clients waiting on each
+ * other. Boots the application (H2 by default) unless a target URL is given,
+ * registers seed users, warms up, then measures the configured traffic mix
+ * and writes a JSON report.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.example.register.load.LoadTest \
+ *     --load.rate=200 --load.duration=2m [--load.db=local | --load.target=http://host:8080] \
+ *     [--spring.threads.virtual.enabled=true ...]
+ * </pre>
+ *
+ * Options start with {@code --load.}; every other argument is passed to the
+ * application. The exit status is 1 when the share of unexpected statuses,
+ * transport errors and dropped requests exceeds {@code --load.max-error-rate}.
+ */
+public final class LoadTest {
+
+    private final int rate;
+    private final Duration duration;
+    private final Duration warmup;
+    private final String mix;
+    private final int seedUsers;
+    private final int maxInFlight;
+    private final String target;
+    private final String database;
+    private final Path reportPath;
+    private final double maxErrorRate;
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+
+    LoadTest(Map<String, String> options) {
+        this.rate = Integer.parseInt(options.getOrDefault("rate", "100"));
+        this.duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "60s"));
+        this.warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "15s"));
+        this.mix = options.getOrDefault("mix", Scenario.DEFAULT_MIX);
+        this.seedUsers = Integer.parseInt(options.getOrDefault("seed-users", "100"));
+        this.maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "10000"));
+        this.target = options.get("target");
+        this.database = options.getOrDefault("db", "h2");
+        this.reportPath = Path.of(options.getOrDefault("report", "target/load-report.json"));
+        this.maxErrorRate = Double.parseDouble(options.getOrDefault("max-error-rate", "0.01"));
+        if (rate <= 0 || seedUsers <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("rate, seed-users and max-in-flight must be positive");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--load.") && arg.contains("=")) {
+                options.put(arg.substring("--load.".length(), arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else {
+                applicationArgs.add(arg);
+            }
+        }
+        System.exit(new LoadTest(options).run(applicationArgs));
+    }
+
+    int run(List<String> applicationArgs) throws IOException, InterruptedException {
+        ConfigurableApplicationContext context = target == null ? start(applicationArgs) : null;
+        try {
+            String baseUrl = target != null ? target
+                : "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port");
+            URI uri = URI.create(baseUrl + "/api/v1/register");
+            Traffic traffic = new Traffic(System.currentTimeMillis(), Scenario.parseMix(mix));
+            seed(uri, traffic);
+
+            drive(uri, traffic, warmup, newStats(), new ScenarioStats());
+            Map<Scenario, ScenarioStats> stats = newStats();
+            ScenarioStats overall = new ScenarioStats();
+            Instant startedAt = Instant.now();
+            long started = System.nanoTime();
+            drive(uri, traffic, duration, stats, overall);
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            writeReport(baseUrl, startedAt, seconds, stats, overall);
+            printSummary(seconds, stats, overall);
+            long attempted = overall.completed() + overall.dropped();
+            double errorRate = attempted == 0 ? 1 : (double) (overall.errors() + overall.dropped()) / attempted;
+            return errorRate > maxErrorRate ? 1 : 0;
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext start(List<String> applicationArgs) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("logging.level.root", "WARN");
+        // All load comes from one address; the harness measures the service, not the limiter
+        properties.put("register.rate-limit.enabled", "false");
+        if ("h2".equals(database)) {
+            properties.put("spring.datasource.url", "jdbc:h2:mem:load;DB_CLOSE_DELAY=-1");
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            properties.put("spring.datasource.username", "sa");
+            properties.put("spring.datasource.password", "");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+            properties.put("register.uniqueness.snapshot-path", "");
+        } else if (!"local".equals(database)) {
+            throw new IllegalArgumentException("--load.db must be h2 or local: " + database);
+        }
+        // Repeated command-line properties would be joined, so overrides replace the defaults here
+        List<String> args = new ArrayList<>();
+        for (String arg : applicationArgs) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                properties.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else {
+                args.add(arg);
+            }
+        }
+        properties.forEach((key, value) -> args.add("--" + key + "=" + value));
+        return new SpringApplicationBuilder(RegisterApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private void seed(URI uri, Traffic traffic) throws IOException, InterruptedException {
+        for (Traffic.Request seed : traffic.seeds(seedUsers)) {
+            HttpResponse<String> response = client.send(httpRequest(uri, seed), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != Scenario.UNIQUE_SIGNUP.expectedStatus()) {
+                throw new IllegalStateException("Seed registration failed with " + response.statusCode() + ": "
+                    + response.body());
+            }
+        }
+    }
+
+    private void drive(URI uri, Traffic traffic, Duration phase, Map<Scenario, ScenarioStats> stats,
+            ScenarioStats overall) throws InterruptedException {
+        AtomicInteger inFlight = new AtomicInteger();
+        long start = System.nanoTime();
+        long end = start + phase.toNanos();
+        for (long i = 0; ; i++) {
+            long due = start + (long) (i * 1e9 / rate);
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Traffic.Request request = traffic.next();
+            ScenarioStats scenarioStats = stats.get(request.scenario());
+            if (inFlight.get() >= maxInFlight) {
+                // The client is saturated; sending later would hide the backlog, so count it instead
+                scenarioStats.drop();
+                overall.drop();
+                continue;
+            }
+            inFlight.incrementAndGet();
+            long sent = System.nanoTime();
+            client.sendAsync(httpRequest(uri, request), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long completed = System.nanoTime();
+                    String status = error != null ? "transport-error" : String.valueOf(response.statusCode());
+                    boolean expected = error == null && response.statusCode() == request.scenario().expectedStatus();
+                    scenarioStats.record(due, sent, completed, status, expected);
+                    overall.record(due, sent, completed, status, expected);
+                    inFlight.decrementAndGet();
+                });
+        }
+        // Requests still in flight belong to this phase
+        long deadline = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static HttpRequest httpRequest(URI uri, Traffic.Request request) {
+        return HttpRequest.newBuilder(uri)
+            .timeout(Duration.ofSeconds(60))
+            .header("Content-Type", "application/json")
+            .header("Idempotency-Key", request.idempotencyKey())
+            .POST(HttpRequest.BodyPublishers.ofString(request.body()))
+            .build();
+    }
+
+    private static Map<Scenario, ScenarioStats> newStats() {
+        Map<Scenario, ScenarioStats> stats = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : Scenario.values()) {
+            stats.put(scenario, new ScenarioStats());
+        }
+        return stats;
+    }
+
+    private void writeReport(String baseUrl, Instant startedAt, double seconds, Map<Scenario, ScenarioStats> stats,
+            ScenarioStats overall) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("target", baseUrl);
+        report.put("database", target != null ? "external" : database);
+        report.put("arrivalRatePerSecond", rate);
+        report.put("durationSeconds", seconds);
+        report.put("warmupSeconds", warmup.toSeconds());
+        report.put("mix", Scenario.parseMix(mix).entrySet().stream()
+            .collect(LinkedHashMap::new, (map, e) -> map.put(e.getKey().id(), e.getValue()), Map::putAll));
+        report.put("seedUsers", seedUsers);
+        report.put("overall", overall.report(seconds));
+        Map<String, Object> scenarios = new LinkedHashMap<>();
+        stats.forEach((scenario, scenarioStats) -> {
+            if (scenarioStats.completed() + scenarioStats.dropped() > 0) {
+                scenarios.put(scenario.id(), scenarioStats.report(seconds));
+            }
+        });
+        report.put("scenarios", scenarios);
+
+        Path parent = reportPath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportPath.toFile(), report);
+    }
+
+    private void printSummary(double seconds, Map<Scenario, ScenarioStats> stats, ScenarioStats overall) {
+        System.out.printf("%nOpen-model load: %d req/s for %.0f s -> %s%n", rate, seconds, reportPath);
+        System.out.printf("%-20s %10s %10s %8s %8s %10s %10s %10s %10s%n",
+            "scenario", "completed", "req/s", "errors", "dropped", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        stats.forEach((scenario, scenarioStats) -> print(scenario.id(), seconds, scenarioStats));
+        print("overall", seconds, overall);
+    }
+
+    private static void print(String name, double seconds, ScenarioStats stats) {
+        if (stats.completed() == 0) {
+            return;
+        }
+        System.out.printf("%-20s %10d %10.1f %8d %8d %10.1f %10.1f %10.1f %10.1f%n", name, stats.completed(),
+            stats.completed() / seconds, stats.errors(), stats.dropped(), stats.responseTimeMillis(50),
+            stats.responseTimeMillis(99), stats.responseTimeMillis(99.9), stats.responseTimeMillis(100));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.register.load;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The kinds of traffic the load harness sends, each with the status a
+ * correct service answers it with. Anything else counts as an error.
+ */
+enum Scenario {
+    
+    /** A new user: the full hashing and insert path. */
+    UNIQUE_SIGNUP(201),
+    /** A new email and phone with a taken username. */
+    DUPLICATE_USERNAME(400),
+    /** A new username and phone with a taken email. */
+    DUPLICATE_EMAIL(400),
+    /** An earlier request resent with the same Idempotency-Key: a replay. */
+    IDEMPOTENT_RETRY(201),
+    /** A payload that fails Bean Validation. */
+    INVALID_PAYLOAD(400);
+    
+    static final String DEFAULT_MIX = "unique-signup:70,duplicate-username:8,duplicate-email:7,idempotent-retry:10,invalid-payload:5";
+    
+    private final int expectedStatus;
+    
+    Scenario(int expectedStatus) {
+        this.expectedStatus = expectedStatus;
+    }
+    
+    int expectedStatus() {
+        return expectedStatus;
+    }
+    
+    String id() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+    
+    static Scenario of(String id) {
+        return valueOf(id.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+    
+    /**
+     * Parses {@code "unique-signup:70,invalid-payload:5"} into weights; scenarios left out get weight 0.
+     */
+    static Map<Scenario, Integer> parseMix(String mix) {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix entries look like unique-signup:70, got: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + parts[0]);
+            }
+            weights.put(of(parts[0]), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("Mix has no positive weight: " + mix);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.register.load;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Outcomes of one scenario (or of all of them). Response time runs from when
+ * the request was due under the arrival schedule, so time spent waiting
+ * behind a slow server is counted (no coordinated omission). Service time
+ * runs from when it was actually sent.
+ */
+final class ScenarioStats {
+    
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    
+    private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    
+    void record(long dueNanos, long sentNanos, long completedNanos, String status, boolean expected) {
+        responseTime.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, (completedNanos - dueNanos) / 1000));
+        serviceTime.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, (completedNanos - sentNanos) / 1000));
+        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        if (!expected) {
+            errors.increment();
+        }
+    }
+    
+    void drop() {
+        dropped.increment();
+    }
+    
+    long completed() {
+        return responseTime.getTotalCount();
+    }
+    
+    long errors() {
+        return errors.sum();
+    }
+    
+    long dropped() {
+        return dropped.sum();
+    }
+    
+    double responseTimeMillis(double percentile) {
+        return responseTime.getValueAtPercentile(percentile) / 1000.0;
+    }
+    
+    Map<String, Object> report(double seconds) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("completed", completed());
+        report.put("throughputPerSecond", completed() / seconds);
+        report.put("errors", errors());
+        report.put("dropped", dropped());
+        Map<String, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(status, count.sum()));
+        report.put("statuses", statusCounts);
+        report.put("responseTimeMs", latency(responseTime));
+        report.put("serviceTimeMs", latency(serviceTime));
+        report.put("responseTimeHistogram", encode(responseTime));
+        return report;
+    }
+    
+    private static Map<String, Double> latency(Histogram histogram) {
+        Map<String, Double> latency = new LinkedHashMap<>();
+        latency.put("mean", histogram.getMean() / 1000.0);
+        latency.put("p50", histogram.getValueAtPercentile(50) / 1000.0);
+        latency.put("p90", histogram.getValueAtPercentile(90) / 1000.0);
+        latency.put("p99", histogram.getValueAtPercentile(99) / 1000.0);
+        latency.put("p999", histogram.getValueAtPercentile(99.9) / 1000.0);
+        latency.put("max", histogram.getMaxValue() / 1000.0);
+        return latency;
+    }
+    
+    // Compressed HdrHistogram (microseconds), for merging runs or plotting with the HdrHistogram tools
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+}
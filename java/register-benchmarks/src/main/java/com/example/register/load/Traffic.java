@@ -0,0 +1,100 @@
+package com.example.register.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds the requests for each {@link Scenario}. Generated usernames, emails
+ * and phones embed a per-run number, so runs against a persistent database do
+ * not collide with earlier ones. Duplicates and retries refer to seed users
+ * registered before the run starts.
+ */
+final class Traffic {
+    
+    record Request(Scenario scenario, String idempotencyKey, String body) {
+    }
+    
+    private static final String INVALID_BODY = """
+        {"fullName": "A", "username": "ab", "email": "not-an-email", "phone": "123",
+         "password": "weak", "confirmPassword": "weak", "dob": "2999-01-01", "acceptTerms": false}
+        """;
+    
+    private final long run;
+    private final Scenario[] wheel;
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Request> seeds = new ArrayList<>();
+    
+    Traffic(long run, Map<Scenario, Integer> mix) {
+        this.run = run;
+        List<Scenario> slots = new ArrayList<>();
+        mix.forEach((scenario, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(scenario);
+            }
+        });
+        this.wheel = slots.toArray(Scenario[]::new);
+    }
+    
+    /**
+     * Requests that register the seed users; they must succeed before {@link #next()} is used.
+     */
+    List<Request> seeds(int count) {
+        for (int i = 0; i < count; i++) {
+            long n = sequence.incrementAndGet();
+            seeds.add(new Request(Scenario.UNIQUE_SIGNUP, key(n), body(username(n), email(n), phone(n))));
+        }
+        return seeds;
+    }
+    
+    Request next() {
+        Scenario scenario = wheel[ThreadLocalRandom.current().nextInt(wheel.length)];
+        long n = sequence.incrementAndGet();
+        return switch (scenario) {
+            case UNIQUE_SIGNUP -> new Request(scenario, key(n), body(username(n), email(n), phone(n)));
+            case DUPLICATE_USERNAME -> new Request(scenario, key(n), body(seedField(0), email(n), phone(n)));
+            case DUPLICATE_EMAIL -> new Request(scenario, key(n), body(username(n), seedField(1), phone(n)));
+            case IDEMPOTENT_RETRY -> {
+                Request seed = seed();
+                yield new Request(scenario, seed.idempotencyKey(), seed.body());
+            }
+            case INVALID_PAYLOAD -> new Request(scenario, key(n), INVALID_BODY);
+        };
+    }
+    
+    private Request seed() {
+        return seeds.get(ThreadLocalRandom.current().nextInt(seeds.size()));
+    }
+    
+    // Seeds are numbered 1..count, so their fields can be rebuilt from the number alone
+    private String seedField(int field) {
+        long n = 1 + ThreadLocalRandom.current().nextInt(seeds.size());
+        return field == 0 ? username(n) : email(n);
+    }
+    
+    private String key(long n) {
+        return "load-" + run + "-" + n;
+    }
+    
+    private String username(long n) {
+        return "load." + run + "." + n;
+    }
+    
+    private String email(long n) {
+        return "load." + run + "." + n + "@example.com";
+    }
+    
+    // +1, five run digits, eight sequence digits: 14 digits, within E.164
+    private String phone(long n) {
+        return "+1%05d%08d".formatted(run % 100_000, n % 100_000_000);
+    }
+    
+    private static String body(String username, String email, String phone) {
+        return """
+            {"fullName": "Load Test", "username": "%s", "email": "%s", "phone": "%s",
+             "password": "Pa$$w0rd2025!", "confirmPassword": "Pa$$w0rd2025!", "dob": "1990-01-01", "acceptTerms": true}
+            """.formatted(username, email, phone);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.register.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class RegisterReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(RegisterReactiveApplication.class, args);
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.example.register.reactive.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.register.service.TimeOrderedUserIdGenerator;
+import com.example.register.service.UserIdGenerator;
+
+/**
+ * Same id format as the blocking service, which writes to the same table;
+ * the node id must differ from every other instance of either stack.
+ */
+@Configuration
+public class UserIdConfig {
+    
+    @Bean
+    public UserIdGenerator userIdGenerator(@Value("${register.user-id.node-id:0}") int nodeId) {
+        return new TimeOrderedUserIdGenerator(nodeId, System::currentTimeMillis);
+    }
+}
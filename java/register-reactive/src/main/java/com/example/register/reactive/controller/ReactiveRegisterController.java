@@ -0,0 +1,101 @@
+package com.example.register.reactive.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import com.example.register.dto.ErrorResponse;
+import com.example.register.dto.RegisterRequest;
+import com.example.register.dto.RegisterResponse;
+import com.example.register.exception.ServiceUnavailableException;
+import com.example.register.exception.ValidationException;
+import com.example.register.reactive.service.ReactiveRegisterService;
+
+import jakarta.validation.Valid;
+import reactor.core.publisher.Mono;
+
+/**
+ * The {@code /api/v1/register} contract of the blocking {@code RegisterController}:
+ * same DTOs, status codes and error codes.
+ */
+@RestController
+@RequestMapping("/api/v1")
+public class ReactiveRegisterController {
+    
+    private final ReactiveRegisterService registerService;
+    
+    @Autowired
+    public ReactiveRegisterController(ReactiveRegisterService registerService) {
+        this.registerService = registerService;
+    }
+    
+    @PostMapping("/register")
+    public Mono<ResponseEntity<RegisterResponse>> register(
+            @Valid @RequestBody RegisterRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        
+        // Without a key the request is simply not deduplicated
+        String key = idempotencyKey == null || idempotencyKey.isEmpty() ? null : idempotencyKey;
+        
+        return registerService.register(request, key)
+            .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
+    
+    @ExceptionHandler(ValidationException.class)
+    public ResponseEntity<ErrorResponse> handleValidationException(ValidationException ex) {
+        ErrorResponse.ErrorDetail errorDetail = new ErrorResponse.ErrorDetail(
+            ex.getErrorCode(),
+            ex.getFieldErrors()
+        );
+        ErrorResponse errorResponse = new ErrorResponse(errorDetail);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+    
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleWebExchangeBind(WebExchangeBindException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getAllErrors().forEach((error) -> {
+            String fieldName = ((FieldError) error).getField();
+            String errorMessage = error.getDefaultMessage();
+            errors.put(fieldName, errorMessage);
+        });
+        
+        ErrorResponse.ErrorDetail errorDetail = new ErrorResponse.ErrorDetail("VALIDATION_FAILED", errors);
+        ErrorResponse errorResponse = new ErrorResponse(errorDetail);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+    
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailable(ServiceUnavailableException ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", ex.getMessage());
+        
+        ErrorResponse.ErrorDetail errorDetail = new ErrorResponse.ErrorDetail("SERVICE_UNAVAILABLE", errors);
+        ErrorResponse errorResponse = new ErrorResponse(errorDetail);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(errorResponse);
+    }
+    
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", ex.getMessage());
+        
+        ErrorResponse.ErrorDetail errorDetail = new ErrorResponse.ErrorDetail("INTERNAL_ERROR", errors);
+        ErrorResponse errorResponse = new ErrorResponse(errorDetail);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.register.reactive.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * R2DBC mapping of the {@code idempotency_keys} table owned by the blocking
+ * service's {@code IdempotencyRecord} entity, which also purges it.
+ */
+@Table("idempotency_keys")
+public class IdempotencyKeyRecord {
+    
+    @Id
+    private String idempotencyKey;
+    
+    private String fingerprint;
+    
+    private String userId;
+    
+    private String status;
+    
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime expiresAt;
+    
+    // Constructors
+    public IdempotencyKeyRecord() {
+    }
+    
+    public static IdempotencyKeyRecord of(String idempotencyKey, String fingerprint, UserRecord user,
+            LocalDateTime expiresAt) {
+        IdempotencyKeyRecord record = new IdempotencyKeyRecord();
+        record.setIdempotencyKey(idempotencyKey);
+        record.setFingerprint(fingerprint);
+        record.setUserId(user.getUserId());
+        record.setStatus(user.getStatus());
+        record.setCreatedAt(user.getCreatedAt());
+        record.setExpiresAt(expiresAt);
+        return record;
+    }
+    
+    // Getters and Setters
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+    
+    public String getFingerprint() {
+        return fingerprint;
+    }
+    
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+    
+    public String getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
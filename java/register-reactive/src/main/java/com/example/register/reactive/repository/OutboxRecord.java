@@ -0,0 +1,114 @@
+package com.example.register.reactive.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * A pending verification email in the shared {@code verification_outbox}
+ * table. This service only queues messages; the blocking service's
+ * {@code OutboxDispatcher} sends them.
+ */
+@Table("verification_outbox")
+public class OutboxRecord {
+    
+    @Id
+    private Long id;
+    
+    private String userId;
+    
+    private String channel;
+    
+    private String recipient;
+    
+    private String status;
+    
+    private int attempts;
+    
+    private LocalDateTime nextAttemptAt;
+    
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public OutboxRecord() {
+    }
+    
+    public static OutboxRecord verificationEmail(Long id, UserRecord user) {
+        OutboxRecord message = new OutboxRecord();
+        message.setId(id);
+        message.setUserId(user.getUserId());
+        message.setChannel("email");
+        message.setRecipient(user.getEmail());
+        message.setStatus("PENDING");
+        message.setAttempts(0);
+        message.setCreatedAt(user.getCreatedAt());
+        message.setNextAttemptAt(user.getCreatedAt());
+        return message;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+    
+    public String getChannel() {
+        return channel;
+    }
+    
+    public void setChannel(String channel) {
+        this.channel = channel;
+    }
+    
+    public String getRecipient() {
+        return recipient;
+    }
+    
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+    
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+    
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.register.reactive.repository;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of the blocking service's
+ * {@code IdempotencyRecordRepository} lookups. Inserts go through
+ * {@code R2dbcEntityTemplate} because the key is assigned by the client.
+ */
+@Repository
+public interface ReactiveIdempotencyKeyRepository extends ReactiveCrudRepository<IdempotencyKeyRecord, String> {
+    
+    @Query("select r.fingerprint, r.user_id, coalesce(u.status, r.status) as status, "
+            + "(select max(o.sent_at) from verification_outbox o where o.user_id = r.user_id) as sent_at "
+            + "from idempotency_keys r left join users u on u.user_id = r.user_id "
+            + "where r.idempotency_key = :idempotencyKey")
+    Mono<RegistrationRow> findRegistration(String idempotencyKey);
+}
@@ -0,0 +1,23 @@
+package com.example.register.reactive.repository;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of the blocking service's {@code UserRepository}
+ * lookups. Inserts go through {@code R2dbcEntityTemplate} because ids are
+ * assigned up front from the pooled sequence.
+ */
+@Repository
+public interface ReactiveUserRepository extends ReactiveCrudRepository<UserRecord, Long> {
+    
+    Mono<Boolean> existsByUsername(String username);
+    
+    Mono<Boolean> existsByEmail(String email);
+    
+    Mono<Boolean> existsByPhone(String phone);
+    
+    Mono<UserRecord> findByEmail(String email);
+}
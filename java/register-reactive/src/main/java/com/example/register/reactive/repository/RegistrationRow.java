@@ -0,0 +1,10 @@
+package com.example.register.reactive.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns needed to replay a registration response; {@code sentAt} is
+ * null until the verification email has been dispatched from the outbox.
+ */
+public record RegistrationRow(String fingerprint, String userId, String status, LocalDateTime sentAt) {
+}
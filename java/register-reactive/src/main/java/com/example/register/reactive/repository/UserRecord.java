@@ -0,0 +1,145 @@
+package com.example.register.reactive.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * R2DBC mapping of the {@code users} table owned by the blocking service's
+ * {@code User} entity; the two must stay column-compatible.
+ */
+@Table("users")
+public class UserRecord {
+    
+    public static final String PENDING_VERIFICATION = "PENDING_VERIFICATION";
+    
+    @Id
+    private Long id;
+    
+    private String userId;
+    
+    private String fullName;
+    
+    private String username;
+    
+    private String email;
+    
+    private String phone;
+    
+    @Column("password_hash")
+    private String password;
+    
+    private LocalDate dob;
+    
+    private Boolean acceptTerms;
+    
+    private String status;
+    
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime verifiedAt;
+    
+    // Constructors
+    public UserRecord() {
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+    
+    public String getFullName() {
+        return fullName;
+    }
+    
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    public String getPhone() {
+        return phone;
+    }
+    
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+    
+    public String getPassword() {
+        return password;
+    }
+    
+    public void setPassword(String password) {
+        this.password = password;
+    }
+    
+    public LocalDate getDob() {
+        return dob;
+    }
+    
+    public void setDob(LocalDate dob) {
+        this.dob = dob;
+    }
+    
+    public Boolean getAcceptTerms() {
+        return acceptTerms;
+    }
+    
+    public void setAcceptTerms(Boolean acceptTerms) {
+        this.acceptTerms = acceptTerms;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getVerifiedAt() {
+        return verifiedAt;
+    }
+    
+    public void setVerifiedAt(LocalDateTime verifiedAt) {
+        this.verifiedAt = verifiedAt;
+    }
+}
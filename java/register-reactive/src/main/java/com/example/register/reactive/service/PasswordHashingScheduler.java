@@ -0,0 +1,67 @@
+package com.example.register.reactive.service;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.register.exception.ServiceUnavailableException;
+import com.example.register.service.PasswordHasher;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Runs bcrypt on a bounded scheduler sized to the CPU cores, so hashing never
+ * blocks an event-loop thread. As in the blocking service, a full queue
+ * rejects the registration with a {@link ServiceUnavailableException} rather
+ * than letting work pile up.
+ */
+@Component
+public class PasswordHashingScheduler {
+    
+    private final PasswordHasher passwordHasher;
+    private final Scheduler scheduler;
+    private final long retryAfterSeconds;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+    
+    @Autowired
+    public PasswordHashingScheduler(
+            PasswordHasher passwordHasher,
+            MeterRegistry meterRegistry,
+            @Value("${register.hashing.threads:0}") int threads,
+            @Value("${register.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${register.hashing.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.passwordHasher = passwordHasher;
+        this.retryAfterSeconds = retryAfterSeconds;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.scheduler = Schedulers.newBoundedElastic(poolSize, queueCapacity, "password-hash", 60, true);
+        this.hashTimer = Timer.builder("register.hashing.duration")
+            .description("Time spent computing a password hash")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("register.hashing.rejected")
+            .description("Hashing tasks rejected because the queue was full")
+            .register(meterRegistry);
+    }
+    
+    public Mono<String> hash(String rawPassword) {
+        return Mono.fromCallable(() -> hashTimer.recordCallable(() -> passwordHasher.hash(rawPassword)))
+            .subscribeOn(scheduler)
+            .onErrorMap(RejectedExecutionException.class, e -> {
+                rejectedCounter.increment();
+                return new ServiceUnavailableException("Registration is busy, please retry shortly", retryAfterSeconds);
+            });
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.register.reactive.service;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Hands out ids from a database sequence with the same pooled semantics as
+ * Hibernate's {@code allocationSize}: each sequence value {@code hi} reserves
+ * {@code (hi - allocationSize, hi]}, so this service and the JPA service can
+ * insert into the same tables without their id blocks overlapping.
+ */
+final class PooledSequence {
+    
+    private final DatabaseClient databaseClient;
+    private final String sequenceName;
+    private final int allocationSize;
+    private long next = 1;
+    private long max;
+    
+    PooledSequence(DatabaseClient databaseClient, String sequenceName, int allocationSize) {
+        this.databaseClient = databaseClient;
+        this.sequenceName = sequenceName;
+        this.allocationSize = allocationSize;
+    }
+    
+    Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            Long id = take();
+            if (id != null) {
+                return Mono.just(id);
+            }
+            return databaseClient.sql("select nextval('" + sequenceName + "')")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .map(this::allocate);
+        });
+    }
+    
+    private synchronized Long take() {
+        return next <= max ? next++ : null;
+    }
+    
+    // Concurrent fetches each get their own block; the newest one replaces whatever is left
+    private synchronized long allocate(long hi) {
+        next = Math.max(1, hi - allocationSize + 1);
+        max = hi;
+        return next++;
+    }
+}
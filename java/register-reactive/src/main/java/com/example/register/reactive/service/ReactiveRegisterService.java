@@ -0,0 +1,212 @@
+package com.example.register.reactive.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.example.register.dto.RegisterRequest;
+import com.example.register.dto.RegisterResponse;
+import com.example.register.exception.ValidationException;
+import com.example.register.service.RequestFingerprint;
+import com.example.register.service.UserIdGenerator;
+import com.example.register.reactive.repository.IdempotencyKeyRecord;
+import com.example.register.reactive.repository.OutboxRecord;
+import com.example.register.reactive.repository.ReactiveIdempotencyKeyRepository;
+import com.example.register.reactive.repository.ReactiveUserRepository;
+import com.example.register.reactive.repository.RegistrationRow;
+import com.example.register.reactive.repository.UserRecord;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking registration with the same contract as the blocking
+ * {@code RegisterService}: replay by Idempotency-Key, password and uniqueness
+ * checks, bcrypt off the event loop, then the user and its verification
+ * outbox row in one transaction.
+ */
+@Service
+public class ReactiveRegisterService {
+    
+    private static final Map<String, String> KEY_REUSED = Map.of(
+        "idempotencyKey", "Idempotency-Key was already used for a different request");
+    
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveIdempotencyKeyRepository idempotencyRepository;
+    private final R2dbcEntityTemplate entityTemplate;
+    private final PasswordHashingScheduler passwordHashing;
+    private final UserIdGenerator userIdGenerator;
+    private final TransactionalOperator transactionalOperator;
+    private final PooledSequence userIds;
+    private final PooledSequence outboxIds;
+    private final Duration idempotencyTtl;
+    
+    @Autowired
+    public ReactiveRegisterService(ReactiveUserRepository userRepository,
+            ReactiveIdempotencyKeyRepository idempotencyRepository, R2dbcEntityTemplate entityTemplate,
+            DatabaseClient databaseClient, PasswordHashingScheduler passwordHashing,
+            UserIdGenerator userIdGenerator, ReactiveTransactionManager transactionManager,
+            @Value("${register.sequence.allocation-size:50}") int allocationSize,
+            @Value("${register.idempotency.ttl:24h}") Duration idempotencyTtl) {
+        this.userRepository = userRepository;
+        this.idempotencyRepository = idempotencyRepository;
+        this.entityTemplate = entityTemplate;
+        this.passwordHashing = passwordHashing;
+        this.userIdGenerator = userIdGenerator;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+        this.userIds = new PooledSequence(databaseClient, "users_seq", allocationSize);
+        this.outboxIds = new PooledSequence(databaseClient, "verification_outbox_seq", allocationSize);
+        this.idempotencyTtl = idempotencyTtl;
+    }
+    
+    /**
+     * With an Idempotency-Key, the same request replays the first response and
+     * a different request under that key is refused; without one, nothing is
+     * looked up or stored.
+     */
+    public Mono<RegisterResponse> register(RegisterRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return registerNew(request, null, null);
+        }
+        String fingerprint = RequestFingerprint.of(request);
+        return findReplay(idempotencyKey, fingerprint)
+            .switchIfEmpty(Mono.defer(() -> registerNew(request, idempotencyKey, fingerprint)));
+    }
+    
+    private Mono<RegisterResponse> registerNew(RegisterRequest request, String idempotencyKey, String fingerprint) {
+        // Hashing happens before the transaction so no connection is held meanwhile
+        return validateRegistrationRequest(request)
+            .then(passwordHashing.hash(request.getPassword()))
+            .map(hash -> newUser(request, hash))
+            .flatMap(user -> insert(user, idempotencyKey, fingerprint)
+                .onErrorResume(DataIntegrityViolationException.class,
+                    e -> resolveConflict(request, idempotencyKey, e).then(Mono.empty())))
+            .map(this::buildResponse)
+            // Lost a race on the idempotency key: replay the winner's registration
+            .switchIfEmpty(Mono.defer(() -> findReplay(idempotencyKey, fingerprint)));
+    }
+    
+    private Mono<UserRecord> insert(UserRecord user, String idempotencyKey, String fingerprint) {
+        Mono<UserRecord> saved = userIds.nextId()
+            .zipWith(outboxIds.nextId())
+            .flatMap(ids -> {
+                user.setId(ids.getT1());
+                // Queue the verification email; the blocking service's OutboxDispatcher sends it after commit
+                return entityTemplate.insert(user)
+                    .flatMap(persisted -> entityTemplate.insert(OutboxRecord.verificationEmail(ids.getT2(), persisted))
+                        .thenReturn(persisted));
+            });
+        if (idempotencyKey != null) {
+            // Claimed in the same transaction, so a key never points at a rolled-back user
+            saved = saved.flatMap(persisted -> entityTemplate.insert(IdempotencyKeyRecord.of(idempotencyKey, fingerprint,
+                    persisted, persisted.getCreatedAt().plus(idempotencyTtl)))
+                .thenReturn(persisted));
+        }
+        return transactionalOperator.transactional(saved);
+    }
+    
+    private Mono<RegisterResponse> findReplay(String idempotencyKey, String fingerprint) {
+        if (idempotencyKey == null) {
+            return Mono.empty();
+        }
+        return idempotencyRepository.findRegistration(idempotencyKey).flatMap(registration -> {
+            // Records copied from before fingerprints were kept have none and replay as before
+            if (registration.fingerprint() != null && !registration.fingerprint().equals(fingerprint)) {
+                return Mono.error(new ValidationException("IDEMPOTENCY_KEY_REUSED", KEY_REUSED));
+            }
+            return Mono.just(buildResponse(registration));
+        });
+    }
+    
+    // Completes empty when the conflict was on the idempotency key, otherwise fails with the taken fields
+    private Mono<Void> resolveConflict(RegisterRequest request, String idempotencyKey,
+            DataIntegrityViolationException cause) {
+        Mono<Boolean> keyTaken = idempotencyKey == null
+            ? Mono.just(false)
+            : idempotencyRepository.existsById(idempotencyKey);
+        return keyTaken.flatMap(replayable -> {
+            if (replayable) {
+                return Mono.empty();
+            }
+            return uniquenessErrors(request).flatMap(errors -> errors.isEmpty()
+                ? Mono.error(cause)
+                : Mono.error(new ValidationException("VALIDATION_FAILED", errors)));
+        });
+    }
+    
+    private Mono<Void> validateRegistrationRequest(RegisterRequest request) {
+        return uniquenessErrors(request).flatMap(errors -> {
+            // Check password match
+            if (!request.getPassword().equals(request.getConfirmPassword())) {
+                errors.put("confirmPassword", "Passwords do not match");
+            }
+            if (!errors.isEmpty()) {
+                return Mono.error(new ValidationException("VALIDATION_FAILED", errors));
+            }
+            return Mono.empty();
+        });
+    }
+    
+    // The three lookups run concurrently on separate connections
+    private Mono<Map<String, String>> uniquenessErrors(RegisterRequest request) {
+        return Mono.zip(
+                userRepository.existsByUsername(request.getUsername()),
+                userRepository.existsByEmail(request.getEmail()),
+                userRepository.existsByPhone(request.getPhone()))
+            .map(exists -> {
+                Map<String, String> errors = new HashMap<>();
+                if (exists.getT1()) {
+                    errors.put("username", "Username already exists");
+                }
+                if (exists.getT2()) {
+                    errors.put("email", "Email already registered");
+                }
+                if (exists.getT3()) {
+                    errors.put("phone", "Phone number already registered");
+                }
+                return errors;
+            });
+    }
+    
+    UserRecord newUser(RegisterRequest request, String passwordHash) {
+        UserRecord user = new UserRecord();
+        user.setUserId(userIdGenerator.next());
+        user.setFullName(request.getFullName());
+        user.setUsername(request.getUsername());
+        user.setEmail(request.getEmail());
+        user.setPhone(request.getPhone());
+        user.setPassword(passwordHash);
+        user.setDob(request.getDob());
+        user.setAcceptTerms(request.getAcceptTerms());
+        user.setStatus(UserRecord.PENDING_VERIFICATION);
+        user.setCreatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        return user;
+    }
+    
+    private RegisterResponse buildResponse(UserRecord user) {
+        // Just queued: nothing has been sent yet
+        return buildResponse(user.getUserId(), user.getStatus(), null);
+    }
+    
+    private RegisterResponse buildResponse(RegistrationRow registration) {
+        return buildResponse(registration.userId(), registration.status(), registration.sentAt());
+    }
+    
+    private RegisterResponse buildResponse(String userId, String status, LocalDateTime sentAt) {
+        return new RegisterResponse(
+            userId,
+            status.toLowerCase(),
+            new RegisterResponse.VerificationInfo("email", sentAt)
+        );
+    }
+}
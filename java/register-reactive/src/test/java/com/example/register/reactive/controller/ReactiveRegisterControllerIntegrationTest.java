@@ -0,0 +1,262 @@
+package com.example.register.reactive.controller;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.example.register.dto.RegisterRequest;
+import com.example.register.reactive.repository.ReactiveUserRepository;
+import com.example.register.reactive.repository.UserRecord;
+
+/**
+ * The single-registration scenarios of the blocking service's
+ * {@code RegisterControllerIntegrationTest}, against the reactive stack.
+ */
+@SpringBootTest
+@AutoConfigureWebTestClient
+class ReactiveRegisterControllerIntegrationTest {
+    
+    @Autowired
+    private WebTestClient webTestClient;
+    
+    @Autowired
+    private DatabaseClient databaseClient;
+    
+    @Autowired
+    private ReactiveUserRepository userRepository;
+    
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("delete from idempotency_keys").then().block();
+        databaseClient.sql("delete from verification_outbox").then().block();
+        databaseClient.sql("delete from users").then().block();
+    }
+    
+    @Test
+    void testRegister_Success() {
+        // Arrange
+        RegisterRequest request = createValidRequest();
+        
+        // Act & Assert
+        register(request, "test-key-001")
+            .expectStatus().isCreated()
+            .expectBody()
+            .jsonPath("$.userId").value(matchesPattern("usr_[0-9A-Z]{13}"))
+            .jsonPath("$.status").isEqualTo("pending_verification")
+            .jsonPath("$.verification.channel").isEqualTo("email")
+            .jsonPath("$.verification.sentAt").value(nullValue());
+        
+        assertThat(count("verification_outbox"), is(1L));
+    }
+    
+    @Test
+    void testRegister_ReplayReportsDispatchedEmail() {
+        // Arrange
+        RegisterRequest request = createValidRequest();
+        String idempotencyKey = "test-key-outbox";
+        register(request, idempotencyKey)
+            .expectStatus().isCreated()
+            .expectBody()
+            .jsonPath("$.verification.sentAt").value(nullValue());
+        
+        // Act - the blocking service's dispatcher marks the email sent
+        databaseClient.sql("update verification_outbox set status = 'SENT', sent_at = current_timestamp").then().block();
+        
+        // Assert
+        register(request, idempotencyKey)
+            .expectStatus().isCreated()
+            .expectBody()
+            .jsonPath("$.verification.sentAt").value(notNullValue());
+    }
+    
+    @Test
+    void testRegister_Idempotency() {
+        // Arrange
+        RegisterRequest request = createValidRequest();
+        String idempotencyKey = "test-key-002";
+        
+        // Act
+        String firstResponse = registerForBody(request, idempotencyKey);
+        String secondResponse = registerForBody(request, idempotencyKey);
+        
+        // Assert - Both responses should be identical
+        assertThat(secondResponse, is(firstResponse));
+        assertThat(count("users"), is(1L));
+        assertThat(count("idempotency_keys"), is(1L));
+    }
+    
+    @Test
+    void testRegister_IdempotencyKeyReusedForDifferentRequest() {
+        // Arrange
+        String idempotencyKey = "test-key-reused";
+        register(createValidRequest(), idempotencyKey).expectStatus().isCreated();
+        RegisterRequest other = createValidRequest();
+        other.setUsername("someone.else");
+        other.setEmail("someone.else@example.com");
+        other.setPhone("+66899999999");
+        
+        // Act & Assert
+        register(other, idempotencyKey)
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.error.code").isEqualTo("IDEMPOTENCY_KEY_REUSED");
+        
+        assertThat(count("users"), is(1L));
+    }
+    
+    @Test
+    void testRegister_ValidationErrors() {
+        // Arrange
+        RegisterRequest request = new RegisterRequest();
+        request.setFullName("A"); // Too short
+        request.setUsername("ab"); // Too short
+        request.setEmail("invalid-email"); // Invalid format
+        request.setPhone("123"); // Invalid format
+        request.setPassword("weak"); // Too weak
+        request.setConfirmPassword("weak");
+        request.setDob(LocalDate.now().plusDays(1)); // Future date
+        request.setAcceptTerms(false); // Not accepted
+        
+        // Act & Assert
+        register(request, "test-key-003")
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.error.code").isEqualTo("VALIDATION_FAILED")
+            .jsonPath("$.error.fields.username").value(notNullValue())
+            .jsonPath("$.error.fields.acceptTerms").isEqualTo("You must accept the terms and conditions");
+    }
+    
+    @Test
+    void testRegister_PasswordMismatch() {
+        // Arrange
+        RegisterRequest request = createValidRequest();
+        request.setConfirmPassword("DifferentPassword123!");
+        
+        // Act & Assert
+        register(request, "test-key-004")
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.error.code").isEqualTo("VALIDATION_FAILED")
+            .jsonPath("$.error.fields.confirmPassword").isEqualTo("Passwords do not match");
+    }
+    
+    @Test
+    void testRegister_DuplicateUsername() {
+        // Arrange
+        RegisterRequest firstRequest = createRequest("duplicate.user", "first@example.com", "+66811111111");
+        register(firstRequest, "test-key-005").expectStatus().isCreated();
+        RegisterRequest secondRequest = createRequest("duplicate.user", "second@example.com", "+66822222222");
+        
+        // Act & Assert
+        register(secondRequest, "test-key-006")
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.error.code").isEqualTo("VALIDATION_FAILED")
+            .jsonPath("$.error.fields.username").isEqualTo("Username already exists");
+    }
+    
+    @Test
+    void testRegister_DuplicateEmail() {
+        // Arrange
+        RegisterRequest firstRequest = createRequest("user.one", "duplicate@example.com", "+66811111111");
+        register(firstRequest, "test-key-007").expectStatus().isCreated();
+        RegisterRequest secondRequest = createRequest("user.two", "duplicate@example.com", "+66822222222");
+        
+        // Act & Assert
+        register(secondRequest, "test-key-008")
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.error.code").isEqualTo("VALIDATION_FAILED")
+            .jsonPath("$.error.fields.email").isEqualTo("Email already registered");
+    }
+    
+    @Test
+    void testRegister_PasswordEncryption() {
+        // Arrange
+        RegisterRequest request = createValidRequest();
+        
+        // Act
+        register(request, "test-key-009").expectStatus().isCreated();
+        
+        // Assert - Check that password is encrypted in database
+        UserRecord savedUser = userRepository.findByEmail(request.getEmail()).block();
+        assertThat(savedUser.getPassword(), not(request.getPassword()));
+        assertThat(savedUser.getPassword(), startsWith("$2a$"));
+    }
+    
+    @Test
+    void testRegister_MissingIdempotencyKey() {
+        // Arrange
+        RegisterRequest request = createValidRequest();
+        
+        // Act & Assert - Should succeed without storing a key
+        webTestClient.post().uri("/api/v1/register")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(request)
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody()
+            .jsonPath("$.userId").value(notNullValue())
+            .jsonPath("$.status").isEqualTo("pending_verification");
+        
+        assertThat(count("idempotency_keys"), is(0L));
+    }
+    
+    private WebTestClient.ResponseSpec register(RegisterRequest request, String idempotencyKey) {
+        return webTestClient.post().uri("/api/v1/register")
+            .header("Idempotency-Key", idempotencyKey)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(request)
+            .exchange();
+    }
+    
+    private String registerForBody(RegisterRequest request, String idempotencyKey) {
+        return register(request, idempotencyKey)
+            .expectStatus().isCreated()
+            .expectBody(String.class)
+            .returnResult()
+            .getResponseBody();
+    }
+    
+    private long count(String table) {
+        return databaseClient.sql("select count(*) from " + table)
+            .map(row -> row.get(0, Long.class))
+            .one()
+            .block();
+    }
+    
+    private RegisterRequest createRequest(String username, String email, String phone) {
+        RegisterRequest request = createValidRequest();
+        request.setUsername(username);
+        request.setEmail(email);
+        request.setPhone(phone);
+        return request;
+    }
+    
+    private RegisterRequest createValidRequest() {
+        RegisterRequest request = new RegisterRequest();
+        request.setFullName("Somkiat Pui");
+        request.setUsername("somkiat.p");
+        request.setEmail("somkiat.p@example.com");
+        request.setPhone("+66812345678");
+        request.setPassword("Pa$$w0rd2025!");
+        request.setConfirmPassword("Pa$$w0rd2025!");
+        request.setDob(LocalDate.of(1995, 5, 10));
+        request.setAcceptTerms(true);
+        return request;
+    }
+}
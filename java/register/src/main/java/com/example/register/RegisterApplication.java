@@ -1,13 +1,24 @@
 package com.example.register;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.example.register.importer.BulkImportRunner;
 
 @SpringBootApplication
+@EnableScheduling
 public class RegisterApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(RegisterApplication.class, args);
+		SpringApplication application = new SpringApplication(RegisterApplication.class);
+		if (BulkImportRunner.requested(args)) {
+			// Bulk import: no web server, and exit once the file has been processed
+			application.setWebApplicationType(WebApplicationType.NONE);
+			System.exit(SpringApplication.exit(application.run(args)));
+		}
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,45 @@
+package com.example.register.audit;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One audit record as read back from a segment. Events carry ids, codes and
+ * field names only; request bodies and personal data never reach the log.
+ *
+ * @param time           when the event happened, to the microsecond
+ * @param userId         the account concerned, when known
+ * @param idempotencyKey the request's Idempotency-Key, when it had one
+ * @param errorCode      the rejection's error code, {@code null} for other types
+ * @param fields         the rejected fields, empty for other types
+ */
+public record AuditEvent(Instant time, Type type, String userId, String idempotencyKey, String errorCode,
+        List<String> fields) {
+
+    public enum Type {
+        REGISTERED(1),
+        REPLAYED(2),
+        REJECTED(3),
+        VERIFIED(4);
+
+        // Stored in segments, so fixed independently of declaration order
+        private final byte code;
+
+        Type(int code) {
+            this.code = (byte) code;
+        }
+
+        byte code() {
+            return code;
+        }
+
+        static Type of(byte code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown audit event type " + code);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.register.audit;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Audit trail of registrations, idempotent replays, rejections and email
+ * verifications, appended to segment files under {@code register.audit.dir}.
+ *
+ * Recording an event only stamps it and puts it in an {@link AuditRing}; a
+ * single {@code audit-writer} thread drains the ring into an
+ * {@link AuditSegmentWriter} and syncs the segment at most once per
+ * {@code register.audit.fsync-interval}, so request threads never wait for
+ * the disk. When the writer falls {@code register.audit.buffer-size} events
+ * behind, or cannot write, events are dropped and counted rather than
+ * slowing registrations down. Read segments back with
+ * {@link AuditSegmentReader}.
+ */
+@Component
+public class AuditLog {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+
+    private static final int DRAIN_BATCH = 1024;
+    // An idle writer parks for twice as long each time, up to the maximum, until there is work again
+    private static final long MIN_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(5);
+
+    private final AuditRing ring;
+    private final AuditSegmentWriter writer;
+    private final Path dir;
+    private final long fsyncIntervalNanos;
+    private final AuditRing.Handler sink = this::write;
+    private final Thread thread;
+    private final Counter droppedFull;
+    private final Counter droppedFailed;
+    private final Counter written;
+    private final Timer fsyncTimer;
+    private volatile boolean running;
+    // Set when the writer thread died; everything recorded after it counts as write_failed
+    private volatile boolean writerDead;
+    // Writer thread only
+    private boolean failing;
+
+    @Autowired
+    public AuditLog(
+            MeterRegistry meterRegistry,
+            @Value("${register.audit.enabled:true}") boolean enabled,
+            @Value("${register.audit.dir:${java.io.tmpdir}/register/audit}") String dir,
+            @Value("${register.audit.buffer-size:65536}") int bufferSize,
+            @Value("${register.audit.segment-size:64MB}") DataSize segmentSize,
+            @Value("${register.audit.fsync-interval:1s}") Duration fsyncInterval) {
+        if (!enabled) {
+            this.ring = null;
+            this.writer = null;
+            this.dir = null;
+            this.fsyncIntervalNanos = 0;
+            this.thread = null;
+            this.droppedFull = null;
+            this.droppedFailed = null;
+            this.written = null;
+            this.fsyncTimer = null;
+            log.info("Audit log disabled");
+            return;
+        }
+        this.ring = new AuditRing(bufferSize);
+        this.dir = Path.of(dir);
+        this.writer = new AuditSegmentWriter(this.dir, Math.toIntExact(segmentSize.toBytes()),
+            System::currentTimeMillis);
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+
+        Gauge.builder("register.audit.backlog", ring, AuditRing::backlog)
+            .description("Audit events waiting for the writer")
+            .register(meterRegistry);
+        this.droppedFull = Counter.builder("register.audit.dropped")
+            .description("Audit events lost instead of delaying a request")
+            .tag("reason", "buffer_full")
+            .register(meterRegistry);
+        this.droppedFailed = Counter.builder("register.audit.dropped")
+            .description("Audit events lost instead of delaying a request")
+            .tag("reason", "write_failed")
+            .register(meterRegistry);
+        this.written = Counter.builder("register.audit.written")
+            .description("Audit events appended to a segment")
+            .register(meterRegistry);
+        this.fsyncTimer = Timer.builder("register.audit.fsync")
+            .description("Time spent syncing a batch of audit events to disk")
+            .register(meterRegistry);
+
+        this.running = true;
+        this.thread = Thread.ofPlatform().name("audit-writer").daemon(true).unstarted(this::run);
+        thread.start();
+        log.info("Audit log writing to {} ({} segments, {} buffered events, fsync every {})",
+            this.dir, segmentSize, ring.capacity(), fsyncInterval);
+    }
+
+    /**
+     * An audit log that records nothing, for code run outside the application context.
+     */
+    public static AuditLog disabled() {
+        return new AuditLog(null, false, null, 0, null, null);
+    }
+
+    public void registered(String userId, String idempotencyKey) {
+        offer(AuditEvent.Type.REGISTERED, userId, idempotencyKey, null, null);
+    }
+
+    public void replayed(String userId, String idempotencyKey) {
+        offer(AuditEvent.Type.REPLAYED, userId, idempotencyKey, null, null);
+    }
+
+    /**
+     * Records a refused registration or verification: the error code and the
+     * names of the rejected fields, never their values or messages.
+     */
+    public void rejected(String userId, String idempotencyKey, String errorCode, Map<String, String> fieldErrors) {
+        offer(AuditEvent.Type.REJECTED, userId, idempotencyKey, errorCode,
+            fieldErrors == null ? null : fieldErrors.keySet());
+    }
+
+    public void verified(String userId) {
+        offer(AuditEvent.Type.VERIFIED, userId, null, null, null);
+    }
+
+    private void offer(AuditEvent.Type type, String userId, String idempotencyKey, String errorCode,
+            Set<String> fields) {
+        if (ring == null) {
+            return;
+        }
+        Instant now = Instant.now();
+        long epochMicros = now.getEpochSecond() * 1_000_000L + now.getNano() / 1_000;
+        if (writerDead) {
+            droppedFailed.increment();
+        } else if (!ring.offer(epochMicros, type, userId, idempotencyKey, errorCode, fields)) {
+            droppedFull.increment();
+        }
+    }
+
+    private void run() {
+        try {
+            drainUntilStopped();
+        } catch (Throwable e) {
+            writerDead = true;
+            droppedFailed.increment(ring.backlog());
+            log.error("Audit writer for {} stopped; dropping all further events", dir, e);
+            writer.abandon();
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException | RuntimeException | InternalError e) {
+            log.warn("Could not close audit segment in {}", dir, e);
+        }
+    }
+
+    private void drainUntilStopped() {
+        long lastForce = System.nanoTime();
+        long idlePark = MIN_IDLE_PARK_NANOS;
+        boolean dirty = false;
+        while (true) {
+            // Read before draining, so everything recorded before stop() is still written
+            boolean stopping = !running;
+            int drained = ring.drain(sink, DRAIN_BATCH);
+            dirty |= drained > 0;
+            long now = System.nanoTime();
+            if (dirty && now - lastForce >= fsyncIntervalNanos) {
+                force();
+                dirty = false;
+                lastForce = now;
+            }
+            if (drained > 0) {
+                idlePark = MIN_IDLE_PARK_NANOS;
+            } else if (stopping) {
+                break;
+            } else {
+                // Not past a pending sync, though
+                long park = dirty ? Math.min(idlePark, fsyncIntervalNanos - (now - lastForce)) : idlePark;
+                LockSupport.parkNanos(Math.max(park, MIN_IDLE_PARK_NANOS));
+                idlePark = Math.min(idlePark * 2, MAX_IDLE_PARK_NANOS);
+            }
+        }
+        if (dirty) {
+            force();
+        }
+    }
+
+    private void write(long epochMicros, AuditEvent.Type type, String userId, String idempotencyKey,
+            String errorCode, Set<String> fields) {
+        try {
+            writer.append(epochMicros, type, userId, idempotencyKey, errorCode, fields);
+            written.increment();
+            failing = false;
+        } catch (IOException | RuntimeException | InternalError e) {
+            // InternalError: a fault on the mapped segment, e.g. the disk filled up under a mapping not preallocated
+            droppedFailed.increment();
+            writer.abandon();
+            // Once per failure streak, not once per event
+            if (!failing) {
+                log.error("Could not write audit segment in {}; dropping events until a write succeeds", dir, e);
+                failing = true;
+            }
+        }
+    }
+
+    private void force() {
+        long started = System.nanoTime();
+        try {
+            writer.force();
+        } catch (RuntimeException | InternalError e) {
+            log.warn("Could not sync audit segment in {}", dir, e);
+        } finally {
+            fsyncTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Writes and syncs what is queued, then stops the writer.
+     */
+    @PreDestroy
+    public void stop() {
+        if (thread == null || !running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            if (!thread.join(STOP_TIMEOUT)) {
+                log.warn("Audit writer did not finish within {}; {} events not written", STOP_TIMEOUT, ring.backlog());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
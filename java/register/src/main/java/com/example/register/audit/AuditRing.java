@@ -0,0 +1,127 @@
+package com.example.register.audit;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded hand-off from request threads to the audit writer: many
+ * producers, one consumer, every slot allocated up front.
+ *
+ * A producer claims the next sequence with a CAS on the head, fills the
+ * slot's fields and then publishes the sequence number into the slot with
+ * release semantics; the consumer reads a slot only once it sees that
+ * sequence there. Nothing ever waits: when every slot is claimed and not yet
+ * consumed, {@link #offer} returns {@code false} and the event is dropped.
+ */
+final class AuditRing {
+
+    @FunctionalInterface
+    interface Handler {
+        void onEvent(long epochMicros, AuditEvent.Type type, String userId, String idempotencyKey,
+                String errorCode, Set<String> fields);
+    }
+
+    private final int mask;
+    private final long[] times;
+    private final AuditEvent.Type[] types;
+    private final String[] userIds;
+    private final String[] idempotencyKeys;
+    private final String[] errorCodes;
+    private final Object[] fields;
+    private final AtomicLongArray published;
+    private final AtomicLong head = new AtomicLong();
+    // Next sequence to consume; written by the consumer only
+    private volatile long tail;
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    AuditRing(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.times = new long[size];
+        this.types = new AuditEvent.Type[size];
+        this.userIds = new String[size];
+        this.idempotencyKeys = new String[size];
+        this.errorCodes = new String[size];
+        this.fields = new Object[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Queues one event without blocking.
+     *
+     * @return {@code false} when the ring is full and the event was not queued
+     */
+    boolean offer(long epochMicros, AuditEvent.Type type, String userId, String idempotencyKey,
+            String errorCode, Set<String> fieldNames) {
+        long sequence;
+        do {
+            sequence = head.get();
+            if (sequence - tail > mask) {
+                return false;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) sequence & mask;
+        times[slot] = epochMicros;
+        types[slot] = type;
+        userIds[slot] = userId;
+        idempotencyKeys[slot] = idempotencyKey;
+        errorCodes[slot] = errorCode;
+        fields[slot] = fieldNames;
+        published.setRelease(slot, sequence);
+        return true;
+    }
+
+    /**
+     * Hands up to {@code max} events to {@code handler} in claim order. Only
+     * one thread may drain.
+     *
+     * @return the number of events handed over
+     */
+    @SuppressWarnings("unchecked")
+    int drain(Handler handler, int max) {
+        long next = tail;
+        int drained = 0;
+        while (drained < max) {
+            int slot = (int) next & mask;
+            if (published.getAcquire(slot) != next) {
+                // Not yet claimed, or claimed but still being filled
+                break;
+            }
+            try {
+                handler.onEvent(times[slot], types[slot], userIds[slot], idempotencyKeys[slot], errorCodes[slot],
+                    (Set<String>) fields[slot]);
+            } finally {
+                userIds[slot] = null;
+                idempotencyKeys[slot] = null;
+                errorCodes[slot] = null;
+                fields[slot] = null;
+                next++;
+                drained++;
+                // Frees the slot for producers
+                tail = next;
+            }
+        }
+        return drained;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Events claimed but not yet drained.
+     */
+    int backlog() {
+        return (int) Math.max(0, head.get() - tail);
+    }
+}
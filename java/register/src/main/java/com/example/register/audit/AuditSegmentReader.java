@@ -0,0 +1,168 @@
+package com.example.register.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reads audit segments back, oldest first. Also a command-line tool that
+ * prints the events of a time range as tab-separated lines:
+ *
+ * <pre>
+ * java -cp register-0.0.1-SNAPSHOT.jar com.example.register.audit.AuditSegmentReader &lt;dir&gt; [from] [to]
+ * </pre>
+ *
+ * with {@code from} (inclusive) and {@code to} (exclusive) as ISO-8601
+ * instants. Segments are picked by the opening time in their names: a
+ * segment is opened after everything in the one before it was written, so
+ * a segment followed by one opened before {@code from} holds nothing in the
+ * range and is never read. Events can be written a little after they were
+ * stamped, so segments opened up to {@link #WRITE_DELAY_MILLIS} after
+ * {@code to} are still read. Segments being written may be read at any time.
+ */
+public final class AuditSegmentReader {
+
+    // Far longer than an event waits in the ring before it is written
+    static final long WRITE_DELAY_MILLIS = 60_000;
+
+    private AuditSegmentReader() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 3) {
+            System.err.println("Usage: AuditSegmentReader <dir> [from] [to]  (ISO-8601 instants, to is exclusive)");
+            System.exit(2);
+        }
+        Instant from = args.length > 1 ? Instant.parse(args[1]) : null;
+        Instant to = args.length > 2 ? Instant.parse(args[2]) : null;
+        long count = scan(Path.of(args[0]), from, to, event -> System.out.println(format(event)));
+        System.err.println(count + " events");
+    }
+
+    /**
+     * Hands every event stamped in [{@code from}, {@code to}) to {@code consumer}
+     * in the order the segments hold them.
+     *
+     * @param from first instant included, {@code null} for no lower bound
+     * @param to   first instant excluded, {@code null} for no upper bound
+     * @return the number of events handed over
+     */
+    public static long scan(Path dir, Instant from, Instant to, Consumer<AuditEvent> consumer) throws IOException {
+        List<Path> segments = segments(dir);
+        long count = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            if (from != null && i + 1 < segments.size()
+                    && AuditSegmentWriter.startMillis(segments.get(i + 1)) < from.toEpochMilli()) {
+                continue;
+            }
+            if (to != null && AuditSegmentWriter.startMillis(segments.get(i)) > to.toEpochMilli() + WRITE_DELAY_MILLIS) {
+                break;
+            }
+            count += read(segments.get(i), event -> {
+                if ((from == null || !event.time().isBefore(from)) && (to == null || event.time().isBefore(to))) {
+                    consumer.accept(event);
+                    return true;
+                }
+                return false;
+            });
+        }
+        return count;
+    }
+
+    /**
+     * Segment files in {@code dir}, oldest first.
+     */
+    static List<Path> segments(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> AuditSegmentWriter.startMillis(file) >= 0)
+                .sorted(Comparator.comparingLong(AuditSegmentWriter::startMillis))
+                .toList();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Filter {
+        boolean accept(AuditEvent event);
+    }
+
+    private static long read(Path segment, Filter filter) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < AuditSegmentWriter.HEADER_BYTES || buffer.getInt() != AuditSegmentWriter.MAGIC) {
+            throw new IOException(segment + " is not an audit segment");
+        }
+        short version = buffer.getShort();
+        if (version != AuditSegmentWriter.VERSION) {
+            throw new IOException(segment + " has unsupported format version " + version);
+        }
+        buffer.getShort();
+
+        long accepted = 0;
+        while (buffer.remaining() >= Integer.BYTES) {
+            int length = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                // End of the written part, or a record cut short
+                break;
+            }
+            ByteBuffer record = buffer.slice(buffer.position(), length);
+            buffer.position(buffer.position() + length);
+            if (filter.accept(decode(record))) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    private static AuditEvent decode(ByteBuffer record) {
+        long micros = record.getLong();
+        AuditEvent.Type type = AuditEvent.Type.of(record.get());
+        String userId = string(record);
+        String idempotencyKey = string(record);
+        String errorCode = string(record);
+        String fields = string(record);
+        return new AuditEvent(Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+            Math.floorMod(micros, 1_000_000L) * 1_000L), type, userId, idempotencyKey, errorCode,
+            fields == null ? List.of() : List.of(fields.split(",")));
+    }
+
+    private static String string(ByteBuffer record) {
+        int length = Short.toUnsignedInt(record.getShort());
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static String format(AuditEvent event) {
+        List<String> columns = new ArrayList<>(6);
+        columns.add(event.time().toString());
+        columns.add(event.type().name());
+        columns.add(orDash(event.userId()));
+        columns.add(orDash(event.idempotencyKey()));
+        columns.add(orDash(event.errorCode()));
+        columns.add(event.fields().isEmpty() ? "-" : String.join(",", event.fields()));
+        return String.join("\t", columns);
+    }
+
+    private static String orDash(String value) {
+        return value == null ? "-" : value;
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.register.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.LongSupplier;
+
+/**
+ * Appends audit records to memory-mapped segment files of a fixed size.
+ * Not thread-safe: it is driven by the single audit writer thread.
+ *
+ * A segment is named {@code audit-<epoch millis>.seg} after the time it was
+ * opened, zero-padded so that names sort in time order, and starts with an
+ * 8-byte header (magic, format version, reserved). Each record follows as
+ *
+ * <pre>
+ * int   length of what follows
+ * long  epoch microseconds
+ * byte  event type
+ * 4 x   (unsigned short length, UTF-8 bytes): user id, idempotency key, error code, comma-separated fields
+ * </pre>
+ *
+ * The file is filled with zeros and mapped at its full size up front, so the
+ * unwritten rest reads as zeros and a zero length ends the segment. Writing
+ * the zeros, rather than letting the mapping extend a sparse file, makes a
+ * full disk fail the roll with an {@code IOException} instead of faulting
+ * ({@code InternalError}) on a later put. A record's length is written
+ * after its body, so a record cut short by a crash reads as the end.
+ * Records go to the page cache as they are appended; {@link #force()} makes
+ * everything appended since the previous call durable in one sync.
+ */
+final class AuditSegmentWriter implements AutoCloseable {
+
+    static final int MAGIC = 0x41554454; // "AUDT"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int MIN_SEGMENT_SIZE = 64 * 1024;
+    static final String PREFIX = "audit-";
+    static final String SUFFIX = ".seg";
+    // Longer values are cut, which also bounds a record well below MIN_SEGMENT_SIZE
+    static final int MAX_VALUE_CHARS = 255;
+
+    private final Path dir;
+    private final int segmentSize;
+    private final LongSupplier epochMillis;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int forcedUpTo;
+
+    /**
+     * @param epochMillis wall clock used to name segments, the same one events are stamped with
+     */
+    AuditSegmentWriter(Path dir, int segmentSize, LongSupplier epochMillis) {
+        if (segmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("segment size must be at least " + MIN_SEGMENT_SIZE + " bytes");
+        }
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.epochMillis = epochMillis;
+    }
+
+    void append(long epochMicros, AuditEvent.Type type, String userId, String idempotencyKey, String errorCode,
+            Set<String> fields) throws IOException {
+        byte[] user = bytes(userId);
+        byte[] key = bytes(idempotencyKey);
+        byte[] code = bytes(errorCode);
+        byte[] names = bytes(fields == null || fields.isEmpty() ? null : String.join(",", new TreeSet<>(fields)));
+        int length = Long.BYTES + 1 + 4 * Short.BYTES + user.length + key.length + code.length + names.length;
+
+        if (buffer == null || buffer.remaining() < Integer.BYTES + length) {
+            roll();
+        }
+        int start = buffer.position();
+        buffer.position(start + Integer.BYTES);
+        buffer.putLong(epochMicros);
+        buffer.put(type.code());
+        put(user);
+        put(key);
+        put(code);
+        put(names);
+        buffer.putInt(start, length);
+    }
+
+    /**
+     * Syncs what was appended to the current segment since the last call.
+     */
+    void force() {
+        if (buffer == null || buffer.position() == forcedUpTo) {
+            return;
+        }
+        int position = buffer.position();
+        buffer.force(forcedUpTo, position - forcedUpTo);
+        forcedUpTo = position;
+    }
+
+    /**
+     * Syncs and closes the current segment; the next append opens a new one.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        try {
+            force();
+        } finally {
+            buffer = null;
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Drops the current segment without syncing it, after a failed write.
+     */
+    void abandon() {
+        buffer = null;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Already failing; the next append opens a new segment
+            }
+            channel = null;
+        }
+    }
+
+    private void roll() throws IOException {
+        close();
+        Files.createDirectories(dir);
+        // Two segments opened within the same millisecond get consecutive names
+        long start = epochMillis.getAsLong();
+        Path file = dir.resolve(fileName(start));
+        while (Files.exists(file)) {
+            file = dir.resolve(fileName(++start));
+        }
+        FileChannel opened = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            preallocate(opened, segmentSize);
+            buffer = opened.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException | RuntimeException e) {
+            opened.close();
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        channel = opened;
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0);
+        forcedUpTo = 0;
+    }
+
+    private static void preallocate(FileChannel channel, int size) throws IOException {
+        ByteBuffer zeros = ByteBuffer.allocate(MIN_SEGMENT_SIZE);
+        long position = 0;
+        while (position < size) {
+            zeros.clear().limit((int) Math.min(zeros.capacity(), size - position));
+            position += channel.write(zeros, position);
+        }
+    }
+
+    private void put(byte[] value) {
+        buffer.putShort((short) value.length);
+        buffer.put(value);
+    }
+
+    private static byte[] bytes(String value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        String cut = value.length() > MAX_VALUE_CHARS ? value.substring(0, MAX_VALUE_CHARS) : value;
+        return cut.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static String fileName(long epochMillis) {
+        return String.format("%s%013d%s", PREFIX, epochMillis, SUFFIX);
+    }
+
+    /**
+     * @return the opening time encoded in a segment's name, or -1 when {@code file} is not a segment
+     */
+    static long startMillis(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.register.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Refuses to start with a connection pool that cannot work at the intended
+ * concurrency. With virtual threads there is no request-thread cap any more,
+ * so the pool becomes the only limit on concurrent database work: it must fit
+ * within what PostgreSQL accepts across all instances, and requests must not
+ * queue for a connection longer than {@code register.datasource.max-connection-wait}.
+ */
+@Component
+public class ConnectionPoolCheck {
+    
+    private static final Logger log = LoggerFactory.getLogger(ConnectionPoolCheck.class);
+    
+    private final DataSource dataSource;
+    private final boolean virtualThreads;
+    private final int instances;
+    private final Duration maxConnectionWait;
+    
+    @Autowired
+    public ConnectionPoolCheck(
+            DataSource dataSource,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${register.datasource.instances:1}") int instances,
+            @Value("${register.datasource.max-connection-wait:5s}") Duration maxConnectionWait) {
+        this.dataSource = dataSource;
+        this.virtualThreads = virtualThreads;
+        this.instances = instances;
+        this.maxConnectionWait = maxConnectionWait;
+    }
+    
+    @PostConstruct
+    public void verify() {
+        HikariDataSource hikari = primaryPool(dataSource);
+        if (hikari == null) {
+            return;
+        }
+        int poolSize = hikari.getMaximumPoolSize();
+        Duration connectionTimeout = Duration.ofMillis(hikari.getConnectionTimeout());
+        List<String> violations = violations(poolSize, instances, serverConnectionLimit(),
+            virtualThreads, connectionTimeout, maxConnectionWait);
+        if (!violations.isEmpty()) {
+            throw new IllegalStateException("Connection pool misconfigured: " + String.join("; ", violations));
+        }
+        log.info("Connection pool: {} connections, {} wait at most {} ms for one", poolSize,
+            virtualThreads ? "virtual-thread requests" : "requests", connectionTimeout.toMillis());
+    }
+    
+    // The pool itself, or the primary pool behind the read/write routing of ReadReplicaConfig
+    private static HikariDataSource primaryPool(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+    
+    static List<String> violations(int poolSize, int instances, Integer serverLimit, boolean virtualThreads,
+            Duration connectionTimeout, Duration maxConnectionWait) {
+        List<String> violations = new ArrayList<>();
+        if (serverLimit != null && (long) poolSize * instances > serverLimit) {
+            violations.add("maximum-pool-size " + poolSize + " x " + instances + " instances exceeds the "
+                + serverLimit + " connections the database accepts");
+        }
+        if (virtualThreads && connectionTimeout.compareTo(maxConnectionWait) > 0) {
+            violations.add("connection-timeout " + connectionTimeout.toMillis() + " ms lets virtual-thread requests "
+                + "queue for a connection longer than register.datasource.max-connection-wait ("
+                + maxConnectionWait.toMillis() + " ms)");
+        }
+        return violations;
+    }
+    
+    // Connections available to non-superusers, or null when the database does not say (e.g. H2)
+    private Integer serverConnectionLimit() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                return null;
+            }
+            try (Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery("select current_setting('max_connections')::int "
+                        + "- current_setting('superuser_reserved_connections')::int")) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        } catch (SQLException e) {
+            log.warn("Could not read the database connection limit; skipping the pool size check", e);
+            return null;
+        }
+    }
+}
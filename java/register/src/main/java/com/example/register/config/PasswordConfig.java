@@ -0,0 +1,26 @@
+package com.example.register.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.register.service.BCryptPasswordHasher;
+import com.example.register.service.PasswordHasher;
+
+@Configuration
+public class PasswordConfig {
+    
+    @Bean
+    public PasswordHasher passwordHasher(
+            @Value("${register.password.calibrate:true}") boolean calibrate,
+            @Value("${register.password.min-cost:10}") int minCost,
+            @Value("${register.password.max-cost:14}") int maxCost,
+            @Value("${register.password.hash-budget:250ms}") Duration hashBudget) {
+        if (!calibrate) {
+            return new BCryptPasswordHasher(minCost);
+        }
+        return BCryptPasswordHasher.calibrate(minCost, maxCost, hashBudget);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.register.config;
+
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.example.register.ratelimit.RateLimitFilter;
+import com.example.register.ratelimit.TokenBucketTable;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@ConditionalOnProperty(name = "register.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${register.rate-limit.permits-per-second:1}") double permitsPerSecond,
+            @Value("${register.rate-limit.burst:10}") int burst,
+            @Value("${register.rate-limit.max-clients:100000}") int maxClients,
+            @Value("${register.rate-limit.stripes:64}") int stripes,
+            @Value("${register.rate-limit.api-key-header:}") String apiKeyHeader,
+            @Value("${register.rate-limit.api-keys:}") Set<String> apiKeys,
+            @Value("${register.rate-limit.idempotency-prefix-length:0}") int idempotencyPrefixLength,
+            @Value("${register.rate-limit.prefixes-per-address:4}") int prefixesPerAddress)
+            throws JsonProcessingException {
+        TokenBucketTable buckets = new TokenBucketTable(permitsPerSecond, burst, maxClients, stripes, System::nanoTime);
+        // An address may spend up to prefixes-per-address clients' worth across its Idempotency-Key prefixes
+        TokenBucketTable addressBuckets = idempotencyPrefixLength <= 0 ? null : new TokenBucketTable(
+            permitsPerSecond * prefixesPerAddress, burst * prefixesPerAddress, maxClients, stripes, System::nanoTime);
+        return new RateLimitFilter(buckets, addressBuckets, apiKeyHeader, apiKeys, idempotencyPrefixLength,
+            objectMapper, meterRegistry);
+    }
+
+    // Registration endpoints only; after the observation filter so 429s still show in http.server.requests
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.addUrlPatterns("/api/v1/register", "/api/v1/register:batch");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
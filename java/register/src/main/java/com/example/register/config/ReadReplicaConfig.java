@@ -0,0 +1,83 @@
+package com.example.register.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.example.register.datasource.ReadRouting;
+import com.example.register.datasource.ReplicaRoutingDataSource;
+import com.example.register.datasource.WriteMarkingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sends read-only transactions to replicas and everything else to the
+ * primary. Repository methods opt in with {@code @Transactional(readOnly = true)};
+ * the application's {@link DataSource} defers taking a physical connection
+ * until the first statement, by which time the transaction has marked it
+ * read-only, and then takes it from {@link ReplicaRoutingDataSource}
+ * instead of the primary pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "register.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    // The pool Boot creates from spring.datasource.* when there are no replicas
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaDataSource(
+            HikariDataSource primaryDataSource,
+            ReadRouting readRouting,
+            MeterRegistry meterRegistry,
+            @Value("${register.datasource.replicas.urls}") List<String> urls,
+            @Value("${register.datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${register.datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${register.datasource.replicas.pool-size:10}") int poolSize,
+            @Value("${register.datasource.replicas.connection-timeout:1s}") Duration connectionTimeout) {
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + (replicas.size() + 1));
+            config.setJdbcUrl(url);
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setMaximumPoolSize(poolSize);
+            config.setConnectionTimeout(connectionTimeout.toMillis());
+            config.setReadOnly(true);
+            // Start even while a replica is down; reads fail over to the primary meanwhile
+            config.setInitializationFailTimeout(-1);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readRouting, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaDataSource,
+            ReadRouting readRouting) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(
+            new WriteMarkingDataSource(primaryDataSource, readRouting));
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
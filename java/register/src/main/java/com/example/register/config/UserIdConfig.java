@@ -0,0 +1,20 @@
+package com.example.register.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.register.service.TimeOrderedUserIdGenerator;
+import com.example.register.service.UserIdGenerator;
+
+@Configuration
+public class UserIdConfig {
+    
+    // Another UserIdGenerator bean replaces this one
+    @Bean
+    @ConditionalOnMissingBean(UserIdGenerator.class)
+    public UserIdGenerator userIdGenerator(@Value("${register.user-id.node-id:0}") int nodeId) {
+        return new TimeOrderedUserIdGenerator(nodeId, System::currentTimeMillis);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.register.config;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.register.service.VerificationTokens;
+
+@Configuration
+public class VerificationConfig {
+    
+    private static final Logger log = LoggerFactory.getLogger(VerificationConfig.class);
+    
+    // Keys as <id>:<base64 secret>, the signing key first
+    @Bean
+    public VerificationTokens verificationTokens(
+            @Value("${register.verification.keys:}") List<String> keys,
+            @Value("${register.verification.token-ttl:48h}") Duration tokenTtl) {
+        Map<String, byte[]> secrets = new LinkedHashMap<>();
+        for (String key : keys) {
+            if (key.isBlank()) {
+                continue;
+            }
+            int separator = key.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("register.verification.keys entries must be <id>:<base64 secret>");
+            }
+            secrets.put(key.substring(0, separator).trim(), Base64.getDecoder().decode(key.substring(separator + 1).trim()));
+        }
+        if (secrets.isEmpty()) {
+            log.warn("No register.verification.keys configured: using a random key, so verification links stop "
+                + "working on restart and are only accepted by this instance");
+            byte[] secret = new byte[VerificationTokens.MIN_KEY_BYTES];
+            new SecureRandom().nextBytes(secret);
+            secrets.put("local", secret);
+        }
+        return new VerificationTokens(secrets, tokenTtl, () -> System.currentTimeMillis() / 1000);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.register.config;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Watches for virtual threads that block while pinned to their carrier
+ * (typically inside a {@code synchronized} block), using the JFR
+ * {@code jdk.VirtualThreadPinned} event. Each occurrence is timed in
+ * {@code register.virtual_threads.pinned}; the first occurrence per code site
+ * is logged with its stack so the offending monitor can be replaced.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+    
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_REPORTED_SITES = 100;
+    private static final int MAX_LOGGED_FRAMES = 20;
+    
+    private final Duration threshold;
+    private final Timer pinnedTimer;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+    
+    @Autowired
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${register.virtual-threads.pinning-threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+        this.pinnedTimer = Timer.builder("register.virtual_threads.pinned")
+            .description("Time virtual threads spent blocked while pinned to a carrier thread")
+            .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+    
+    private void onPinned(RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return;
+        }
+        String site = site(stackTrace);
+        if (reportedSites.size() < MAX_REPORTED_SITES && reportedSites.add(site)) {
+            StringBuilder frames = new StringBuilder();
+            stackTrace.getFrames().stream().limit(MAX_LOGGED_FRAMES).forEach(frame ->
+                frames.append("\n\tat ").append(describe(frame)));
+            log.warn("Virtual thread pinned for {} ms at {}{}", event.getDuration().toMillis(), site, frames);
+        }
+    }
+    
+    // The innermost application frame, or the top frame when the pin is entirely in library code
+    private static String site(RecordedStackTrace stackTrace) {
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith("com.example.")) {
+                return describe(frame);
+            }
+        }
+        return describe(stackTrace.getFrames().get(0));
+    }
+    
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
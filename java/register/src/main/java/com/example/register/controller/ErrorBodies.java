@@ -0,0 +1,58 @@
+package com.example.register.controller;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import com.example.register.dto.ErrorResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serialized {@link ErrorResponse} bodies, keyed by error code and fields.
+ * Rejections repeat a small set of shapes (validator errors are shared per
+ * combination of broken rules, uniqueness errors have fixed messages), so
+ * each shape is serialized once with the application's {@link ObjectMapper},
+ * giving exactly the bytes the message converter would write, and then
+ * copied out as is. Once {@code maxEntries} shapes are cached, new ones are
+ * serialized per call without being kept.
+ */
+final class ErrorBodies {
+
+    private record Key(String code, Map<String, String> fields) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final Map<Key, byte[]> bodies = new ConcurrentHashMap<>();
+
+    ErrorBodies(ObjectMapper objectMapper, int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+    }
+
+    byte[] get(String code, Map<String, String> fields) throws JsonProcessingException {
+        Key key = new Key(code, fields);
+        byte[] body = bodies.get(key);
+        if (body == null) {
+            body = objectMapper.writeValueAsBytes(new ErrorResponse(new ErrorResponse.ErrorDetail(code, fields)));
+            if (bodies.size() < maxEntries) {
+                bodies.putIfAbsent(key, body);
+            }
+        }
+        return body;
+    }
+
+    // Pre-serialized body straight to the response, bypassing content negotiation and Jackson
+    static void write(HttpServletResponse response, HttpStatus status, byte[] body) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
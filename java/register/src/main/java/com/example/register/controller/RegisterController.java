@@ -1,80 +1,185 @@
 package com.example.register.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
-import java.util.UUID;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.validation.FieldError;
-import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.register.dto.AvailabilityResponse;
+import com.example.register.dto.BatchRegisterResult;
 import com.example.register.dto.ErrorResponse;
 import com.example.register.dto.RegisterRequest;
 import com.example.register.dto.RegisterResponse;
+import com.example.register.exception.ServiceUnavailableException;
 import com.example.register.exception.ValidationException;
+import com.example.register.service.AvailabilityChecker;
+import com.example.register.service.AvailabilityChecker.Availability;
+import com.example.register.service.BatchRegisterService;
 import com.example.register.service.RegisterService;
+import com.example.register.service.UniquenessIndex.Field;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 
-import jakarta.validation.Valid;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/api/v1")
 public class RegisterController {
     
+    // Longer than any users column: registration could never accept it, so there is nothing to look up
+    private static final int MAX_AVAILABILITY_VALUE_LENGTH = 255;
+    private static final String TOO_LONG = "Longer than registration accepts";
+    private static final Map<String, String> NOTHING_TO_CHECK = Map.of(
+        "query", "Give at least one of username, email or phone");
+    
     private final RegisterService registerService;
+    private final BatchRegisterService batchRegisterService;
+    private final AvailabilityChecker availabilityChecker;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ErrorBodies errorBodies;
     
     @Autowired
-    public RegisterController(RegisterService registerService) {
+    public RegisterController(RegisterService registerService, BatchRegisterService batchRegisterService,
+            AvailabilityChecker availabilityChecker, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
         this.registerService = registerService;
+        this.batchRegisterService = batchRegisterService;
+        this.availabilityChecker = availabilityChecker;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.errorBodies = new ErrorBodies(objectMapper, 1024);
     }
     
     @PostMapping("/register")
     public ResponseEntity<RegisterResponse> register(
-            @Valid @RequestBody RegisterRequest request,
+            @RequestBody RegisterRequest request,
             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         
-        // Generate idempotency key if not provided
-        if (idempotencyKey == null || idempotencyKey.isEmpty()) {
-            idempotencyKey = UUID.randomUUID().toString();
+        // Without a key the request is simply not deduplicated
+        if (idempotencyKey != null && idempotencyKey.isEmpty()) {
+            idempotencyKey = null;
         }
         
         RegisterResponse response = registerService.register(request, idempotencyKey);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
+    /**
+     * Registers a JSON array or NDJSON stream of requests. Results are streamed
+     * back in the same format and order, one per item, each with its own status.
+     */
+    @PostMapping(value = "/register:batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> registerBatch(
+            HttpServletRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) throws IOException {
+        
+        boolean ndjson = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+        InputStream input = request.getInputStream();
+        String batchKey = idempotencyKey == null || idempotencyKey.isEmpty() ? null : idempotencyKey;
+        
+        StreamingResponseBody body = output -> {
+            try (RequestItems items = new RequestItems(objectMapper.readerFor(RegisterRequest.class).readValues(input));
+                    ResultWriter writer = new ResultWriter(objectMapper, output, ndjson)) {
+                int consumed = batchRegisterService.registerAll(items, batchKey, writer);
+                if (items.failure != null) {
+                    // Unparseable item: everything before it was processed, nothing after it is read
+                    Map<String, String> errors = new HashMap<>();
+                    errors.put("message", items.failure.getOriginalMessage());
+                    writer.accept(BatchRegisterResult.failed(consumed, HttpStatus.BAD_REQUEST.value(),
+                        new ErrorResponse.ErrorDetail("MALFORMED_REQUEST", errors)));
+                }
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+            .body(body);
+    }
+    
+    /**
+     * Advisory availability of any of username, email and phone, for
+     * validating the form as the user types. Never blocks on a busy
+     * database: a field that cannot be answered cheaply comes back as
+     * {@code unknown}.
+     */
+    @GetMapping("/register/availability")
+    public AvailabilityResponse checkAvailability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String phone) {
+        
+        if (username == null && email == null && phone == null) {
+            throw new ValidationException("VALIDATION_FAILED", NOTHING_TO_CHECK);
+        }
+        Map<String, String> tooLong = new HashMap<>();
+        checkLength("username", username, tooLong);
+        checkLength("email", email, tooLong);
+        checkLength("phone", phone, tooLong);
+        if (!tooLong.isEmpty()) {
+            throw new ValidationException("VALIDATION_FAILED", tooLong);
+        }
+        return new AvailabilityResponse(
+            availability(Field.USERNAME, username),
+            availability(Field.EMAIL, email),
+            availability(Field.PHONE, phone));
+    }
+    
+    private static void checkLength(String field, String value, Map<String, String> errors) {
+        if (value != null && value.length() > MAX_AVAILABILITY_VALUE_LENGTH) {
+            errors.put(field, TOO_LONG);
+        }
+    }
+    
+    private String availability(Field field, String value) {
+        Availability availability = availabilityChecker.check(field, value);
+        return availability == null ? null : availability.name().toLowerCase();
+    }
+    
     @ExceptionHandler(ValidationException.class)
-    public ResponseEntity<ErrorResponse> handleValidationException(ValidationException ex) {
-        ErrorResponse.ErrorDetail errorDetail = new ErrorResponse.ErrorDetail(
-            ex.getErrorCode(),
-            ex.getFieldErrors()
-        );
-        ErrorResponse errorResponse = new ErrorResponse(errorDetail);
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    public void handleValidationException(ValidationException ex, HttpServletResponse response) throws IOException {
+        countError(ex);
+        ex.getFieldErrors().keySet().forEach(field -> countFieldError(field, ex.getErrorCode()));
+        ErrorBodies.write(response, HttpStatus.BAD_REQUEST, errorBodies.get(ex.getErrorCode(), ex.getFieldErrors()));
     }
     
-    @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<ErrorResponse> handleMethodArgumentNotValid(MethodArgumentNotValidException ex) {
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public void handleServiceUnavailable(ServiceUnavailableException ex, HttpServletResponse response)
+            throws IOException {
+        countError(ex);
         Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getAllErrors().forEach((error) -> {
-            String fieldName = ((FieldError) error).getField();
-            String errorMessage = error.getDefaultMessage();
-            errors.put(fieldName, errorMessage);
-        });
+        errors.put("message", ex.getMessage());
         
-        ErrorResponse.ErrorDetail errorDetail = new ErrorResponse.ErrorDetail("VALIDATION_FAILED", errors);
-        ErrorResponse errorResponse = new ErrorResponse(errorDetail);
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        ErrorBodies.write(response, HttpStatus.SERVICE_UNAVAILABLE, errorBodies.get("SERVICE_UNAVAILABLE", errors));
     }
     
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
+        countError(ex);
         Map<String, String> errors = new HashMap<>();
         errors.put("message", ex.getMessage());
         
@@ -82,4 +187,94 @@ public class RegisterController {
         ErrorResponse errorResponse = new ErrorResponse(errorDetail);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
     }
+    
+    // Error paths only: the lookup by name and tags stays off the successful request path
+    private void countError(Exception ex) {
+        meterRegistry.counter("register.errors", "exception", ex.getClass().getSimpleName()).increment();
+    }
+    
+    private void countFieldError(String field, String code) {
+        meterRegistry.counter("register.validation.errors", "field", field, "code", String.valueOf(code)).increment();
+    }
+    
+    // Stops at the first item that cannot be parsed and keeps the error for the caller
+    private static final class RequestItems implements Iterator<RegisterRequest>, AutoCloseable {
+        private final MappingIterator<RegisterRequest> delegate;
+        private RegisterRequest next;
+        private JsonProcessingException failure;
+        
+        RequestItems(MappingIterator<RegisterRequest> delegate) {
+            this.delegate = delegate;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (failure != null) {
+                return false;
+            }
+            try {
+                if (delegate.hasNextValue()) {
+                    next = delegate.nextValue();
+                }
+            } catch (JsonProcessingException e) {
+                failure = e;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return next != null;
+        }
+        
+        @Override
+        public RegisterRequest next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            RegisterRequest current = next;
+            next = null;
+            return current;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+    
+    // Writes results as a JSON array or as one JSON document per line
+    private static final class ResultWriter implements Consumer<BatchRegisterResult>, AutoCloseable {
+        private final ObjectMapper objectMapper;
+        private final OutputStream output;
+        private final SequenceWriter arrayWriter;
+        
+        ResultWriter(ObjectMapper objectMapper, OutputStream output, boolean ndjson) throws IOException {
+            this.objectMapper = objectMapper;
+            this.output = output;
+            this.arrayWriter = ndjson ? null : objectMapper.writer().writeValuesAsArray(output);
+        }
+        
+        @Override
+        public void accept(BatchRegisterResult result) {
+            try {
+                if (arrayWriter != null) {
+                    arrayWriter.write(result);
+                } else {
+                    output.write(objectMapper.writeValueAsBytes(result));
+                    output.write('\n');
+                    output.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (arrayWriter != null) {
+                arrayWriter.close();
+            }
+        }
+    }
 }
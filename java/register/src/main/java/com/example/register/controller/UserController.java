@@ -0,0 +1,83 @@
+package com.example.register.controller;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.register.dto.UserResponse;
+import com.example.register.dto.VerifyRequest;
+import com.example.register.dto.VerifyResponse;
+import com.example.register.exception.NotFoundException;
+import com.example.register.exception.ValidationException;
+import com.example.register.service.UserStatusCache;
+import com.example.register.service.VerificationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping("/api/v1")
+public class UserController {
+    
+    private static final Map<String, String> UNKNOWN_USER = Map.of("userId", "No user with this id");
+    
+    private final UserStatusCache userStatusCache;
+    private final VerificationService verificationService;
+    private final ErrorBodies errorBodies;
+    
+    @Autowired
+    public UserController(UserStatusCache userStatusCache, VerificationService verificationService,
+            ObjectMapper objectMapper) {
+        this.userStatusCache = userStatusCache;
+        this.verificationService = verificationService;
+        this.errorBodies = new ErrorBodies(objectMapper, 16);
+    }
+    
+    /**
+     * The public view of a user. The ETag changes with the status and the
+     * verification dispatch time; a poller that sends it back in
+     * If-None-Match gets 304 without a body.
+     */
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<UserResponse> getUser(@PathVariable String userId) {
+        UserStatusCache.Entry entry = userStatusCache.find(userId);
+        if (entry == null) {
+            throw new NotFoundException("USER_NOT_FOUND", UNKNOWN_USER);
+        }
+        // A matching If-None-Match turns this into 304 before the body is serialized
+        return ResponseEntity.ok()
+            .eTag(entry.etag())
+            .cacheControl(CacheControl.noCache())
+            .body(entry.response());
+    }
+    
+    /**
+     * Activates the account a verification email was sent for. Repeating a
+     * successful verification returns the same response.
+     */
+    @PostMapping("/verify")
+    public VerifyResponse verify(@RequestBody VerifyRequest request) {
+        return verificationService.verify(request.getToken());
+    }
+    
+    @ExceptionHandler(ValidationException.class)
+    public void handleValidationException(ValidationException ex, HttpServletResponse response) throws IOException {
+        ErrorBodies.write(response, HttpStatus.BAD_REQUEST, errorBodies.get(ex.getErrorCode(), ex.getFieldErrors()));
+    }
+    
+    @ExceptionHandler(NotFoundException.class)
+    public void handleNotFound(NotFoundException ex, HttpServletResponse response) throws IOException {
+        ErrorBodies.write(response, HttpStatus.NOT_FOUND, errorBodies.get(ex.getErrorCode(), ex.getFieldErrors()));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.register.datasource;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Decides whether a read-only query may go to a replica. It goes to the
+ * primary instead, for read-your-writes, when the current thread took a
+ * read-write connection less than {@code register.datasource.read-your-writes-window}
+ * ago, when it runs inside {@link #onPrimary}, or when the caller passes a
+ * key written on this node within the window (see {@link #markWritten}).
+ *
+ * Without replicas every query already goes to the primary and all of this
+ * is skipped.
+ */
+@Component
+public class ReadRouting {
+
+    private static final class State {
+        boolean wrote;
+        long wroteAt;
+        int primaryOnly;
+    }
+
+    private final boolean replicas;
+    private final long windowNanos;
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+    private final Cache<Object, Boolean> writtenKeys;
+
+    @Autowired
+    public ReadRouting(
+            @Value("${register.datasource.replicas.enabled:false}") boolean replicas,
+            @Value("${register.datasource.read-your-writes-window:2s}") Duration window) {
+        this.replicas = replicas;
+        this.windowNanos = window.toNanos();
+        this.writtenKeys = replicas
+            ? Caffeine.newBuilder().maximumSize(100_000).expireAfterWrite(window).build()
+            : null;
+    }
+
+    public boolean hasReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Runs {@code work} with every query on the primary.
+     */
+    public <T> T onPrimary(Supplier<T> work) {
+        if (!replicas) {
+            return work.get();
+        }
+        State current = state.get();
+        current.primaryOnly++;
+        try {
+            return work.get();
+        } finally {
+            current.primaryOnly--;
+        }
+    }
+
+    /**
+     * Records that {@code key} (a user id, say) changed, so that reads of it on
+     * this node go to the primary until the replicas have caught up.
+     */
+    public void markWritten(Object key) {
+        if (replicas) {
+            writtenKeys.put(key, Boolean.TRUE);
+        }
+    }
+
+    public boolean writtenRecently(Object key) {
+        return replicas && writtenKeys.getIfPresent(key) != null;
+    }
+
+    // The current thread is about to write
+    void markWrite() {
+        State current = state.get();
+        current.wrote = true;
+        current.wroteAt = System.nanoTime();
+    }
+
+    boolean readFromPrimary() {
+        State current = state.get();
+        return current.primaryOnly > 0 || (current.wrote && System.nanoTime() - current.wroteAt < windowNanos);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.register.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Connections for read-only transactions: one replica after another, or the
+ * primary when {@link ReadRouting} asks for read-your-writes or the chosen
+ * replica cannot hand out a connection (keep the replicas' connection
+ * timeout short for that reason).
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<? extends DataSource> replicas;
+    private final ReadRouting readRouting;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter replicaReads;
+    private final Counter readYourWrites;
+    private final Counter failovers;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas, ReadRouting readRouting,
+            MeterRegistry meterRegistry) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("at least one replica is required");
+        }
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.readRouting = readRouting;
+        this.replicaReads = Counter.builder("register.datasource.reads")
+            .description("Connections handed out for read-only transactions")
+            .tag("target", "replica")
+            .tag("reason", "read_only")
+            .register(meterRegistry);
+        this.readYourWrites = Counter.builder("register.datasource.reads")
+            .description("Connections handed out for read-only transactions")
+            .tag("target", "primary")
+            .tag("reason", "read_your_writes")
+            .register(meterRegistry);
+        this.failovers = Counter.builder("register.datasource.reads")
+            .description("Connections handed out for read-only transactions")
+            .tag("target", "primary")
+            .tag("reason", "replica_unavailable")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (readRouting.readFromPrimary()) {
+            readYourWrites.increment();
+            return primary.getConnection();
+        }
+        DataSource replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+        try {
+            Connection connection = replica.getConnection();
+            replicaReads.increment();
+            return connection;
+        } catch (SQLException e) {
+            failovers.increment();
+            log.debug("Replica unavailable, reading from the primary", e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Replica credentials are fixed per pool");
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.register.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * The primary as seen by read-write transactions: taking a connection marks
+ * the thread in {@link ReadRouting}, so its reads that follow see the write.
+ */
+public class WriteMarkingDataSource extends DelegatingDataSource {
+
+    private final ReadRouting readRouting;
+
+    public WriteMarkingDataSource(DataSource primary, ReadRouting readRouting) {
+        super(primary);
+        this.readRouting = readRouting;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        readRouting.markWrite();
+        return super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        readRouting.markWrite();
+        return super.getConnection(username, password);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.register.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One of {@code available}, {@code taken} or {@code unknown} for each field
+ * that was asked about; fields not in the query are left out.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AvailabilityResponse {
+    
+    private String username;
+    private String email;
+    private String phone;
+    
+    // Constructors
+    public AvailabilityResponse() {
+    }
+    
+    public AvailabilityResponse(String username, String email, String phone) {
+        this.username = username;
+        this.email = email;
+        this.phone = phone;
+    }
+    
+    // Getters and Setters
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    public String getPhone() {
+        return phone;
+    }
+    
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+}
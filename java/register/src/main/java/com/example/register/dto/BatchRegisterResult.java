@@ -0,0 +1,64 @@
+package com.example.register.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchRegisterResult {
+    
+    private int index;
+    private int status;
+    private RegisterResponse registration;
+    private ErrorResponse.ErrorDetail error;
+    
+    // Constructors
+    public BatchRegisterResult() {
+    }
+    
+    public BatchRegisterResult(int index, int status, RegisterResponse registration, ErrorResponse.ErrorDetail error) {
+        this.index = index;
+        this.status = status;
+        this.registration = registration;
+        this.error = error;
+    }
+    
+    public static BatchRegisterResult created(int index, RegisterResponse registration) {
+        return new BatchRegisterResult(index, 201, registration, null);
+    }
+    
+    public static BatchRegisterResult failed(int index, int status, ErrorResponse.ErrorDetail error) {
+        return new BatchRegisterResult(index, status, null, error);
+    }
+    
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+    
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    
+    public int getStatus() {
+        return status;
+    }
+    
+    public void setStatus(int status) {
+        this.status = status;
+    }
+    
+    public RegisterResponse getRegistration() {
+        return registration;
+    }
+    
+    public void setRegistration(RegisterResponse registration) {
+        this.registration = registration;
+    }
+    
+    public ErrorResponse.ErrorDetail getError() {
+        return error;
+    }
+    
+    public void setError(ErrorResponse.ErrorDetail error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.register.dto;
+
+import java.time.LocalDateTime;
+
+public class UserResponse {
+    
+    private String userId;
+    private String status;
+    private RegisterResponse.VerificationInfo verification;
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public UserResponse() {
+    }
+    
+    public UserResponse(String userId, String status, RegisterResponse.VerificationInfo verification,
+            LocalDateTime createdAt) {
+        this.userId = userId;
+        this.status = status;
+        this.verification = verification;
+        this.createdAt = createdAt;
+    }
+    
+    // Getters and Setters
+    public String getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public RegisterResponse.VerificationInfo getVerification() {
+        return verification;
+    }
+    
+    public void setVerification(RegisterResponse.VerificationInfo verification) {
+        this.verification = verification;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.register.dto;
+
+public class VerifyRequest {
+    
+    private String token;
+    
+    // Constructors
+    public VerifyRequest() {
+    }
+    
+    public VerifyRequest(String token) {
+        this.token = token;
+    }
+    
+    // Getters and Setters
+    public String getToken() {
+        return token;
+    }
+    
+    public void setToken(String token) {
+        this.token = token;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.register.dto;
+
+public class VerifyResponse {
+    
+    private String userId;
+    private String status;
+    
+    // Constructors
+    public VerifyResponse() {
+    }
+    
+    public VerifyResponse(String userId, String status) {
+        this.userId = userId;
+        this.status = status;
+    }
+    
+    // Getters and Setters
+    public String getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.register.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+/**
+ * A client-supplied Idempotency-Key and the registration it produced, kept
+ * until {@code expiresAt} and then purged by {@code IdempotencyPurger}.
+ * {@code fingerprint} identifies the request the key was first used with;
+ * it is null for keys carried over from the old {@code users} column.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord implements Persistable<String> {
+    
+    @Id
+    private String idempotencyKey;
+    
+    @Column(length = 64)
+    private String fingerprint;
+    
+    @Column(nullable = false)
+    private String userId;
+    
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false)
+    private User.UserStatus status;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+    
+    // Assigned ids look persistent to Spring Data; without this, save() would merge (select first)
+    // and a concurrent duplicate key would update instead of failing on the primary key
+    @Transient
+    private boolean isNew = true;
+    
+    // Constructors
+    public IdempotencyRecord() {
+    }
+    
+    public static IdempotencyRecord of(String idempotencyKey, String fingerprint, User user, LocalDateTime expiresAt) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setIdempotencyKey(idempotencyKey);
+        record.setFingerprint(fingerprint);
+        record.setUserId(user.getUserId());
+        record.setStatus(user.getStatus());
+        record.setCreatedAt(user.getCreatedAt());
+        record.setExpiresAt(expiresAt);
+        return record;
+    }
+    
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+    
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+    
+    // Getters and Setters
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+    
+    public String getFingerprint() {
+        return fingerprint;
+    }
+    
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+    
+    public String getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+    
+    public User.UserStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(User.UserStatus status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.register.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "verification_outbox", indexes = {
+    @Index(name = "idx_verification_outbox_due", columnList = "status, nextAttemptAt"),
+    @Index(name = "idx_verification_outbox_user_id", columnList = "userId")
+})
+public class OutboxMessage {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "verification_outbox_id")
+    @SequenceGenerator(name = "verification_outbox_id", sequenceName = "verification_outbox_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String userId;
+    
+    @Column(nullable = false)
+    private String channel;
+    
+    @Column(nullable = false)
+    private String recipient;
+    
+    // VARCHAR on every database (H2 would otherwise expect a native ENUM column)
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false)
+    private OutboxStatus status;
+    
+    @Column(nullable = false)
+    private int attempts;
+    
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime sentAt;
+    
+    @Column(length = 1000)
+    private String lastError;
+    
+    public enum OutboxStatus {
+        PENDING,
+        SENT,
+        FAILED
+    }
+    
+    // Constructors
+    public OutboxMessage() {
+    }
+    
+    public static OutboxMessage verificationEmail(User user) {
+        OutboxMessage message = new OutboxMessage();
+        message.setUserId(user.getUserId());
+        message.setChannel("email");
+        message.setRecipient(user.getEmail());
+        message.setStatus(OutboxStatus.PENDING);
+        message.setAttempts(0);
+        message.setCreatedAt(user.getCreatedAt());
+        message.setNextAttemptAt(user.getCreatedAt());
+        return message;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+    
+    public String getChannel() {
+        return channel;
+    }
+    
+    public void setChannel(String channel) {
+        this.channel = channel;
+    }
+    
+    public String getRecipient() {
+        return recipient;
+    }
+    
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+    
+    public OutboxStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(OutboxStatus status) {
+        this.status = status;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+    
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+    
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+    
+    public void setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
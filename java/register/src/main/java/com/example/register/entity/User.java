@@ -3,6 +3,9 @@ package com.example.register.entity;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -10,14 +13,17 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "users")
 public class User {
     
+    // Pooled sequence: ids are handed out 50 at a time so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id")
+    @SequenceGenerator(name = "users_id", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false)
@@ -44,7 +50,9 @@ public class User {
     @Column(nullable = false)
     private Boolean acceptTerms;
     
+    // VARCHAR on every database (H2 would otherwise expect a native ENUM column)
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(nullable = false)
     private UserStatus status;
     
@@ -53,9 +61,6 @@ public class User {
     
     private LocalDateTime verifiedAt;
     
-    @Column(unique = true)
-    private String idempotencyKey;
-    
     public enum UserStatus {
         PENDING_VERIFICATION,
         ACTIVE,
@@ -164,12 +169,4 @@ public class User {
     public void setVerifiedAt(LocalDateTime verifiedAt) {
         this.verifiedAt = verifiedAt;
     }
-    
-    public String getIdempotencyKey() {
-        return idempotencyKey;
-    }
-    
-    public void setIdempotencyKey(String idempotencyKey) {
-        this.idempotencyKey = idempotencyKey;
-    }
 }
@@ -0,0 +1,28 @@
+package com.example.register.exception;
+
+import java.util.Map;
+
+/**
+ * A lookup for something that does not exist, reported to the client as
+ * field errors. Pollers ask for unknown ids routinely, so no stack is
+ * captured.
+ */
+public class NotFoundException extends RuntimeException {
+    
+    private final String errorCode;
+    private final Map<String, String> fieldErrors;
+    
+    public NotFoundException(String errorCode, Map<String, String> fieldErrors) {
+        super("Not found", null, false, false);
+        this.errorCode = errorCode;
+        this.fieldErrors = fieldErrors;
+    }
+    
+    public String getErrorCode() {
+        return errorCode;
+    }
+    
+    public Map<String, String> getFieldErrors() {
+        return fieldErrors;
+    }
+}
@@ -2,13 +2,17 @@ package com.example.register.exception;
 
 import java.util.Map;
 
+/**
+ * A rejected request, reported to the client as field errors. Rejections are
+ * routine (typos, bots) and carry no useful stack, so none is captured.
+ */
 public class ValidationException extends RuntimeException {
     
     private final String errorCode;
     private final Map<String, String> fieldErrors;
     
     public ValidationException(String errorCode, Map<String, String> fieldErrors) {
-        super("Validation failed");
+        super("Validation failed", null, false, false);
         this.errorCode = errorCode;
         this.fieldErrors = fieldErrors;
     }
@@ -0,0 +1,250 @@
+package com.example.register.importer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.example.register.dto.BatchRegisterResult;
+import com.example.register.dto.ErrorResponse;
+import com.example.register.dto.RegisterRequest;
+import com.example.register.service.BatchRegisterService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Offline import of an NDJSON or CSV file of registration records, enabled by
+ * {@code --register.import.file=<path>} (the application then starts without
+ * a web server and exits when the file is done).
+ *
+ * <p>The file is streamed through a {@link MappedLineReader} and registered
+ * chunk by chunk through {@link BatchRegisterService}, so records get the same
+ * validation, uniqueness checks and parallel hashing as the batch endpoint.
+ * After each chunk the offset of the next unread line is written to
+ * {@code <file>.checkpoint}; a rerun resumes from there. Each record is stored
+ * under the idempotency key {@code import:<file name>:<offset>}, so a chunk
+ * replayed after a crash is recognised rather than rejected as a duplicate.
+ * Rejected records are appended to {@code <file>.rejects.ndjson} by offset;
+ * the raw line is not copied because it contains the password.
+ */
+@Component
+public class BulkImportRunner implements ApplicationRunner {
+    
+    private static final Logger log = LoggerFactory.getLogger(BulkImportRunner.class);
+    
+    private static final String FILE_ARGUMENT = "--register.import.file=";
+    
+    private final BatchRegisterService batchRegisterService;
+    private final ObjectMapper objectMapper;
+    private final String file;
+    private final int chunkSize;
+    private final boolean resume;
+    private final Duration progressInterval;
+    
+    public record ImportSummary(long records, long imported, long rejected, long nextOffset) {
+    }
+    
+    record RejectedRecord(long offset, int status, ErrorResponse.ErrorDetail error) {
+    }
+    
+    @Autowired
+    public BulkImportRunner(
+            BatchRegisterService batchRegisterService,
+            ObjectMapper objectMapper,
+            @Value("${register.import.file:}") String file,
+            @Value("${register.import.chunk-size:500}") int chunkSize,
+            @Value("${register.import.resume:true}") boolean resume,
+            @Value("${register.import.progress-interval:10s}") Duration progressInterval) {
+        this.batchRegisterService = batchRegisterService;
+        this.objectMapper = objectMapper;
+        this.file = file;
+        this.chunkSize = chunkSize;
+        this.resume = resume;
+        this.progressInterval = progressInterval;
+    }
+    
+    public static boolean requested(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith(FILE_ARGUMENT) && arg.length() > FILE_ARGUMENT.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!file.isBlank()) {
+            importFile(Path.of(file));
+        }
+    }
+    
+    public ImportSummary importFile(Path path) throws IOException {
+        Path checkpointFile = sibling(path, ".checkpoint");
+        Path rejectsFile = sibling(path, ".rejects.ndjson");
+        boolean csv = path.getFileName().toString().toLowerCase().endsWith(".csv");
+        String keyPrefix = "import:" + path.getFileName() + ":";
+        
+        long startOffset = resume && Files.exists(checkpointFile)
+            ? Long.parseLong(Files.readString(checkpointFile).trim())
+            : 0;
+        CsvRecordParser csvParser = null;
+        if (csv) {
+            try (MappedLineReader header = new MappedLineReader(path, 0)) {
+                if (!header.hasNext()) {
+                    return new ImportSummary(0, 0, 0, 0);
+                }
+                MappedLineReader.Line headerLine = header.next();
+                csvParser = new CsvRecordParser(headerLine.text());
+                startOffset = Math.max(startOffset, headerLine.nextOffset());
+            }
+        }
+        if (startOffset > 0) {
+            log.info("Resuming import of {} at byte offset {}", path, startOffset);
+        }
+        
+        Progress progress = new Progress(path, startOffset);
+        try (MappedLineReader lines = new MappedLineReader(path, startOffset);
+                BufferedWriter rejects = Files.newBufferedWriter(rejectsFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            progress.size = lines.size();
+            Chunk chunk = new Chunk();
+            while (lines.hasNext()) {
+                MappedLineReader.Line line = lines.next();
+                chunk.nextOffset = line.nextOffset();
+                if (line.text().isBlank()) {
+                    continue;
+                }
+                try {
+                    chunk.add(line.offset(), parse(line.text(), csvParser), keyPrefix + line.offset());
+                } catch (IOException | IllegalArgumentException e) {
+                    Map<String, String> errors = new HashMap<>();
+                    errors.put("message", e.getMessage());
+                    chunk.rejected.add(new RejectedRecord(line.offset(), 400,
+                        new ErrorResponse.ErrorDetail("MALFORMED_REQUEST", errors)));
+                    chunk.malformed++;
+                }
+                if (chunk.requests.size() == chunkSize) {
+                    complete(chunk, progress, rejects, checkpointFile);
+                    chunk = new Chunk();
+                }
+            }
+            complete(chunk, progress, rejects, checkpointFile);
+        }
+        progress.report(true);
+        return new ImportSummary(progress.records, progress.imported, progress.rejected, progress.offset);
+    }
+    
+    private RegisterRequest parse(String text, CsvRecordParser csvParser) throws IOException {
+        RegisterRequest request = csvParser == null
+            ? objectMapper.readValue(text, RegisterRequest.class)
+            : objectMapper.convertValue(csvParser.parse(text), RegisterRequest.class);
+        if (request == null) {
+            throw new IllegalArgumentException("Record is empty");
+        }
+        return request;
+    }
+    
+    private void complete(Chunk chunk, Progress progress, BufferedWriter rejects, Path checkpointFile)
+            throws IOException {
+        if (!chunk.requests.isEmpty()) {
+            List<BatchRegisterResult> results = batchRegisterService.registerChunk(
+                (int) progress.records, chunk.requests, chunk.keys);
+            for (int i = 0; i < results.size(); i++) {
+                BatchRegisterResult result = results.get(i);
+                if (result.getStatus() == 201) {
+                    progress.imported++;
+                } else {
+                    chunk.rejected.add(new RejectedRecord(chunk.offsets.get(i), result.getStatus(), result.getError()));
+                }
+            }
+        }
+        chunk.rejected.sort(Comparator.comparingLong(RejectedRecord::offset));
+        for (RejectedRecord rejected : chunk.rejected) {
+            rejects.write(objectMapper.writeValueAsString(rejected));
+            rejects.newLine();
+        }
+        rejects.flush();
+        
+        progress.records += chunk.requests.size() + chunk.malformed;
+        progress.rejected += chunk.rejected.size();
+        if (chunk.nextOffset > progress.offset) {
+            progress.offset = chunk.nextOffset;
+            writeCheckpoint(checkpointFile, progress.offset);
+        }
+        progress.report(false);
+    }
+    
+    private static void writeCheckpoint(Path checkpointFile, long offset) throws IOException {
+        Path temp = sibling(checkpointFile, ".tmp");
+        Files.writeString(temp, Long.toString(offset));
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private static Path sibling(Path path, String suffix) {
+        return path.resolveSibling(path.getFileName() + suffix);
+    }
+    
+    private static final class Chunk {
+        private final List<RegisterRequest> requests = new ArrayList<>();
+        private final List<String> keys = new ArrayList<>();
+        private final List<Long> offsets = new ArrayList<>();
+        private final List<RejectedRecord> rejected = new ArrayList<>();
+        private int malformed;
+        private long nextOffset;
+        
+        void add(long offset, RegisterRequest request, String key) {
+            offsets.add(offset);
+            requests.add(request);
+            keys.add(key);
+        }
+    }
+    
+    private final class Progress {
+        private final Path path;
+        private final long startOffset;
+        private final long startedAt = System.nanoTime();
+        private long lastReportAt = startedAt;
+        private long size;
+        private long offset;
+        private long records;
+        private long imported;
+        private long rejected;
+        
+        Progress(Path path, long startOffset) {
+            this.path = path;
+            this.startOffset = startOffset;
+            this.offset = startOffset;
+        }
+        
+        void report(boolean done) {
+            long now = System.nanoTime();
+            if (!done && now - lastReportAt < progressInterval.toNanos()) {
+                return;
+            }
+            lastReportAt = now;
+            double seconds = Math.max((now - startedAt) / 1e9, 1e-3);
+            double percent = size == 0 ? 100.0 : 100.0 * offset / size;
+            log.info("{} {}: {} records ({} imported, {} rejected), {} records/s, {} MB/s, {}% of file",
+                done ? "Finished" : "Importing", path.getFileName(), records, imported, rejected,
+                Math.round(records / seconds), String.format("%.1f", (offset - startOffset) / seconds / 1_048_576),
+                String.format("%.1f", percent));
+        }
+    }
+}
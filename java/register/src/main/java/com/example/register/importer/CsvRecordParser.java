@@ -0,0 +1,62 @@
+package com.example.register.importer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits single-line CSV records (RFC 4180 quoting, no embedded line breaks)
+ * into a map keyed by the header's column names.
+ */
+final class CsvRecordParser {
+    
+    private final List<String> columns;
+    
+    CsvRecordParser(String header) {
+        this.columns = split(header).stream().map(String::trim).toList();
+    }
+    
+    Map<String, String> parse(String line) {
+        List<String> values = split(line);
+        if (values.size() != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " columns but found " + values.size());
+        }
+        Map<String, String> record = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            record.put(columns.get(i), values.get(i));
+        }
+        return record;
+    }
+    
+    static List<String> split(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted value");
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
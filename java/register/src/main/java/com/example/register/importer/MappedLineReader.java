@@ -0,0 +1,116 @@
+package com.example.register.importer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a file line by line through a memory-mapped window that slides
+ * forward as lines are consumed, so only the window (not the file) is ever
+ * resident. Every line carries its byte offset, which makes any line a
+ * valid place to resume from.
+ */
+final class MappedLineReader implements Iterator<MappedLineReader.Line>, AutoCloseable {
+    
+    static final int DEFAULT_WINDOW = 64 * 1024 * 1024;
+    
+    /**
+     * One line without its terminator; {@code nextOffset} is where the following line starts.
+     */
+    record Line(long offset, long nextOffset, String text) {
+    }
+    
+    private final FileChannel channel;
+    private final long size;
+    private final int window;
+    private MappedByteBuffer buffer;
+    private long bufferStart;
+    private long position;
+    private Line next;
+    
+    MappedLineReader(Path file, long startOffset) throws IOException {
+        this(file, startOffset, DEFAULT_WINDOW);
+    }
+    
+    MappedLineReader(Path file, long startOffset, int window) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.window = window;
+        this.position = Math.min(startOffset, size);
+    }
+    
+    long size() {
+        return size;
+    }
+    
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = readLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+    
+    @Override
+    public Line next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Line line = next;
+        next = null;
+        return line;
+    }
+    
+    private Line readLine() throws IOException {
+        while (position < size) {
+            long lineStart = position;
+            if (buffer == null || lineStart < bufferStart || lineStart >= bufferStart + buffer.limit()) {
+                map(lineStart);
+            }
+            int from = (int) (lineStart - bufferStart);
+            int limit = buffer.limit();
+            int end = from;
+            while (end < limit && buffer.get(end) != '\n') {
+                end++;
+            }
+            if (end == limit && bufferStart + limit < size) {
+                // The line runs past the window: slide the window to start at this line and rescan
+                if (from == 0) {
+                    throw new IOException("Line at offset " + lineStart + " is longer than " + window + " bytes");
+                }
+                map(lineStart);
+                continue;
+            }
+            position = Math.min(bufferStart + end + 1, size);
+            int length = end - from;
+            if (length > 0 && buffer.get(from + length - 1) == '\r') {
+                length--;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(from, bytes);
+            return new Line(lineStart, position, new String(bytes, StandardCharsets.UTF_8));
+        }
+        return null;
+    }
+    
+    private void map(long offset) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(window, size - offset));
+        bufferStart = offset;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.register.mail;
+
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default transport for local runs: logs each message instead of sending it.
+ */
+@Component
+@ConditionalOnProperty(name = "register.mail.transport", havingValue = "log", matchIfMissing = true)
+public class LoggingMailTransport implements MailTransport {
+    
+    private static final Logger log = LoggerFactory.getLogger(LoggingMailTransport.class);
+    
+    @Override
+    public Map<Long, String> send(List<OutgoingMail> batch) {
+        for (OutgoingMail mail : batch) {
+            log.info("Sending verification email to: {}", mail.to());
+        }
+        return Map.of();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.register.mail;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers outgoing mail. Implementations should send a batch over a single
+ * connection where the underlying protocol allows it.
+ */
+public interface MailTransport {
+    
+    /**
+     * Sends every message in {@code batch} and returns the ids of the ones
+     * that could not be delivered, mapped to the reason. An empty map means
+     * the whole batch was accepted.
+     */
+    Map<Long, String> send(List<OutgoingMail> batch);
+}
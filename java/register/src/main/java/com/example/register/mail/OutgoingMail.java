@@ -0,0 +1,4 @@
+package com.example.register.mail;
+
+public record OutgoingMail(long id, String to, String subject, String body) {
+}
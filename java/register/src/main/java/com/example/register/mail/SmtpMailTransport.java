@@ -0,0 +1,73 @@
+package com.example.register.mail;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends mail through the configured SMTP server ({@code spring.mail.*}).
+ * A whole batch goes through one {@link JavaMailSender#send(SimpleMailMessage...)}
+ * call, which reuses a single SMTP connection for all messages.
+ */
+@Component
+@ConditionalOnProperty(name = "register.mail.transport", havingValue = "smtp")
+public class SmtpMailTransport implements MailTransport {
+    
+    private final JavaMailSender mailSender;
+    private final String from;
+    
+    @Autowired
+    public SmtpMailTransport(JavaMailSender mailSender,
+            @Value("${register.mail.from:no-reply@example.com}") String from) {
+        this.mailSender = mailSender;
+        this.from = from;
+    }
+    
+    @Override
+    public Map<Long, String> send(List<OutgoingMail> batch) {
+        Map<SimpleMailMessage, Long> ids = new IdentityHashMap<>();
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            OutgoingMail mail = batch.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(from);
+            message.setTo(mail.to());
+            message.setSubject(mail.subject());
+            message.setText(mail.body());
+            messages[i] = message;
+            ids.put(message, mail.id());
+        }
+        
+        try {
+            mailSender.send(messages);
+            return Map.of();
+        } catch (MailSendException e) {
+            Map<Long, String> failures = new HashMap<>();
+            if (e.getFailedMessages().isEmpty()) {
+                ids.values().forEach(id -> failures.put(id, String.valueOf(e.getMessage())));
+            }
+            e.getFailedMessages().forEach((message, cause) -> {
+                Long id = ids.get(message);
+                if (id != null) {
+                    failures.put(id, String.valueOf(cause.getMessage()));
+                }
+            });
+            return failures;
+        } catch (MailException e) {
+            // Connection or authentication failure: nothing in the batch was sent
+            Map<Long, String> failures = new HashMap<>();
+            ids.values().forEach(id -> failures.put(id, String.valueOf(e.getMessage())));
+            return failures;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.register.ratelimit;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.register.dto.ErrorResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rejects registration POSTs over the client's rate with 429 before the body
+ * is read, so throttled bots cost neither JSON binding, bcrypt nor queries.
+ *
+ * The client is the API key header when it carries one of the configured
+ * keys, otherwise the remote address ({@code server.forward-headers-strategy}
+ * makes it the real client behind a proxy). Unknown keys are ignored, so a
+ * caller cannot mint fresh buckets by rotating a header value. Callers that
+ * put a tenant prefix in the Idempotency-Key can be given one bucket per
+ * prefix; the address keeps an aggregate bucket in front of them, so
+ * rotating prefixes buys no more than the address allows.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final TokenBucketTable buckets;
+    private final TokenBucketTable addressBuckets;
+    private final String apiKeyHeader;
+    private final Set<String> apiKeys;
+    private final int idempotencyPrefixLength;
+    private final byte[] body;
+    private final Counter rejectedByAddress;
+    private final Counter rejectedByApiKey;
+
+    /**
+     * @param buckets                 per-client buckets: API keys, addresses, or address and prefix
+     * @param addressBuckets          aggregate per-address buckets, checked first when
+     *                                {@code idempotencyPrefixLength} is positive
+     * @param apiKeyHeader            header carrying the API key, blank for none
+     * @param apiKeys                 keys that get their own bucket
+     * @param idempotencyPrefixLength leading Idempotency-Key characters that split an address, 0 for none
+     */
+    public RateLimitFilter(TokenBucketTable buckets, TokenBucketTable addressBuckets, String apiKeyHeader,
+            Set<String> apiKeys, int idempotencyPrefixLength, ObjectMapper objectMapper, MeterRegistry meterRegistry)
+            throws JsonProcessingException {
+        if (idempotencyPrefixLength > 0 && addressBuckets == null) {
+            throw new IllegalArgumentException("an Idempotency-Key prefix split needs per-address buckets");
+        }
+        this.buckets = buckets;
+        this.addressBuckets = addressBuckets;
+        this.apiKeyHeader = apiKeyHeader == null || apiKeyHeader.isBlank() || apiKeys.isEmpty() ? null : apiKeyHeader;
+        this.apiKeys = Set.copyOf(apiKeys);
+        this.idempotencyPrefixLength = idempotencyPrefixLength;
+
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", "Too many registration attempts, please retry later");
+        this.body = objectMapper.writeValueAsBytes(
+            new ErrorResponse(new ErrorResponse.ErrorDetail("RATE_LIMITED", errors)));
+
+        Gauge.builder("register.rate_limit.clients", this, RateLimitFilter::clients)
+            .description("Clients with a partly used token bucket")
+            .register(meterRegistry);
+        this.rejectedByAddress = Counter.builder("register.rate_limit.rejected")
+            .description("Registration requests rejected with 429")
+            .tag("key", "address")
+            .register(meterRegistry);
+        this.rejectedByApiKey = Counter.builder("register.rate_limit.rejected")
+            .description("Registration requests rejected with 429")
+            .tag("key", "api_key")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String apiKey = apiKeyHeader == null ? null : request.getHeader(apiKeyHeader);
+        boolean byApiKey = apiKey != null && apiKeys.contains(apiKey);
+        long waitNanos = byApiKey ? buckets.tryAcquire("key:" + apiKey) : tryAcquireForAddress(request);
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        (byApiKey ? rejectedByApiKey : rejectedByAddress).increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private long tryAcquireForAddress(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (idempotencyPrefixLength <= 0) {
+            return buckets.tryAcquire(address);
+        }
+        // The aggregate first: a prefix bucket is only created for requests the address could afford
+        long waitNanos = addressBuckets.tryAcquire(address);
+        if (waitNanos != 0) {
+            return waitNanos;
+        }
+        String idempotencyKey = request.getHeader("Idempotency-Key");
+        if (idempotencyKey == null || idempotencyKey.isEmpty()) {
+            return buckets.tryAcquire(address);
+        }
+        return buckets.tryAcquire(
+            address + '|' + idempotencyKey.substring(0, Math.min(idempotencyPrefixLength, idempotencyKey.length())));
+    }
+
+    @Scheduled(fixedDelayString = "${register.rate-limit.eviction-interval:1m}")
+    public void evictIdle() {
+        buckets.evictIdle();
+        if (addressBuckets != null) {
+            addressBuckets.evictIdle();
+        }
+    }
+
+    private double clients() {
+        return buckets.size() + (addressBuckets == null ? 0 : addressBuckets.size());
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.register.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by client. Each bucket is a single {@code long}: the
+ * time at which it will be full again (GCRA, the "virtual scheduling" form
+ * of a token bucket), advanced with a CAS, so taking a token never locks.
+ *
+ * Keys are spread over independent stripes, each holding at most
+ * {@code maxEntries / stripes} buckets. A bucket that has refilled carries
+ * no state, so idle entries can be dropped at any time without changing a
+ * decision. When a stripe is still full after dropping them, new clients in
+ * that stripe share one overflow bucket instead of growing the table.
+ */
+public class TokenBucketTable {
+
+    private final long refillNanos;
+    private final long burstNanos;
+    private final LongSupplier ticker;
+    private final Stripe[] stripes;
+
+    /**
+     * @param permitsPerSecond sustained rate per client
+     * @param burst            tokens a client that has been idle can spend at once
+     * @param maxEntries       clients tracked across all stripes
+     * @param stripes          rounded up to a power of two
+     * @param ticker           nanosecond clock, {@link System#nanoTime()} outside tests
+     */
+    public TokenBucketTable(double permitsPerSecond, int burst, int maxEntries, int stripes, LongSupplier ticker) {
+        if (permitsPerSecond <= 0 || burst < 1 || maxEntries < 1 || stripes < 1) {
+            throw new IllegalArgumentException("rate, burst, max entries and stripes must be positive");
+        }
+        this.refillNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstNanos = refillNanos * burst;
+        this.ticker = ticker;
+        int stripeCount = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new Stripe[stripeCount];
+        int perStripe = Math.max(1, maxEntries / stripeCount);
+        long now = ticker.getAsLong();
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(perStripe, now);
+        }
+    }
+
+    /**
+     * Takes one token from {@code key}'s bucket.
+     *
+     * @return 0 when a token was taken, otherwise the nanoseconds until one is available
+     */
+    public long tryAcquire(String key) {
+        long now = ticker.getAsLong();
+        Stripe stripe = stripes[spread(key.hashCode()) & (stripes.length - 1)];
+        AtomicLong bucket = stripe.buckets.get(key);
+        if (bucket == null) {
+            bucket = stripe.bucketFor(key, now);
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + refillNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops every bucket that has refilled.
+     *
+     * @return the number of buckets dropped
+     */
+    public int evictIdle() {
+        long now = ticker.getAsLong();
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            evicted += stripe.evictIdle(now);
+        }
+        return evicted;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private final class Stripe {
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong overflow;
+        private final int capacity;
+        private final AtomicLong lastEviction;
+
+        Stripe(int capacity, long now) {
+            this.capacity = capacity;
+            this.overflow = new AtomicLong(now);
+            this.lastEviction = new AtomicLong(now);
+        }
+
+        AtomicLong bucketFor(String key, long now) {
+            if (buckets.size() >= capacity) {
+                // One sweep per refill interval, so a full stripe of busy clients is not rescanned per request
+                long last = lastEviction.get();
+                if (now - last >= refillNanos && lastEviction.compareAndSet(last, now)) {
+                    evictIdle(now);
+                }
+                if (buckets.size() >= capacity) {
+                    return overflow;
+                }
+            }
+            return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        int evictIdle(long now) {
+            int before = buckets.size();
+            buckets.values().removeIf(bucket -> bucket.get() <= now);
+            return before - buckets.size();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.register.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.register.entity.IdempotencyRecord;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    
+    // Status and sentAt are read live (the stored status only stands in for a user being purged).
+    // Replay lookups may read a replica: a key it has not seen yet is claimed on the primary, fails, and is re-read there
+    @Transactional(readOnly = true)
+    @Query("select new com.example.register.repository.RegistrationView(r.idempotencyKey, r.fingerprint, r.userId, "
+            + "coalesce(u.status, r.status), r.createdAt, "
+            + "(select max(o.sentAt) from OutboxMessage o where o.userId = r.userId)) "
+            + "from IdempotencyRecord r left join User u on u.userId = r.userId "
+            + "where r.idempotencyKey = :idempotencyKey")
+    Optional<RegistrationView> findRegistration(@Param("idempotencyKey") String idempotencyKey);
+    
+    @Transactional(readOnly = true)
+    @Query("select new com.example.register.repository.RegistrationView(r.idempotencyKey, r.fingerprint, r.userId, "
+            + "coalesce(u.status, r.status), r.createdAt, "
+            + "(select max(o.sentAt) from OutboxMessage o where o.userId = r.userId)) "
+            + "from IdempotencyRecord r left join User u on u.userId = r.userId "
+            + "where r.idempotencyKey in :idempotencyKeys")
+    List<RegistrationView> findRegistrations(@Param("idempotencyKeys") Collection<String> idempotencyKeys);
+    
+    @Query("select r.idempotencyKey from IdempotencyRecord r where r.expiresAt <= :now")
+    List<String> findExpiredKeys(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    // Records of the given users that no longer exist
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.userId in :userIds "
+            + "and not exists (select u.id from User u where u.userId = r.userId)")
+    int deleteOrphaned(@Param("userIds") Collection<String> userIds);
+}
@@ -0,0 +1,60 @@
+package com.example.register.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.register.entity.OutboxMessage;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+    
+    // Lock timeout -2 asks Hibernate for SKIP LOCKED so concurrent dispatchers claim disjoint rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select o from OutboxMessage o where o.status = com.example.register.entity.OutboxMessage.OutboxStatus.PENDING "
+            + "and o.nextAttemptAt <= :now order by o.id")
+    List<OutboxMessage> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    // A replica behind on the dispatch only delays the sentAt shown in a replay
+    @Transactional(readOnly = true)
+    @Query("select max(o.sentAt) from OutboxMessage o where o.userId = :userId")
+    Optional<LocalDateTime> findSentAtByUserId(@Param("userId") String userId);
+    
+    // Delivery outcomes are written by id; a message deleted since it was claimed (its account purged) is skipped
+    @Modifying
+    @Query("update OutboxMessage o set o.status = com.example.register.entity.OutboxMessage.OutboxStatus.SENT, "
+            + "o.sentAt = :sentAt, o.lastError = null where o.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+    
+    @Modifying
+    @Query("update OutboxMessage o set o.attempts = :attempts, o.lastError = :lastError, "
+            + "o.nextAttemptAt = :nextAttemptAt where o.id = :id")
+    int reschedule(@Param("id") Long id, @Param("attempts") int attempts, @Param("lastError") String lastError,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+    
+    @Modifying
+    @Query("update OutboxMessage o set o.status = com.example.register.entity.OutboxMessage.OutboxStatus.FAILED, "
+            + "o.attempts = :attempts, o.lastError = :lastError where o.id = :id")
+    int markFailed(@Param("id") Long id, @Param("attempts") int attempts, @Param("lastError") String lastError);
+    
+    // Messages of the given users that no longer exist
+    @Modifying
+    @Query("delete from OutboxMessage o where o.userId in :userIds "
+            + "and not exists (select u.id from User u where u.userId = o.userId)")
+    int deleteOrphaned(@Param("userIds") Collection<String> userIds);
+}
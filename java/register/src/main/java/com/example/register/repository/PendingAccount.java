@@ -0,0 +1,11 @@
+package com.example.register.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * A pending account as seen by the purge: its keyset position and the
+ * identifiers it releases when deleted.
+ */
+public record PendingAccount(Long id, String userId, String username, String email, String phone,
+        LocalDateTime createdAt) {
+}
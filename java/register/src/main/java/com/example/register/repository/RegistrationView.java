@@ -0,0 +1,14 @@
+package com.example.register.repository;
+
+import java.time.LocalDateTime;
+
+import com.example.register.entity.User;
+
+/**
+ * The columns needed to replay a registration response: the idempotency
+ * record, with the current status of its {@code users} row. {@code sentAt}
+ * is null until the verification email has been dispatched from the outbox.
+ */
+public record RegistrationView(String idempotencyKey, String fingerprint, String userId, User.UserStatus status,
+        LocalDateTime createdAt, LocalDateTime sentAt) {
+}
@@ -0,0 +1,8 @@
+package com.example.register.repository;
+
+/**
+ * Projection of the columns that must be unique across users, used to warm
+ * in-memory uniqueness structures without loading full {@code User} rows.
+ */
+public record UniqueKeys(Long id, String username, String email, String phone) {
+}
@@ -1,24 +1,85 @@
 package com.example.register.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.register.entity.User;
 
+/**
+ * Methods marked {@code @Transactional(readOnly = true)} may be served by a
+ * read replica when {@code register.datasource.replicas.enabled} is set: the
+ * uniqueness pre-checks (a value missed by a lagging replica still hits the
+ * unique constraint) and the status lookup (which re-reads the primary on a
+ * miss). Everything else, including the uniqueness index catch-up and the
+ * pending-account purge, reads the primary.
+ */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    @Transactional(readOnly = true)
     boolean existsByUsername(String username);
     
+    @Transactional(readOnly = true)
     boolean existsByEmail(String email);
     
+    @Transactional(readOnly = true)
     boolean existsByPhone(String phone);
     
-    Optional<User> findByIdempotencyKey(String idempotencyKey);
+    @Transactional(readOnly = true)
+    @Query("select u.username from User u where u.username in :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
     
-    Optional<User> findByUserId(String userId);
+    @Transactional(readOnly = true)
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    @Transactional(readOnly = true)
+    @Query("select u.phone from User u where u.phone in :phones")
+    Set<String> findExistingPhones(@Param("phones") Collection<String> phones);
+    
+    @Transactional(readOnly = true)
+    @Query("select new com.example.register.repository.UserStatusView(u.userId, u.status, u.createdAt, "
+            + "(select max(o.sentAt) from OutboxMessage o where o.userId = u.userId)) "
+            + "from User u where u.userId = :userId")
+    Optional<UserStatusView> findStatusByUserId(@Param("userId") String userId);
     
     Optional<User> findByEmail(String email);
+    
+    // One conditional UPDATE: returns 0 when the user is unknown or no longer pending
+    @Modifying
+    @Query("update User u set u.status = com.example.register.entity.User.UserStatus.ACTIVE, u.verifiedAt = :now "
+            + "where u.userId = :userId "
+            + "and u.status = com.example.register.entity.User.UserStatus.PENDING_VERIFICATION")
+    int activate(@Param("userId") String userId, @Param("now") LocalDateTime now);
+    
+    // Keyset page on (createdAt, id): each page starts after the last row of the previous one
+    @Query("select new com.example.register.repository.PendingAccount(u.id, u.userId, u.username, u.email, u.phone, "
+            + "u.createdAt) from User u "
+            + "where u.status = com.example.register.entity.User.UserStatus.PENDING_VERIFICATION "
+            + "and u.createdAt < :cutoff "
+            + "and (u.createdAt > :afterCreatedAt or (u.createdAt = :afterCreatedAt and u.id > :afterId)) "
+            + "order by u.createdAt, u.id")
+    List<PendingAccount> findPendingCreatedBefore(@Param("cutoff") LocalDateTime cutoff,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt, @Param("afterId") long afterId, Pageable pageable);
+    
+    // Accounts verified since they were read are left alone
+    @Modifying
+    @Query("delete from User u where u.id in :ids "
+            + "and u.status = com.example.register.entity.User.UserStatus.PENDING_VERIFICATION")
+    int deletePending(@Param("ids") Collection<Long> ids);
+    
+    @Query("select new com.example.register.repository.UniqueKeys(u.id, u.username, u.email, u.phone) "
+            + "from User u where u.id > :afterId and u.createdAt >= :since order by u.id")
+    List<UniqueKeys> findUniqueKeys(@Param("afterId") long afterId, @Param("since") LocalDateTime since, Pageable pageable);
 }
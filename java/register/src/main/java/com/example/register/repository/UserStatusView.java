@@ -0,0 +1,13 @@
+package com.example.register.repository;
+
+import java.time.LocalDateTime;
+
+import com.example.register.entity.User;
+
+/**
+ * The public columns of a user, read without loading the entity (and so
+ * without the password hash). {@code sentAt} is null until the verification
+ * email has been dispatched from the outbox.
+ */
+public record UserStatusView(String userId, User.UserStatus status, LocalDateTime createdAt, LocalDateTime sentAt) {
+}
@@ -0,0 +1,160 @@
+package com.example.register.service;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.register.repository.UserRepository;
+import com.example.register.service.UniquenessIndex.Field;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Advisory username/email/phone availability for live form validation.
+ * Registration still decides; this only has to be cheap and usually right.
+ *
+ * The {@link UniquenessIndex} filters answer "available" for most values
+ * without a query. A value they cannot rule out is looked up in a bounded
+ * cache of recent answers: "taken" is kept long since accounts are released
+ * only by the pending-account purge, which drops them via {@link #release},
+ * "available" briefly since someone may register it any moment.
+ * Only then is the repository asked, by at most
+ * {@code max-concurrent-lookups} callers at once; the rest get "unknown"
+ * instead of waiting, so a burst of keystrokes cannot take the connections
+ * registrations need.
+ */
+@Component
+public class AvailabilityChecker {
+
+    public enum Availability {
+        AVAILABLE,
+        TAKEN,
+        UNKNOWN
+    }
+
+    private enum Source {
+        INDEX,
+        CACHE,
+        DATABASE,
+        SHED
+    }
+
+    private record Key(Field field, String value) {
+    }
+
+    private final UniquenessIndex uniquenessIndex;
+    private final UserRepository userRepository;
+    private final Cache<Key, Boolean> taken;
+    private final Cache<Key, Boolean> available;
+    private final Semaphore lookups;
+    private final Counter[][] checks = new Counter[Field.values().length][Source.values().length];
+
+    @Autowired
+    public AvailabilityChecker(
+            UniquenessIndex uniquenessIndex,
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${register.availability.cache.max-size:100000}") long maxSize,
+            @Value("${register.availability.cache.taken-ttl:10m}") Duration takenTtl,
+            @Value("${register.availability.cache.available-ttl:5s}") Duration availableTtl,
+            @Value("${register.availability.max-concurrent-lookups:4}") int maxConcurrentLookups) {
+        this.uniquenessIndex = uniquenessIndex;
+        this.userRepository = userRepository;
+        this.taken = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(takenTtl)
+            .recordStats()
+            .build();
+        this.available = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(availableTtl)
+            .recordStats()
+            .build();
+        this.lookups = new Semaphore(maxConcurrentLookups);
+        CaffeineCacheMetrics.monitor(meterRegistry, taken, "register.availability.taken");
+        CaffeineCacheMetrics.monitor(meterRegistry, available, "register.availability.available");
+        for (Field field : Field.values()) {
+            for (Source source : Source.values()) {
+                checks[field.ordinal()][source.ordinal()] = Counter.builder("register.availability.checks")
+                    .description("Availability checks by where the answer came from")
+                    .tag("field", field.name().toLowerCase())
+                    .tag("source", source.name().toLowerCase())
+                    .register(meterRegistry);
+            }
+        }
+    }
+
+    /**
+     * @return null when {@code value} is null, so callers can pass absent query parameters through
+     */
+    public Availability check(Field field, String value) {
+        if (value == null) {
+            return null;
+        }
+        if (!uniquenessIndex.mightExist(field, value)) {
+            count(field, Source.INDEX);
+            return Availability.AVAILABLE;
+        }
+        Key key = new Key(field, value);
+        if (taken.getIfPresent(key) != null) {
+            count(field, Source.CACHE);
+            return Availability.TAKEN;
+        }
+        if (available.getIfPresent(key) != null) {
+            count(field, Source.CACHE);
+            return Availability.AVAILABLE;
+        }
+        if (!lookups.tryAcquire()) {
+            count(field, Source.SHED);
+            return Availability.UNKNOWN;
+        }
+        try {
+            count(field, Source.DATABASE);
+            if (repositoryCheck(field).test(value)) {
+                taken.put(key, Boolean.TRUE);
+                return Availability.TAKEN;
+            }
+            available.put(key, Boolean.TRUE);
+            return Availability.AVAILABLE;
+        } finally {
+            lookups.release();
+        }
+    }
+
+    /**
+     * Forgets cached answers for identifiers of a deleted account; null values are skipped.
+     */
+    public void release(String username, String email, String phone) {
+        forget(Field.USERNAME, username);
+        forget(Field.EMAIL, email);
+        forget(Field.PHONE, phone);
+    }
+
+    private void forget(Field field, String value) {
+        if (value != null) {
+            Key key = new Key(field, value);
+            taken.invalidate(key);
+            available.invalidate(key);
+        }
+    }
+
+    private Predicate<String> repositoryCheck(Field field) {
+        return switch (field) {
+            case USERNAME -> userRepository::existsByUsername;
+            case EMAIL -> userRepository::existsByEmail;
+            case PHONE -> userRepository::existsByPhone;
+        };
+    }
+
+    private void count(Field field, Source source) {
+        checks[field.ordinal()][source.ordinal()].increment();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.register.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.IntToLongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt {@link PasswordHasher}. The cost is stored in every hash
+ * ({@code $2a$<cost>$...}), so hashes made at an older cost keep verifying
+ * after the cost changes.
+ */
+public class BCryptPasswordHasher implements PasswordHasher {
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptPasswordHasher.class);
+
+    static final int MIN_SUPPORTED_COST = 4;
+    static final int MAX_SUPPORTED_COST = 31;
+    private static final int SAMPLES = 3;
+    private static final String SAMPLE_PASSWORD = "Calibrat10n!Sample";
+
+    private final int cost;
+    private final BCryptPasswordEncoder encoder;
+
+    public BCryptPasswordHasher(int cost) {
+        if (cost < MIN_SUPPORTED_COST || cost > MAX_SUPPORTED_COST) {
+            throw new IllegalArgumentException("BCrypt cost must be between 4 and 31: " + cost);
+        }
+        this.cost = cost;
+        this.encoder = new BCryptPasswordEncoder(cost);
+    }
+
+    /**
+     * Benchmarks bcrypt on this machine and returns a hasher using the highest
+     * cost in {@code [minCost, maxCost]} whose hash time fits {@code budget}.
+     * {@code minCost} is a floor: it is used even when it exceeds the budget.
+     */
+    public static BCryptPasswordHasher calibrate(int minCost, int maxCost, Duration budget) {
+        int cost = selectCost(minCost, maxCost, budget.toNanos(), BCryptPasswordHasher::measureNanos);
+        log.info("Calibrated bcrypt cost {} for a {} ms budget (floor {}, ceiling {})",
+            cost, budget.toMillis(), minCost, maxCost);
+        return new BCryptPasswordHasher(cost);
+    }
+
+    static int selectCost(int minCost, int maxCost, long budgetNanos, IntToLongFunction hashNanos) {
+        int selected = minCost;
+        for (int cost = minCost; cost <= maxCost; cost++) {
+            long elapsed = hashNanos.applyAsLong(cost);
+            if (elapsed > budgetNanos) {
+                break;
+            }
+            selected = cost;
+            // Each extra cost step doubles the work, so stop before exceeding the budget
+            if (elapsed * 2 > budgetNanos) {
+                break;
+            }
+        }
+        return selected;
+    }
+
+    // Median of a few runs after one warm-up, to keep JIT and GC noise out of the choice
+    private static long measureNanos(int cost) {
+        BCryptPasswordEncoder candidate = new BCryptPasswordEncoder(cost);
+        candidate.encode(SAMPLE_PASSWORD);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            candidate.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public String hash(String rawPassword) {
+        return encoder.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(String rawPassword, String hash) {
+        return encoder.matches(rawPassword, hash);
+    }
+
+    @Override
+    public boolean needsRehash(String hash) {
+        return encoder.upgradeEncoding(hash);
+    }
+}
@@ -0,0 +1,317 @@
+package com.example.register.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.register.audit.AuditLog;
+import com.example.register.dto.BatchRegisterResult;
+import com.example.register.dto.ErrorResponse;
+import com.example.register.dto.RegisterRequest;
+import com.example.register.dto.RegisterResponse;
+import com.example.register.entity.IdempotencyRecord;
+import com.example.register.entity.OutboxMessage;
+import com.example.register.entity.User;
+import com.example.register.exception.ServiceUnavailableException;
+import com.example.register.exception.ValidationException;
+import com.example.register.repository.IdempotencyRecordRepository;
+import com.example.register.repository.OutboxMessageRepository;
+import com.example.register.repository.RegistrationView;
+import com.example.register.repository.UserRepository;
+import com.example.register.service.UniquenessIndex.Field;
+
+
+/**
+ * Registers many accounts per call. Requests are consumed in chunks; each
+ * chunk is checked for replays and for taken usernames, emails and phones
+ * with one set-based query per field, hashed on the shared pool, and inserted
+ * in a single transaction so Hibernate can group the inserts into JDBC
+ * batches. Results reach the sink in input order as each chunk completes.
+ */
+@Service
+public class BatchRegisterService {
+
+    private final UserRepository userRepository;
+    private final OutboxMessageRepository outboxRepository;
+    private final IdempotencyRecordRepository idempotencyRepository;
+    private final UniquenessIndex uniquenessIndex;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final IdempotencyCache idempotencyCache;
+    private final RegisterService registerService;
+    private final RegistrationValidator registrationValidator;
+    private final AuditLog auditLog;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @Autowired
+    public BatchRegisterService(UserRepository userRepository, OutboxMessageRepository outboxRepository,
+            IdempotencyRecordRepository idempotencyRepository, UniquenessIndex uniquenessIndex, PasswordHashingExecutor passwordHashingExecutor,
+            IdempotencyCache idempotencyCache, RegisterService registerService, RegistrationValidator registrationValidator,
+            AuditLog auditLog, PlatformTransactionManager transactionManager,
+            @Value("${register.batch.chunk-size:100}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.outboxRepository = outboxRepository;
+        this.idempotencyRepository = idempotencyRepository;
+        this.uniquenessIndex = uniquenessIndex;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.idempotencyCache = idempotencyCache;
+        this.registerService = registerService;
+        this.registrationValidator = registrationValidator;
+        this.auditLog = auditLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Registers every request from {@code requests}. With a {@code batchKey},
+     * item {@code i} is stored under the idempotency key {@code batchKey#i}, so
+     * resending the same batch replays it item by item; without one, nothing
+     * is looked up or stored for replay.
+     *
+     * @return the number of requests consumed
+     */
+    public int registerAll(Iterator<RegisterRequest> requests, String batchKey, Consumer<BatchRegisterResult> sink) {
+        int consumed = 0;
+        List<RegisterRequest> chunk = new ArrayList<>(chunkSize);
+        while (requests.hasNext()) {
+            chunk.add(requests.next());
+            if (chunk.size() == chunkSize) {
+                registerChunk(consumed, chunk, batchKey).forEach(sink);
+                consumed += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            registerChunk(consumed, chunk, batchKey).forEach(sink);
+            consumed += chunk.size();
+        }
+        return consumed;
+    }
+
+    private List<BatchRegisterResult> registerChunk(int firstIndex, List<RegisterRequest> chunk, String batchKey) {
+        if (batchKey == null) {
+            return registerChunk(firstIndex, chunk, (String[]) null);
+        }
+        String[] keys = new String[chunk.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = batchKey + "#" + (firstIndex + i);
+        }
+        return registerChunk(firstIndex, chunk, keys);
+    }
+
+    /**
+     * Registers one chunk with caller-chosen idempotency keys, one per request.
+     * Results carry indexes starting at {@code firstIndex}, in chunk order.
+     */
+    public List<BatchRegisterResult> registerChunk(int firstIndex, List<RegisterRequest> chunk, List<String> idempotencyKeys) {
+        return registerChunk(firstIndex, chunk, idempotencyKeys.toArray(new String[0]));
+    }
+
+    // keys is null when the items carry no idempotency keys
+    private List<BatchRegisterResult> registerChunk(int firstIndex, List<RegisterRequest> chunk, String[] keys) {
+        int size = chunk.size();
+        BatchRegisterResult[] results = new BatchRegisterResult[size];
+
+        // Replays: cache first, then one query for the rest
+        String[] fingerprints = null;
+        if (keys != null) {
+            fingerprints = new String[size];
+            for (int i = 0; i < size; i++) {
+                fingerprints[i] = RequestFingerprint.of(chunk.get(i));
+            }
+            findReplays(firstIndex, keys, fingerprints, results);
+        }
+
+        // Field rules and password confirmation, then uniqueness for the valid items
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Map<String, String> errors = registrationValidator.errors(chunk.get(i));
+            if (errors == null) {
+                candidates.add(i);
+            } else {
+                results[i] = validationFailed(firstIndex + i, keys == null ? null : keys[i], errors);
+            }
+        }
+        List<Integer> accepted = checkUniqueness(firstIndex, chunk, keys, candidates, results);
+        if (accepted.isEmpty()) {
+            return List.of(results);
+        }
+
+        // Hash outside the transaction, then insert the whole chunk at once
+        List<String> hashes;
+        try {
+            hashes = passwordHashingExecutor.hashAll(accepted.stream().map(i -> chunk.get(i).getPassword()).toList());
+        } catch (ServiceUnavailableException e) {
+            for (int i : accepted) {
+                results[i] = failed(firstIndex + i, 503, "SERVICE_UNAVAILABLE", "message", e.getMessage());
+            }
+            return List.of(results);
+        }
+        List<User> users = new ArrayList<>(accepted.size());
+        List<IdempotencyRecord> records = new ArrayList<>(keys == null ? 0 : accepted.size());
+        for (int j = 0; j < accepted.size(); j++) {
+            int i = accepted.get(j);
+            User user = registerService.newUser(chunk.get(i), hashes.get(j));
+            users.add(user);
+            if (keys != null) {
+                records.add(registerService.newIdempotencyRecord(keys[i], fingerprints[i], user));
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAll(users);
+                idempotencyRepository.saveAll(records);
+                outboxRepository.saveAll(users.stream().map(OutboxMessage::verificationEmail).toList());
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another writer took a value or key between the checks and the insert: redo this chunk one by one
+            for (int i : accepted) {
+                results[i] = registerOne(firstIndex + i, chunk.get(i), keys == null ? null : keys[i]);
+            }
+            return List.of(results);
+        }
+
+        for (int j = 0; j < accepted.size(); j++) {
+            int i = accepted.get(j);
+            User user = users.get(j);
+            uniquenessIndex.add(user);
+            auditLog.registered(user.getUserId(), keys == null ? null : keys[i]);
+            RegisterResponse response = registerService.buildResponse(user);
+            if (keys != null) {
+                idempotencyCache.put(keys[i], fingerprints[i], response);
+            }
+            results[i] = BatchRegisterResult.created(firstIndex + i, response);
+        }
+        return List.of(results);
+    }
+
+    private void findReplays(int firstIndex, String[] keys, String[] fingerprints, BatchRegisterResult[] results) {
+        Map<String, Integer> uncached = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            IdempotencyCache.Entry cached = idempotencyCache.get(keys[i]);
+            if (cached == null) {
+                uncached.put(keys[i], i);
+                continue;
+            }
+            try {
+                RegisterResponse response = RegisterService.replay(cached.fingerprint(), fingerprints[i], cached.response());
+                results[i] = replayed(firstIndex + i, keys[i],
+                    registerService.withDispatchState(keys[i], fingerprints[i], response));
+            } catch (ValidationException e) {
+                results[i] = rejected(firstIndex + i, keys[i], e);
+            }
+        }
+        if (uncached.isEmpty()) {
+            return;
+        }
+        for (RegistrationView registration : idempotencyRepository.findRegistrations(uncached.keySet())) {
+            int i = uncached.get(registration.idempotencyKey());
+            try {
+                RegisterResponse response = RegisterService.replay(registration.fingerprint(), fingerprints[i],
+                    registerService.buildResponse(registration));
+                idempotencyCache.put(keys[i], fingerprints[i], response);
+                results[i] = replayed(firstIndex + i, keys[i], response);
+            } catch (ValidationException e) {
+                results[i] = rejected(firstIndex + i, keys[i], e);
+            }
+        }
+    }
+
+    private List<Integer> checkUniqueness(int firstIndex, List<RegisterRequest> chunk, String[] keys,
+            List<Integer> candidates, BatchRegisterResult[] results) {
+        Set<String> takenUsernames = existing(Field.USERNAME, chunk, candidates, RegisterRequest::getUsername,
+            userRepository::findExistingUsernames);
+        Set<String> takenEmails = existing(Field.EMAIL, chunk, candidates, RegisterRequest::getEmail,
+            userRepository::findExistingEmails);
+        Set<String> takenPhones = existing(Field.PHONE, chunk, candidates, RegisterRequest::getPhone,
+            userRepository::findExistingPhones);
+
+        // Values claimed by earlier items of this chunk count as taken for later ones
+        List<Integer> accepted = new ArrayList<>();
+        for (int i : candidates) {
+            RegisterRequest request = chunk.get(i);
+            Map<String, String> errors = new HashMap<>();
+            if (takenUsernames.contains(request.getUsername())) {
+                errors.put("username", "Username already exists");
+            }
+            if (takenEmails.contains(request.getEmail())) {
+                errors.put("email", "Email already registered");
+            }
+            if (takenPhones.contains(request.getPhone())) {
+                errors.put("phone", "Phone number already registered");
+            }
+            if (!errors.isEmpty()) {
+                results[i] = validationFailed(firstIndex + i, keys == null ? null : keys[i], errors);
+                continue;
+            }
+            takenUsernames.add(request.getUsername());
+            takenEmails.add(request.getEmail());
+            takenPhones.add(request.getPhone());
+            accepted.add(i);
+        }
+        return accepted;
+    }
+
+    private Set<String> existing(Field field, List<RegisterRequest> chunk, List<Integer> candidates,
+            Function<RegisterRequest, String> value, Function<Collection<String>, Set<String>> query) {
+        Set<String> values = new HashSet<>();
+        for (int i : candidates) {
+            values.add(value.apply(chunk.get(i)));
+        }
+        return new HashSet<>(uniquenessIndex.existing(field, values, query));
+    }
+
+    // Audited by RegisterService
+    private BatchRegisterResult registerOne(int index, RegisterRequest request, String idempotencyKey) {
+        try {
+            return BatchRegisterResult.created(index, registerService.register(request, idempotencyKey));
+        } catch (ValidationException e) {
+            return failed(index, e);
+        } catch (ServiceUnavailableException e) {
+            return failed(index, 503, "SERVICE_UNAVAILABLE", "message", e.getMessage());
+        }
+    }
+
+    private static BatchRegisterResult failed(int index, ValidationException e) {
+        return BatchRegisterResult.failed(index, 400, new ErrorResponse.ErrorDetail(e.getErrorCode(), e.getFieldErrors()));
+    }
+
+    private BatchRegisterResult replayed(int index, String idempotencyKey, RegisterResponse response) {
+        auditLog.replayed(response.getUserId(), idempotencyKey);
+        return BatchRegisterResult.created(index, response);
+    }
+
+    private BatchRegisterResult rejected(int index, String idempotencyKey, ValidationException e) {
+        auditLog.rejected(null, idempotencyKey, e.getErrorCode(), e.getFieldErrors());
+        return failed(index, e);
+    }
+
+    private BatchRegisterResult validationFailed(int index, String idempotencyKey, Map<String, String> errors) {
+        auditLog.rejected(null, idempotencyKey, "VALIDATION_FAILED", errors);
+        return BatchRegisterResult.failed(index, 400, new ErrorResponse.ErrorDetail("VALIDATION_FAILED", errors));
+    }
+
+    private static BatchRegisterResult failed(int index, int status, String code, String field, String message) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put(field, message);
+        return BatchRegisterResult.failed(index, status, new ErrorResponse.ErrorDetail(code, fields));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.register.service;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over strings. Bits live in an {@link AtomicLongArray}
+ * so concurrent inserts never lose updates, and the raw words can be copied to
+ * and from a (memory-mapped) {@link ByteBuffer} for snapshots.
+ */
+final class BloomFilter {
+
+    private final long numBits;
+    private final int numHashes;
+    private final AtomicLongArray words;
+
+    BloomFilter(long numBits, int numHashes) {
+        if (numBits <= 0 || numBits % Long.SIZE != 0) {
+            throw new IllegalArgumentException("numBits must be a positive multiple of 64: " + numBits);
+        }
+        if (numHashes <= 0) {
+            throw new IllegalArgumentException("numHashes must be positive: " + numHashes);
+        }
+        this.numBits = numBits;
+        this.numHashes = numHashes;
+        this.words = new AtomicLongArray(Math.toIntExact(numBits / Long.SIZE));
+    }
+
+    static BloomFilter create(long expectedInsertions, double falsePositiveProbability) {
+        long n = Math.max(1, expectedInsertions);
+        double bits = -n * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2));
+        long numBits = Math.max(Long.SIZE, ((long) Math.ceil(bits) + Long.SIZE - 1) / Long.SIZE * Long.SIZE);
+        int numHashes = Math.max(1, (int) Math.round((double) numBits / n * Math.log(2)));
+        return new BloomFilter(numBits, numHashes);
+    }
+
+    void put(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0xC2B2AE3D27D4EB4FL);
+        for (int i = 0; i < numHashes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % numBits;
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(index);
+            while ((current & mask) == 0 && !words.weakCompareAndSetVolatile(index, current, current | mask)) {
+                current = words.get(index);
+            }
+        }
+    }
+
+    boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0xC2B2AE3D27D4EB4FL);
+        for (int i = 0; i < numHashes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % numBits;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long numBits() {
+        return numBits;
+    }
+
+    int numHashes() {
+        return numHashes;
+    }
+
+    int sizeInBytes() {
+        return words.length() * Long.BYTES;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        for (int i = 0; i < words.length(); i++) {
+            buffer.putLong(words.get(i));
+        }
+    }
+
+    static BloomFilter readFrom(ByteBuffer buffer, long numBits, int numHashes) {
+        BloomFilter filter = new BloomFilter(numBits, numHashes);
+        for (int i = 0; i < filter.words.length(); i++) {
+            filter.words.set(i, buffer.getLong());
+        }
+        return filter;
+    }
+
+    // FNV-1a over the UTF-16 chars followed by a murmur3 finalizer; avoids encoding to bytes
+    private static long hash(String value) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.register.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.register.dto.RegisterResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Size-bounded, TTL-evicting map from idempotency key to the response that
+ * was returned for it and the fingerprint of the request that produced it,
+ * so client retries are answered without a query.
+ * Hit, miss and eviction counts are published as {@code cache.*} meters
+ * tagged {@code cache=register.idempotency}.
+ */
+@Component
+public class IdempotencyCache {
+
+    public record Entry(String fingerprint, RegisterResponse response) {
+    }
+
+    private final Cache<String, Entry> cache;
+
+    @Autowired
+    public IdempotencyCache(
+            MeterRegistry meterRegistry,
+            @Value("${register.idempotency.cache.max-size:100000}") long maxSize,
+            @Value("${register.idempotency.cache.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "register.idempotency");
+    }
+
+    public Entry get(String idempotencyKey) {
+        return cache.getIfPresent(idempotencyKey);
+    }
+
+    public void put(String idempotencyKey, String fingerprint, RegisterResponse response) {
+        cache.put(idempotencyKey, new Entry(fingerprint, response));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.register.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.register.repository.IdempotencyRecordRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Deletes expired idempotency records in the background, one batch of keys
+ * per statement, so the purge never holds long locks or one huge transaction.
+ * A record stays replayable until the purge that follows its expiry.
+ */
+@Component
+public class IdempotencyPurger {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyPurger.class);
+
+    private final IdempotencyRecordRepository idempotencyRepository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Counter purgedCounter;
+
+    @Autowired
+    public IdempotencyPurger(
+            IdempotencyRecordRepository idempotencyRepository,
+            MeterRegistry meterRegistry,
+            @Value("${register.idempotency.purge.enabled:true}") boolean enabled,
+            @Value("${register.idempotency.purge.batch-size:1000}") int batchSize) {
+        this.idempotencyRepository = idempotencyRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.purgedCounter = Counter.builder("register.idempotency.purged")
+            .description("Expired idempotency records deleted")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${register.idempotency.purge.interval:5m}")
+    public void scheduledPurge() {
+        if (enabled) {
+            purgeExpired(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Deletes every record that expired at or before {@code now} and returns how many were deleted.
+     */
+    public int purgeExpired(LocalDateTime now) {
+        int purged = 0;
+        List<String> keys;
+        do {
+            keys = idempotencyRepository.findExpiredKeys(now, PageRequest.of(0, batchSize));
+            if (keys.isEmpty()) {
+                break;
+            }
+            idempotencyRepository.deleteAllByIdInBatch(keys);
+            purgedCounter.increment(keys.size());
+            purged += keys.size();
+        } while (keys.size() == batchSize);
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency records", purged);
+        }
+        return purged;
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.register.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.register.entity.OutboxMessage;
+import com.example.register.entity.OutboxMessage.OutboxStatus;
+import com.example.register.mail.MailTransport;
+import com.example.register.mail.OutgoingMail;
+import com.example.register.repository.OutboxMessageRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Drains the verification outbox in the background. Each round claims a batch
+ * of due messages (leasing them so other nodes skip them), hands the batch to
+ * the {@link MailTransport} in one call, then records the outcome: sent,
+ * rescheduled with exponential backoff, or failed after the last attempt.
+ * Outcomes are written with updates by id rather than by merging the claimed
+ * entities, so a message whose account was purged meanwhile is skipped
+ * instead of failing the whole batch, which would send the rest again once
+ * the lease runs out.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private final OutboxMessageRepository outboxRepository;
+    private final MailTransport mailTransport;
+    private final UserStatusCache userStatusCache;
+    private final VerificationTokens verificationTokens;
+    private final String verificationLink;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimLease;
+    private final Counter deliveredCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer sendTimer;
+
+    @Autowired
+    public OutboxDispatcher(
+            OutboxMessageRepository outboxRepository,
+            MailTransport mailTransport,
+            UserStatusCache userStatusCache,
+            VerificationTokens verificationTokens,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${register.verification.link:http://localhost:8080/verify?token=}") String verificationLink,
+            @Value("${register.outbox.dispatcher.enabled:true}") boolean enabled,
+            @Value("${register.outbox.batch-size:100}") int batchSize,
+            @Value("${register.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${register.outbox.initial-backoff:2s}") Duration initialBackoff,
+            @Value("${register.outbox.max-backoff:10m}") Duration maxBackoff,
+            @Value("${register.outbox.claim-lease:2m}") Duration claimLease) {
+        this.outboxRepository = outboxRepository;
+        this.mailTransport = mailTransport;
+        this.userStatusCache = userStatusCache;
+        this.verificationTokens = verificationTokens;
+        this.verificationLink = verificationLink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.claimLease = claimLease;
+        this.deliveredCounter = Counter.builder("register.outbox.delivered")
+            .description("Verification messages handed to the mail transport")
+            .register(meterRegistry);
+        this.retriedCounter = Counter.builder("register.outbox.retried")
+            .description("Verification messages rescheduled after a failed send")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("register.outbox.failed")
+            .description("Verification messages given up on after the last attempt")
+            .register(meterRegistry);
+        this.sendTimer = Timer.builder("register.outbox.send")
+            .description("Time to send one outbox batch")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${register.outbox.poll-interval:1s}")
+    public void scheduledDispatch() {
+        if (enabled) {
+            dispatchPending();
+        }
+    }
+
+    /**
+     * Sends every message that is currently due and returns how many were delivered.
+     */
+    public int dispatchPending() {
+        int delivered = 0;
+        List<OutboxMessage> batch;
+        do {
+            batch = claimBatch();
+            if (batch.isEmpty()) {
+                break;
+            }
+            delivered += deliver(batch);
+        } while (batch.size() == batchSize);
+        return delivered;
+    }
+
+    private List<OutboxMessage> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        return transactionTemplate.execute(status -> {
+            List<OutboxMessage> due = outboxRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+            for (OutboxMessage message : due) {
+                message.setNextAttemptAt(now.plus(claimLease));
+            }
+            return due;
+        });
+    }
+
+    private int deliver(List<OutboxMessage> batch) {
+        List<OutgoingMail> mails = batch.stream().map(this::compose).toList();
+        Map<Long, String> failures;
+        try {
+            failures = sendTimer.record(() -> mailTransport.send(mails));
+        } catch (RuntimeException e) {
+            log.warn("Mail transport failed for a batch of {} verification messages", batch.size(), e);
+            failures = new HashMap<>();
+            for (OutboxMessage message : batch) {
+                failures.put(message.getId(), String.valueOf(e.getMessage()));
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> sent = new ArrayList<>();
+        List<String> sentTo = new ArrayList<>();
+        List<OutboxMessage> unsent = new ArrayList<>();
+        for (OutboxMessage message : batch) {
+            String error = failures.get(message.getId());
+            if (error == null) {
+                message.setStatus(OutboxStatus.SENT);
+                message.setSentAt(now);
+                message.setLastError(null);
+                sent.add(message.getId());
+                sentTo.add(message.getUserId());
+                continue;
+            }
+            unsent.add(message);
+            message.setAttempts(message.getAttempts() + 1);
+            message.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+            if (message.getAttempts() >= maxAttempts) {
+                message.setStatus(OutboxStatus.FAILED);
+                failedCounter.increment();
+            } else {
+                message.setNextAttemptAt(now.plus(backoff(message.getAttempts())));
+                retriedCounter.increment();
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> record(sent, now, unsent));
+        // Committed: the users' cached views no longer show the email as unsent
+        userStatusCache.invalidateAll(sentTo);
+        deliveredCounter.increment(sentTo.size());
+        return sentTo.size();
+    }
+
+    private void record(List<Long> sent, LocalDateTime sentAt, List<OutboxMessage> unsent) {
+        if (!sent.isEmpty()) {
+            outboxRepository.markSent(sent, sentAt);
+        }
+        for (OutboxMessage message : unsent) {
+            if (message.getStatus() == OutboxStatus.FAILED) {
+                outboxRepository.markFailed(message.getId(), message.getAttempts(), message.getLastError());
+            } else {
+                outboxRepository.reschedule(message.getId(), message.getAttempts(), message.getLastError(),
+                    message.getNextAttemptAt());
+            }
+        }
+    }
+
+    Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    // Token issued at send time, so a retried message carries a fresh expiry
+    private OutgoingMail compose(OutboxMessage message) {
+        return new OutgoingMail(
+            message.getId(),
+            message.getRecipient(),
+            "Verify your account",
+            "Welcome! Please verify your account to activate it:\n\n"
+                + verificationLink + verificationTokens.issue(message.getUserId()));
+    }
+}
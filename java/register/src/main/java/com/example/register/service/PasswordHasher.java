@@ -0,0 +1,17 @@
+package com.example.register.service;
+
+/**
+ * One-way password hashing. Implementations must encode their work factor in
+ * the hash itself so hashes produced with different settings stay verifiable.
+ */
+public interface PasswordHasher {
+    
+    String hash(String rawPassword);
+    
+    boolean matches(String rawPassword, String hash);
+    
+    /**
+     * Whether {@code hash} was produced with weaker settings than the current ones.
+     */
+    boolean needsRehash(String hash);
+}
@@ -0,0 +1,174 @@
+package com.example.register.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.register.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs password hashing on a fixed pool sized to the CPU cores so that
+ * CPU-bound bcrypt work never occupies servlet threads beyond the pool size.
+ * The queue is bounded; when it is full the caller is rejected immediately
+ * with a {@link ServiceUnavailableException} instead of waiting. In
+ * virtual-thread mode the pool also keeps bcrypt off the carrier threads;
+ * the waiting request thread simply unmounts.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final PasswordHasher passwordHasher;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final Timer waitTimer;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public PasswordHashingExecutor(
+            PasswordHasher passwordHasher,
+            MeterRegistry meterRegistry,
+            @Value("${register.hashing.threads:0}") int threads,
+            @Value("${register.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${register.hashing.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.passwordHasher = passwordHasher;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(
+            poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new HashingThreadFactory(),
+            new ThreadPoolExecutor.AbortPolicy());
+
+        // executor.pool.size, executor.completed, executor.queue.remaining, ... tagged name=password-hash
+        new ExecutorServiceMetrics(executor, "password-hash", Tags.empty()).bindTo(meterRegistry);
+        Gauge.builder("register.hashing.queue.depth", executor, e -> e.getQueue().size())
+            .description("Hashing tasks waiting for a thread")
+            .register(meterRegistry);
+        Gauge.builder("register.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Hashing threads currently busy")
+            .register(meterRegistry);
+        this.waitTimer = Timer.builder("register.hashing.wait")
+            .description("Time a hashing task spent queued before it started")
+            .register(meterRegistry);
+        this.hashTimer = Timer.builder("register.hashing.duration")
+            .description("Time spent computing a password hash")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("register.hashing.rejected")
+            .description("Hashing tasks rejected because the queue was full")
+            .register(meterRegistry);
+    }
+
+    public String hash(String rawPassword) {
+        return await(submit(rawPassword));
+    }
+
+    /**
+     * Hashes a batch in order. At most one task per pool thread is in flight
+     * for the caller at a time, so a large batch keeps every core busy without
+     * filling the shared queue and starving single registrations. When the
+     * queue is full anyway, the caller waits for its own oldest task instead
+     * of being rejected; it is only rejected if it has nothing in flight.
+     */
+    public List<String> hashAll(List<String> rawPasswords) {
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        int window = executor.getCorePoolSize();
+        try {
+            while (hashes.size() < rawPasswords.size()) {
+                while (futures.size() < rawPasswords.size() && futures.size() - hashes.size() < window) {
+                    Future<String> future = trySubmit(rawPasswords.get(futures.size()));
+                    if (future == null) {
+                        if (futures.size() == hashes.size()) {
+                            throw rejected();
+                        }
+                        break;
+                    }
+                    futures.add(future);
+                }
+                hashes.add(await(futures.get(hashes.size())));
+            }
+            return hashes;
+        } finally {
+            for (int i = hashes.size(); i < futures.size(); i++) {
+                futures.get(i).cancel(true);
+            }
+        }
+    }
+
+    private Future<String> submit(String rawPassword) {
+        Future<String> future = trySubmit(rawPassword);
+        if (future == null) {
+            throw rejected();
+        }
+        return future;
+    }
+
+    private Future<String> trySubmit(String rawPassword) {
+        long submittedAt = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.recordCallable(() -> passwordHasher.hash(rawPassword));
+            });
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    private ServiceUnavailableException rejected() {
+        rejectedCounter.increment();
+        return new ServiceUnavailableException("Registration is busy, please retry shortly", retryAfterSeconds);
+    }
+
+    private String await(Future<String> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hash", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
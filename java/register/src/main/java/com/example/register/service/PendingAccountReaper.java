@@ -0,0 +1,162 @@
+package com.example.register.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.register.repository.IdempotencyRecordRepository;
+import com.example.register.repository.OutboxMessageRepository;
+import com.example.register.repository.PendingAccount;
+import com.example.register.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Deletes accounts still pending verification {@code max-age} after they
+ * were created, releasing their username, email and phone.
+ *
+ * Pending accounts are walked in keyset order on {@code (createdAt, id)} a
+ * chunk at a time; each chunk is deleted in its own short transaction,
+ * together with its outbox messages and idempotency records, and followed by
+ * a pause so replicas keep up. Accounts verified in the meantime are skipped
+ * by the delete itself. Cached availability answers and user views for the
+ * deleted accounts are dropped. The uniqueness Bloom filters cannot forget a
+ * value: a released one costs a confirming query until
+ * {@link UniquenessIndex#released} has counted enough of them to rebuild.
+ */
+@Component
+public class PendingAccountReaper {
+
+    private static final Logger log = LoggerFactory.getLogger(PendingAccountReaper.class);
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final UserRepository userRepository;
+    private final OutboxMessageRepository outboxRepository;
+    private final IdempotencyRecordRepository idempotencyRepository;
+    private final AvailabilityChecker availabilityChecker;
+    private final UserStatusCache userStatusCache;
+    private final UniquenessIndex uniquenessIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration maxAge;
+    private final int batchSize;
+    private final Duration pause;
+    private final Counter purgedCounter;
+    private final Timer chunkTimer;
+
+    @Autowired
+    public PendingAccountReaper(
+            UserRepository userRepository,
+            OutboxMessageRepository outboxRepository,
+            IdempotencyRecordRepository idempotencyRepository,
+            AvailabilityChecker availabilityChecker,
+            UserStatusCache userStatusCache,
+            UniquenessIndex uniquenessIndex,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${register.pending-purge.enabled:true}") boolean enabled,
+            @Value("${register.pending-purge.max-age:7d}") Duration maxAge,
+            @Value("${register.pending-purge.batch-size:500}") int batchSize,
+            @Value("${register.pending-purge.pause:200ms}") Duration pause) {
+        this.userRepository = userRepository;
+        this.outboxRepository = outboxRepository;
+        this.idempotencyRepository = idempotencyRepository;
+        this.availabilityChecker = availabilityChecker;
+        this.userStatusCache = userStatusCache;
+        this.uniquenessIndex = uniquenessIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxAge = maxAge;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.purgedCounter = Counter.builder("register.pending_purge.deleted")
+            .description("Accounts deleted for never being verified")
+            .register(meterRegistry);
+        this.chunkTimer = Timer.builder("register.pending_purge.chunk")
+            .description("Time to delete one chunk of unverified accounts")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${register.pending-purge.interval:10m}")
+    public void scheduledPurge() {
+        if (enabled) {
+            purgePending(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Deletes every account created more than {@code max-age} before
+     * {@code now} that is still pending, and returns how many were deleted.
+     */
+    public int purgePending(LocalDateTime now) {
+        LocalDateTime cutoff = now.minus(maxAge);
+        LocalDateTime afterCreatedAt = BEGINNING;
+        long afterId = 0;
+        int purged = 0;
+        List<PendingAccount> chunk;
+        do {
+            chunk = userRepository.findPendingCreatedBefore(cutoff, afterCreatedAt, afterId,
+                PageRequest.of(0, batchSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            long started = System.nanoTime();
+            purged += delete(chunk);
+            chunkTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            PendingAccount last = chunk.get(chunk.size() - 1);
+            afterCreatedAt = last.createdAt();
+            afterId = last.id();
+        } while (chunk.size() == batchSize && pauseBetweenChunks());
+        if (purged > 0) {
+            log.info("Deleted {} accounts pending verification since before {}", purged, cutoff);
+            uniquenessIndex.released(purged);
+        }
+        return purged;
+    }
+
+    private int delete(List<PendingAccount> chunk) {
+        List<Long> ids = chunk.stream().map(PendingAccount::id).toList();
+        List<String> userIds = chunk.stream().map(PendingAccount::userId).toList();
+        int deleted = transactionTemplate.execute(status -> {
+            int rows = userRepository.deletePending(ids);
+            outboxRepository.deleteOrphaned(userIds);
+            idempotencyRepository.deleteOrphaned(userIds);
+            return rows;
+        });
+        // Also for accounts verified meanwhile: forgetting a cached answer is always safe
+        for (PendingAccount account : chunk) {
+            availabilityChecker.release(account.username(), account.email(), account.phone());
+        }
+        userStatusCache.invalidateAll(userIds);
+        purgedCounter.increment(deleted);
+        return deleted;
+    }
+
+    // False when interrupted (shutdown): the rest waits for the next run
+    private boolean pauseBetweenChunks() {
+        if (pause.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
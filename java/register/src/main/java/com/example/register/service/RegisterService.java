@@ -1,88 +1,265 @@
 package com.example.register.service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.register.audit.AuditLog;
 import com.example.register.dto.RegisterRequest;
 import com.example.register.dto.RegisterResponse;
+import com.example.register.entity.IdempotencyRecord;
+import com.example.register.entity.OutboxMessage;
 import com.example.register.entity.User;
 import com.example.register.exception.ValidationException;
+import com.example.register.repository.IdempotencyRecordRepository;
+import com.example.register.repository.OutboxMessageRepository;
+import com.example.register.repository.RegistrationView;
 import com.example.register.repository.UserRepository;
+import com.example.register.service.UniquenessIndex.Field;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Service
 public class RegisterService {
     
+    private static final Map<String, String> KEY_REUSED = Map.of(
+        "idempotencyKey", "Idempotency-Key was already used for a different request");
+    
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final OutboxMessageRepository outboxRepository;
+    private final IdempotencyRecordRepository idempotencyRepository;
+    private final UniquenessIndex uniquenessIndex;
+    private final RegistrationValidator registrationValidator;
+    private final UserIdGenerator userIdGenerator;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final IdempotencyCache idempotencyCache;
+    private final AuditLog auditLog;
+    private final Duration idempotencyTtl;
+    private final TransactionTemplate transactionTemplate;
+    private final SingleFlight<String, RegisterResponse> registrations;
+    private final Timer idempotencyTimer;
+    private final Timer usernameTimer;
+    private final Timer emailTimer;
+    private final Timer phoneTimer;
+    private final Timer hashTimer;
+    private final Timer insertTimer;
+    private final Timer idempotencyInsertTimer;
+    private final Timer outboxTimer;
     
     @Autowired
-    public RegisterService(UserRepository userRepository) {
+    public RegisterService(UserRepository userRepository, OutboxMessageRepository outboxRepository,
+            IdempotencyRecordRepository idempotencyRepository, UniquenessIndex uniquenessIndex,
+            RegistrationValidator registrationValidator, UserIdGenerator userIdGenerator,
+            PasswordHashingExecutor passwordHashingExecutor, IdempotencyCache idempotencyCache, AuditLog auditLog,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${register.idempotency.ttl:24h}") Duration idempotencyTtl) {
         this.userRepository = userRepository;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.outboxRepository = outboxRepository;
+        this.idempotencyRepository = idempotencyRepository;
+        this.uniquenessIndex = uniquenessIndex;
+        this.registrationValidator = registrationValidator;
+        this.userIdGenerator = userIdGenerator;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.idempotencyCache = idempotencyCache;
+        this.auditLog = auditLog;
+        this.idempotencyTtl = idempotencyTtl;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.registrations = new SingleFlight<>(Counter.builder("register.idempotency.coalesced")
+            .description("Requests that waited for an in-flight registration with the same Idempotency-Key")
+            .register(meterRegistry));
+        // Built once here so the hot path only reads the clock
+        this.idempotencyTimer = stageTimer(meterRegistry, "idempotency_lookup");
+        this.usernameTimer = stageTimer(meterRegistry, "uniqueness_username");
+        this.emailTimer = stageTimer(meterRegistry, "uniqueness_email");
+        this.phoneTimer = stageTimer(meterRegistry, "uniqueness_phone");
+        this.hashTimer = stageTimer(meterRegistry, "password_hash");
+        this.insertTimer = stageTimer(meterRegistry, "user_insert");
+        this.idempotencyInsertTimer = stageTimer(meterRegistry, "idempotency_insert");
+        this.outboxTimer = stageTimer(meterRegistry, "outbox_insert");
     }
     
-    @Transactional
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("register.stage")
+            .description("Time spent in one stage of a registration")
+            .tag("stage", stage)
+            .publishPercentileHistogram()
+            .maximumExpectedValue(Duration.ofSeconds(10))
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Registers {@code request}. With an {@code idempotencyKey}, a retry of the
+     * same request replays the first response and a different request under
+     * that key is refused; without one, nothing is looked up or stored.
+     */
     public RegisterResponse register(RegisterRequest request, String idempotencyKey) {
-        // Check idempotency
-        Optional<User> existingUser = userRepository.findByIdempotencyKey(idempotencyKey);
-        if (existingUser.isPresent()) {
-            return buildResponse(existingUser.get());
+        try {
+            return registerChecked(request, idempotencyKey);
+        } catch (ValidationException e) {
+            auditLog.rejected(null, idempotencyKey, e.getErrorCode(), e.getFieldErrors());
+            throw e;
         }
+    }
+    
+    private RegisterResponse registerChecked(RegisterRequest request, String idempotencyKey) {
+        // Field rules and password confirmation: a bad request never reaches the cache or the database
+        registrationValidator.validate(request);
         
-        // Validate request
-        validateRegistrationRequest(request);
+        if (idempotencyKey == null) {
+            return registerOnce(request, null, null);
+        }
+        String fingerprint = RequestFingerprint.of(request);
+        IdempotencyCache.Entry cached = idempotencyTimer.record(() -> idempotencyCache.get(idempotencyKey));
+        if (cached != null) {
+            return replayed(idempotencyKey, withDispatchState(idempotencyKey, fingerprint,
+                replay(cached.fingerprint(), fingerprint, cached.response())));
+        }
         
-        // Create user
-        User user = new User();
-        user.setUserId(generateUserId());
-        user.setFullName(request.getFullName());
-        user.setUsername(request.getUsername());
-        user.setEmail(request.getEmail());
-        user.setPhone(request.getPhone());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setDob(request.getDob());
-        user.setAcceptTerms(request.getAcceptTerms());
-        user.setIdempotencyKey(idempotencyKey);
-        user.setStatus(User.UserStatus.PENDING_VERIFICATION);
-        user.setCreatedAt(LocalDateTime.now());
+        // Concurrent identical requests with the same key share one registration; a different
+        // request under that key goes its own way and is refused when it fails to claim the key
+        boolean[] led = new boolean[1];
+        RegisterResponse response = registrations.execute(idempotencyKey + '\n' + fingerprint, () -> {
+            led[0] = true;
+            return registerOnce(request, idempotencyKey, fingerprint);
+        });
+        // A caller that waited for the leader gets the leader's registration replayed
+        return led[0] ? response : replayed(idempotencyKey, response);
+    }
+    
+    private RegisterResponse registerOnce(RegisterRequest request, String idempotencyKey, String fingerprint) {
+        if (idempotencyKey != null) {
+            // Check idempotency: replay cache first (a previous leader may have just finished),
+            // then the stored record
+            long lookupStarted = System.nanoTime();
+            IdempotencyCache.Entry cached = idempotencyCache.get(idempotencyKey);
+            if (cached != null) {
+                idempotencyTimer.record(System.nanoTime() - lookupStarted, TimeUnit.NANOSECONDS);
+                return replayed(idempotencyKey, withDispatchState(idempotencyKey, fingerprint,
+                    replay(cached.fingerprint(), fingerprint, cached.response())));
+            }
+            Optional<RegisterResponse> replay = findReplay(idempotencyKey, fingerprint);
+            idempotencyTimer.record(System.nanoTime() - lookupStarted, TimeUnit.NANOSECONDS);
+            if (replay.isPresent()) {
+                return replayed(idempotencyKey, replay.get());
+            }
+        }
         
-        // Save user
-        user = userRepository.save(user);
+        // Check uniqueness
+        checkUniqueness(request);
         
-        // Send verification email (simulated)
-        sendVerificationEmail(user);
+        // Create user; hashing happens before the transaction so no connection is held meanwhile
+        String passwordHash = hashTimer.record(() -> passwordHashingExecutor.hash(request.getPassword()));
+        User user = newUser(request, passwordHash);
+        
+        User saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                // Save user
+                User persisted = insertTimer.record(() -> userRepository.save(user));
+                
+                // Claim the key; a concurrent claim on another node fails on the primary key
+                if (idempotencyKey != null) {
+                    idempotencyInsertTimer.record(() -> idempotencyRepository.save(
+                        newIdempotencyRecord(idempotencyKey, fingerprint, persisted)));
+                }
+                
+                // Queue the verification email; OutboxDispatcher sends it after commit
+                outboxTimer.record(() -> outboxRepository.save(OutboxMessage.verificationEmail(persisted)));
+                return persisted;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with another node: replay its registration or report the conflict
+            return resolveConflict(request, idempotencyKey, fingerprint, e);
+        }
+        uniquenessIndex.add(saved);
+        auditLog.registered(saved.getUserId(), idempotencyKey);
         
-        return buildResponse(user);
+        RegisterResponse response = buildResponse(saved);
+        if (idempotencyKey != null) {
+            idempotencyCache.put(idempotencyKey, fingerprint, response);
+        }
+        return response;
     }
     
-    private void validateRegistrationRequest(RegisterRequest request) {
-        Map<String, String> errors = new HashMap<>();
+    private RegisterResponse replayed(String idempotencyKey, RegisterResponse response) {
+        auditLog.replayed(response.getUserId(), idempotencyKey);
+        return response;
+    }
+    
+    private Optional<RegisterResponse> findReplay(String idempotencyKey, String fingerprint) {
+        Optional<RegisterResponse> replay = idempotencyRepository.findRegistration(idempotencyKey)
+            .map(registration -> replay(registration.fingerprint(), fingerprint, buildResponse(registration)));
+        replay.ifPresent(response -> idempotencyCache.put(idempotencyKey, fingerprint, response));
+        return replay;
+    }
+    
+    /**
+     * Returns {@code response} when it was produced by the request with
+     * {@code fingerprint}, or by one whose fingerprint was never recorded.
+     *
+     * @throws ValidationException {@code IDEMPOTENCY_KEY_REUSED} otherwise
+     */
+    static RegisterResponse replay(String storedFingerprint, String fingerprint, RegisterResponse response) {
+        if (storedFingerprint != null && !storedFingerprint.equals(fingerprint)) {
+            throw new ValidationException("IDEMPOTENCY_KEY_REUSED", KEY_REUSED);
+        }
+        return response;
+    }
+    
+    private RegisterResponse resolveConflict(RegisterRequest request, String idempotencyKey, String fingerprint,
+            DataIntegrityViolationException cause) {
+        if (idempotencyKey != null) {
+            Optional<RegisterResponse> replay = findReplay(idempotencyKey, fingerprint);
+            if (replay.isPresent()) {
+                return replayed(idempotencyKey, replay.get());
+            }
+        }
         
-        // Check password match
-        if (!request.getPassword().equals(request.getConfirmPassword())) {
-            errors.put("confirmPassword", "Passwords do not match");
+        Map<String, String> errors = new HashMap<>();
+        if (userRepository.existsByUsername(request.getUsername())) {
+            errors.put("username", "Username already exists");
+        }
+        if (userRepository.existsByEmail(request.getEmail())) {
+            errors.put("email", "Email already registered");
+        }
+        if (userRepository.existsByPhone(request.getPhone())) {
+            errors.put("phone", "Phone number already registered");
+        }
+        if (errors.isEmpty()) {
+            throw cause;
         }
+        throw new ValidationException("VALIDATION_FAILED", errors);
+    }
+    
+    private void checkUniqueness(RegisterRequest request) {
+        Map<String, String> errors = new HashMap<>();
         
         // Check username uniqueness
-        if (userRepository.existsByUsername(request.getUsername())) {
+        if (exists(usernameTimer, Field.USERNAME, request.getUsername(), userRepository::existsByUsername)) {
             errors.put("username", "Username already exists");
         }
         
         // Check email uniqueness
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (exists(emailTimer, Field.EMAIL, request.getEmail(), userRepository::existsByEmail)) {
             errors.put("email", "Email already registered");
         }
         
         // Check phone uniqueness
-        if (userRepository.existsByPhone(request.getPhone())) {
+        if (exists(phoneTimer, Field.PHONE, request.getPhone(), userRepository::existsByPhone)) {
             errors.put("phone", "Phone number already registered");
         }
         
@@ -91,25 +268,68 @@ public class RegisterService {
         }
     }
     
-    private String generateUserId() {
-        return "usr_" + UUID.randomUUID().toString().replace("-", "").substring(0, 10);
+    private boolean exists(Timer timer, Field field, String value, Predicate<String> repositoryCheck) {
+        long started = System.nanoTime();
+        try {
+            return uniquenessIndex.exists(field, value, repositoryCheck);
+        } finally {
+            timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    User newUser(RegisterRequest request, String passwordHash) {
+        User user = new User();
+        user.setUserId(userIdGenerator.next());
+        user.setFullName(request.getFullName());
+        user.setUsername(request.getUsername());
+        user.setEmail(request.getEmail());
+        user.setPhone(request.getPhone());
+        user.setPassword(passwordHash);
+        user.setDob(request.getDob());
+        user.setAcceptTerms(request.getAcceptTerms());
+        user.setStatus(User.UserStatus.PENDING_VERIFICATION);
+        // Stored columns keep microseconds; truncate so the entity matches what is read back
+        user.setCreatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        return user;
+    }
+    
+    IdempotencyRecord newIdempotencyRecord(String idempotencyKey, String fingerprint, User user) {
+        return IdempotencyRecord.of(idempotencyKey, fingerprint, user, user.getCreatedAt().plus(idempotencyTtl));
+    }
+    
+    // A replay cached before the email went out is refreshed once the outbox reports it sent
+    RegisterResponse withDispatchState(String idempotencyKey, String fingerprint, RegisterResponse response) {
+        if (response.getVerification().getSentAt() != null) {
+            return response;
+        }
+        return outboxRepository.findSentAtByUserId(response.getUserId())
+            .map(sentAt -> {
+                RegisterResponse refreshed = new RegisterResponse(response.getUserId(), response.getStatus(),
+                    new RegisterResponse.VerificationInfo(response.getVerification().getChannel(), sentAt));
+                idempotencyCache.put(idempotencyKey, fingerprint, refreshed);
+                return refreshed;
+            })
+            .orElse(response);
+    }
+    
+    RegisterResponse buildResponse(User user) {
+        // Just queued: nothing has been sent yet
+        return buildResponse(user.getUserId(), user.getStatus(), null);
     }
     
-    private void sendVerificationEmail(User user) {
-        // This is a placeholder for actual email sending logic
-        // In production, this would integrate with an email service
-        System.out.println("Sending verification email to: " + user.getEmail());
+    RegisterResponse buildResponse(RegistrationView registration) {
+        return buildResponse(registration.userId(), registration.status(), registration.sentAt());
     }
     
-    private RegisterResponse buildResponse(User user) {
+    private RegisterResponse buildResponse(String userId, User.UserStatus status, LocalDateTime sentAt) {
         RegisterResponse.VerificationInfo verificationInfo = new RegisterResponse.VerificationInfo(
             "email",
-            user.getCreatedAt()
+            sentAt
         );
         
         return new RegisterResponse(
-            user.getUserId(),
-            user.getStatus().name().toLowerCase(),
+            userId,
+            status.name().toLowerCase(),
             verificationInfo
         );
     }
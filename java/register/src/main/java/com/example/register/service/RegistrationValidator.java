@@ -0,0 +1,300 @@
+package com.example.register.service;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.register.dto.RegisterRequest;
+import com.example.register.exception.ValidationException;
+
+import jakarta.validation.Validator;
+
+/**
+ * Checks a {@link RegisterRequest} against the rules of its Bean Validation
+ * annotations, then the password confirmation, in one pass over each field
+ * and without regexes. A valid request allocates nothing. Field keys and
+ * messages are those of the annotations; a field that breaks several rules
+ * reports the first of required, length and format. As before, the
+ * confirmation is only compared once every field is valid.
+ *
+ * Broken rules are collected as bits, and each combination maps to one
+ * shared, unmodifiable error map, so a rejected request allocates no map
+ * either and the controller can cache its serialized body.
+ *
+ * Emails with a quoted local part, an address literal or non-ASCII
+ * characters are rare enough to be handed to Bean Validation unchanged.
+ */
+@Component
+public class RegistrationValidator {
+
+    private static final int EMAIL_LOCAL_PART_MAX = 64;
+    private static final int EMAIL_DOMAIN_MAX = 255;
+    private static final int EMAIL_LABEL_MAX = 63;
+
+    // ASCII lookup tables, indexed by char
+    private static final boolean[] USERNAME_CHARS = chars("abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789._-");
+    private static final boolean[] PASSWORD_SPECIALS = chars("@$!%*?&#^()_+=-[]{}|\\:;\"'<>,./~`");
+    private static final boolean[] EMAIL_LOCAL_CHARS = chars("abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789!#$%&'*+/=?^_`{|}~-");
+    private static final boolean[] EMAIL_DOMAIN_CHARS = chars("abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789!#$%&'*+/=?^_`{|}~");
+
+    /** One broken rule; declaration order is the order fields are reported in. */
+    private enum Rule {
+        FULL_NAME_REQUIRED("fullName", "Full name is required"),
+        FULL_NAME_SIZE("fullName", "Full name must be between 2 and 100 characters"),
+        USERNAME_REQUIRED("username", "Username is required"),
+        USERNAME_SIZE("username", "Username must be between 3 and 50 characters"),
+        USERNAME_PATTERN("username", "Username can only contain letters, numbers, dots, underscores, and hyphens"),
+        EMAIL_REQUIRED("email", "Email is required"),
+        EMAIL_FORMAT("email", "Enter a valid email address"),
+        PHONE_REQUIRED("phone", "Phone is required"),
+        PHONE_FORMAT("phone", "Enter a valid phone number"),
+        PASSWORD_REQUIRED("password", "Password is required"),
+        PASSWORD_PATTERN("password", "Password must be 8–64 chars incl. upper/lower/digit/special"),
+        CONFIRM_PASSWORD_REQUIRED("confirmPassword", "Confirm password is required"),
+        DOB_REQUIRED("dob", "Date of birth is required"),
+        DOB_PAST("dob", "Date of birth must be in the past"),
+        TERMS_NOT_ACCEPTED("acceptTerms", "You must accept the terms and conditions"),
+        PASSWORD_MISMATCH("confirmPassword", "Passwords do not match");
+
+        private static final Rule[] VALUES = values();
+
+        private final String field;
+        private final String message;
+
+        Rule(String field, String message) {
+            this.field = field;
+            this.message = message;
+        }
+
+        int bit() {
+            return 1 << ordinal();
+        }
+    }
+
+    private final Validator beanValidator;
+    private final Map<Integer, Map<String, String>> errorMaps = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RegistrationValidator(Validator beanValidator) {
+        this.beanValidator = beanValidator;
+    }
+
+    /**
+     * @throws ValidationException with code {@code VALIDATION_FAILED} when any rule is broken
+     */
+    public void validate(RegisterRequest request) {
+        Map<String, String> errors = errors(request);
+        if (errors != null) {
+            throw new ValidationException("VALIDATION_FAILED", errors);
+        }
+    }
+
+    /**
+     * @return field key to message for every broken rule, or {@code null} when the request is valid
+     */
+    public Map<String, String> errors(RegisterRequest request) {
+        int broken = bit(fullName(request.getFullName()))
+            | bit(username(request.getUsername()))
+            | bit(email(request.getEmail()))
+            | bit(phone(request.getPhone()))
+            | bit(password(request.getPassword()))
+            | bit(isBlank(request.getConfirmPassword()) ? Rule.CONFIRM_PASSWORD_REQUIRED : null)
+            | bit(dob(request.getDob()))
+            | bit(Boolean.FALSE.equals(request.getAcceptTerms()) ? Rule.TERMS_NOT_ACCEPTED : null);
+        if (broken == 0 && !request.getPassword().equals(request.getConfirmPassword())) {
+            broken = Rule.PASSWORD_MISMATCH.bit();
+        }
+        if (broken == 0) {
+            return null;
+        }
+        Map<String, String> errors = errorMaps.get(broken);
+        return errors != null ? errors : errorMaps.computeIfAbsent(broken, RegistrationValidator::errorMap);
+    }
+
+    private static int bit(Rule rule) {
+        return rule == null ? 0 : rule.bit();
+    }
+
+    // A HashMap filled in rule order, as the per-request maps were, so it serializes the same way
+    private static Map<String, String> errorMap(int broken) {
+        Map<String, String> errors = new HashMap<>();
+        for (Rule rule : Rule.VALUES) {
+            if ((broken & rule.bit()) != 0) {
+                errors.put(rule.field, rule.message);
+            }
+        }
+        return Collections.unmodifiableMap(errors);
+    }
+
+    private static Rule fullName(String value) {
+        if (isBlank(value)) {
+            return Rule.FULL_NAME_REQUIRED;
+        }
+        if (value.length() < 2 || value.length() > 100) {
+            return Rule.FULL_NAME_SIZE;
+        }
+        return null;
+    }
+
+    private static Rule username(String value) {
+        if (isBlank(value)) {
+            return Rule.USERNAME_REQUIRED;
+        }
+        if (value.length() < 3 || value.length() > 50) {
+            return Rule.USERNAME_SIZE;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!in(USERNAME_CHARS, value.charAt(i))) {
+                return Rule.USERNAME_PATTERN;
+            }
+        }
+        return null;
+    }
+
+    private Rule email(String value) {
+        if (isBlank(value)) {
+            return Rule.EMAIL_REQUIRED;
+        }
+        return isEmail(value) ? null : Rule.EMAIL_FORMAT;
+    }
+
+    // ^\+?[1-9]\d{1,14}$
+    private static Rule phone(String value) {
+        if (isBlank(value)) {
+            return Rule.PHONE_REQUIRED;
+        }
+        int start = value.charAt(0) == '+' ? 1 : 0;
+        int digits = value.length() - start;
+        boolean valid = digits >= 2 && digits <= 15 && value.charAt(start) != '0';
+        for (int i = start; valid && i < value.length(); i++) {
+            char c = value.charAt(i);
+            valid = c >= '0' && c <= '9';
+        }
+        return valid ? null : Rule.PHONE_FORMAT;
+    }
+
+    // 8-64 chars from letters, digits and PASSWORD_SPECIALS, with at least one of each kind
+    private static Rule password(String value) {
+        if (isBlank(value)) {
+            return Rule.PASSWORD_REQUIRED;
+        }
+        boolean lower = false;
+        boolean upper = false;
+        boolean digit = false;
+        boolean special = false;
+        boolean valid = value.length() >= 8 && value.length() <= 64;
+        for (int i = 0; valid && i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                lower = true;
+            } else if (c >= 'A' && c <= 'Z') {
+                upper = true;
+            } else if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if (in(PASSWORD_SPECIALS, c)) {
+                special = true;
+            } else {
+                valid = false;
+            }
+        }
+        return valid && lower && upper && digit && special ? null : Rule.PASSWORD_PATTERN;
+    }
+
+    private static Rule dob(LocalDate value) {
+        if (value == null) {
+            return Rule.DOB_REQUIRED;
+        }
+        return value.isBefore(LocalDate.now()) ? null : Rule.DOB_PAST;
+    }
+
+    /**
+     * Hibernate Validator's {@code @Email} for a dot-atom local part and a
+     * domain name: at most 64 chars before the last {@code @}, labels of at
+     * most 63 chars that neither start nor end with {@code -}, at most 255
+     * chars in the domain.
+     */
+    private boolean isEmail(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80 || c == '"' || c == '[') {
+                return beanValidator.validateValue(RegisterRequest.class, "email", value).isEmpty();
+            }
+        }
+        int at = value.lastIndexOf('@');
+        return at >= 0 && isLocalPart(value, at) && isDomain(value, at + 1);
+    }
+
+    private static boolean isLocalPart(String value, int end) {
+        if (end > EMAIL_LOCAL_PART_MAX) {
+            return false;
+        }
+        boolean atomStart = true;
+        for (int i = 0; i < end; i++) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                if (atomStart) {
+                    return false;
+                }
+                atomStart = true;
+            } else if (in(EMAIL_LOCAL_CHARS, c)) {
+                atomStart = false;
+            } else {
+                return false;
+            }
+        }
+        return !atomStart;
+    }
+
+    private static boolean isDomain(String value, int start) {
+        if (value.length() - start > EMAIL_DOMAIN_MAX) {
+            return false;
+        }
+        int labelStart = start;
+        for (int i = start; i <= value.length(); i++) {
+            if (i < value.length() && value.charAt(i) != '.') {
+                char c = value.charAt(i);
+                if (c != '-' && !in(EMAIL_DOMAIN_CHARS, c)) {
+                    return false;
+                }
+                continue;
+            }
+            int length = i - labelStart;
+            if (length == 0 || length > EMAIL_LABEL_MAX
+                    || value.charAt(labelStart) == '-' || value.charAt(i - 1) == '-') {
+                return false;
+            }
+            labelStart = i + 1;
+        }
+        return true;
+    }
+
+    // NotBlank trims like String.trim(): everything up to U+0020 counts as blank
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean in(boolean[] table, char c) {
+        return c < table.length && table[c];
+    }
+
+    private static boolean[] chars(String chars) {
+        boolean[] table = new boolean[128];
+        for (int i = 0; i < chars.length(); i++) {
+            table[chars.charAt(i)] = true;
+        }
+        return table;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.register.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import com.example.register.dto.RegisterRequest;
+
+/**
+ * SHA-256 of the fields that identify a registration, stored with its
+ * Idempotency-Key so that reusing the key for a different request is
+ * refused rather than answered with someone else's account. The passwords
+ * are left out: an unsalted fast hash of them must never be stored.
+ */
+public final class RequestFingerprint {
+    
+    private RequestFingerprint() {
+    }
+    
+    public static String of(RegisterRequest request) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by every Java platform", e);
+        }
+        update(digest, request.getFullName());
+        update(digest, request.getUsername());
+        update(digest, request.getEmail());
+        update(digest, request.getPhone());
+        update(digest, String.valueOf(request.getDob()));
+        update(digest, String.valueOf(request.getAcceptTerms()));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+    
+    // Separator keeps ("ab", "c") and ("a", "bc") apart
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.register.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style user ids: a 63-bit number made of the milliseconds since
+ * 2025-01-01 (41 bits, until 2094), the node id (10 bits), a stripe (4 bits)
+ * and a per-millisecond sequence (8 bits), written as 13 Crockford base32
+ * characters after {@code usr_}. Ids sort by creation time, so inserts land
+ * at the right edge of the {@code userId} index instead of scattering over
+ * it, and two instances with different node ids never produce the same id.
+ *
+ * A calling thread picks a stripe from its thread id and advances only that
+ * stripe's counter with a CAS, so concurrent callers rarely touch the same
+ * cache line and never lock. When a stripe runs out of sequence numbers
+ * within a millisecond, or the clock steps back, it continues from its last
+ * value instead of waiting: ids stay unique and ordered per stripe, and run
+ * slightly ahead of the clock until it catches up.
+ */
+public class TimeOrderedUserIdGenerator implements UserIdGenerator {
+    
+    public static final int MAX_NODE_ID = 1023;
+    
+    static final long EPOCH_MILLIS = 1_735_689_600_000L;
+    
+    private static final int SEQUENCE_BITS = 8;
+    private static final int STRIPE_BITS = 4;
+    private static final int NODE_BITS = 10;
+    private static final int TIMESTAMP_SHIFT = SEQUENCE_BITS + STRIPE_BITS + NODE_BITS;
+    private static final long MAX_TIMESTAMP = (1L << (63 - TIMESTAMP_SHIFT)) - 1;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+    // 128 bytes between stripes keeps each counter on its own cache line
+    private static final int PADDING = 16;
+    private static final char[] DIGITS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final String PREFIX = "usr_";
+    private static final int LENGTH = 13;
+    
+    private final long node;
+    private final LongSupplier clock;
+    // Per stripe: (milliseconds since EPOCH_MILLIS << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLongArray ticks = new AtomicLongArray(STRIPES * PADDING);
+    
+    /**
+     * @param nodeId distinct per instance, 0 to {@value #MAX_NODE_ID}
+     * @param clock  epoch milliseconds, {@link System#currentTimeMillis()} outside tests
+     */
+    public TimeOrderedUserIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.node = nodeId;
+        this.clock = clock;
+    }
+    
+    @Override
+    public String next() {
+        return format(nextValue());
+    }
+    
+    long nextValue() {
+        int stripe = (int) Thread.currentThread().threadId() & (STRIPES - 1);
+        int slot = stripe * PADDING;
+        while (true) {
+            long last = ticks.get(slot);
+            long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+            long tick = now > last ? now : last + 1;
+            if (ticks.compareAndSet(slot, last, tick)) {
+                long millis = tick >>> SEQUENCE_BITS;
+                if (millis > MAX_TIMESTAMP) {
+                    throw new IllegalStateException("user id timestamp space exhausted");
+                }
+                return millis << TIMESTAMP_SHIFT
+                    | node << (SEQUENCE_BITS + STRIPE_BITS)
+                    | (long) stripe << SEQUENCE_BITS
+                    | tick & ((1 << SEQUENCE_BITS) - 1);
+            }
+        }
+    }
+    
+    // Fixed width, so string order is numeric order
+    static String format(long value) {
+        char[] chars = new char[PREFIX.length() + LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = DIGITS[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,391 @@
+package com.example.register.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.register.entity.User;
+import com.example.register.repository.UniqueKeys;
+import com.example.register.repository.UserRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bloom-filter pre-check for username/email/phone uniqueness.
+ *
+ * The filters answer "definitely absent" without touching the database; only
+ * "maybe present" answers fall through to the repository. Until the filters
+ * have been built every check goes to the repository, so the index is always
+ * safe to consult. Rows inserted by other nodes are picked up by a periodic
+ * catch-up scan on {@code createdAt}; the unique constraints on {@code users}
+ * remain the source of truth.
+ *
+ * A Bloom filter cannot forget a value, so values released by deleted
+ * accounts keep answering "maybe present" and push the false-positive rate
+ * up. The filters are therefore rebuilt from the table, and swapped in
+ * whole, once {@code rebuild-after-releases} values have been released on
+ * this node and every {@code rebuild-interval} for deletes made elsewhere.
+ */
+@Component
+public class UniquenessIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UniquenessIndex.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x55424C46;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int SCAN_PAGE_SIZE = 5_000;
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public enum Field {
+        USERNAME,
+        EMAIL,
+        PHONE
+    }
+
+    private final UserRepository userRepository;
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+    private final Path snapshotPath;
+    private final long rebuildAfterReleases;
+    private final Map<Field, FieldStats> stats = new EnumMap<>(Field.class);
+    private final AtomicLong released = new AtomicLong();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile Map<Field, BloomFilter> filters;
+    // Filters being rebuilt, which must see new users as well; null otherwise
+    private volatile Map<Field, BloomFilter> building;
+    private volatile boolean ready;
+    private volatile LocalDateTime syncedUpTo;
+
+    @Autowired
+    public UniquenessIndex(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${register.uniqueness.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${register.uniqueness.false-positive-probability:0.01}") double falsePositiveProbability,
+            @Value("${register.uniqueness.snapshot-path:}") String snapshotPath,
+            @Value("${register.uniqueness.rebuild-after-releases:10000}") long rebuildAfterReleases) {
+        this.userRepository = userRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.snapshotPath = snapshotPath == null || snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        this.rebuildAfterReleases = rebuildAfterReleases;
+
+        for (Field field : Field.values()) {
+            FieldStats fieldStats = new FieldStats();
+            stats.put(field, fieldStats);
+            String tag = field.name().toLowerCase();
+            Gauge.builder("register.uniqueness.bloom.false_positive_rate", fieldStats, FieldStats::falsePositiveRate)
+                .tag("field", tag)
+                .description("Share of truly-absent values the Bloom filter reported as maybe present")
+                .register(meterRegistry);
+            meterRegistry.more().counter("register.uniqueness.bloom.checks",
+                Tags.of("field", tag, "result", "absent"), fieldStats.absent);
+            meterRegistry.more().counter("register.uniqueness.bloom.checks",
+                Tags.of("field", tag, "result", "maybe_present"), fieldStats.maybePresent);
+            meterRegistry.more().counter("register.uniqueness.bloom.false_positives",
+                Tags.of("field", tag), fieldStats.falsePositives);
+        }
+    }
+
+    /**
+     * Returns whether {@code value} is already taken for {@code field}, asking
+     * {@code repositoryCheck} only when the filter cannot rule it out.
+     */
+    public boolean exists(Field field, String value, Predicate<String> repositoryCheck) {
+        if (!ready || value == null) {
+            return repositoryCheck.test(value);
+        }
+        FieldStats fieldStats = stats.get(field);
+        if (!filters.get(field).mightContain(value)) {
+            fieldStats.absent.increment();
+            return false;
+        }
+        fieldStats.maybePresent.increment();
+        boolean present = repositoryCheck.test(value);
+        if (!present) {
+            fieldStats.falsePositives.increment();
+        }
+        return present;
+    }
+
+    /**
+     * Set-based form of {@link #exists}: returns the subset of {@code values}
+     * already taken for {@code field}. Values the filter rules out are dropped
+     * before {@code repositoryCheck} runs one query for the rest.
+     */
+    public Set<String> existing(Field field, Collection<String> values,
+            Function<Collection<String>, Set<String>> repositoryCheck) {
+        if (!ready) {
+            return values.isEmpty() ? Set.of() : repositoryCheck.apply(values);
+        }
+        FieldStats fieldStats = stats.get(field);
+        BloomFilter filter = filters.get(field);
+        List<String> candidates = new ArrayList<>();
+        for (String value : values) {
+            if (filter.mightContain(value)) {
+                candidates.add(value);
+            } else {
+                fieldStats.absent.increment();
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        fieldStats.maybePresent.add(candidates.size());
+        Set<String> present = repositoryCheck.apply(candidates);
+        fieldStats.falsePositives.add(candidates.size() - present.size());
+        return present;
+    }
+
+    /**
+     * Whether {@code value} may be taken for {@code field}, without asking the
+     * repository or counting towards the filter statistics; always true until
+     * the filters have been built.
+     */
+    public boolean mightExist(Field field, String value) {
+        return !ready || filters.get(field).mightContain(value);
+    }
+
+    public void add(User user) {
+        Map<Field, BloomFilter> current = filters;
+        if (current != null) {
+            put(current, user.getUsername(), user.getEmail(), user.getPhone());
+        }
+        Map<Field, BloomFilter> next = building;
+        if (next != null) {
+            put(next, user.getUsername(), user.getEmail(), user.getPhone());
+        }
+        // A rebuild that swapped its filters in between the two reads above never showed them to this call.
+        // Callers add after commit, so a rebuild that had not started scanning yet will find the row itself.
+        Map<Field, BloomFilter> latest = filters;
+        if (latest != current && latest != next) {
+            put(latest, user.getUsername(), user.getEmail(), user.getPhone());
+        }
+    }
+
+    /**
+     * Records that {@code accounts} accounts were deleted, releasing their
+     * values, and rebuilds the filters on the calling thread once
+     * {@code rebuild-after-releases} have accumulated.
+     */
+    public void released(int accounts) {
+        if (released.addAndGet(accounts) >= rebuildAfterReleases) {
+            rebuild();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = loadSnapshot();
+        if (since == null) {
+            filters = newFilters();
+            since = BEGINNING;
+        }
+        long rows = scan(filters, since);
+        syncedUpTo = startedAt;
+        ready = true;
+        log.info("Uniqueness index ready: {} rows scanned since {} in {} ms",
+            rows, since, Duration.between(startedAt, LocalDateTime.now()).toMillis());
+        writeSnapshot();
+    }
+
+    @Scheduled(fixedDelayString = "${register.uniqueness.sync-interval:PT5S}",
+            initialDelayString = "${register.uniqueness.sync-interval:PT5S}")
+    public void sync() {
+        if (!ready) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        scan(filters, syncedUpTo.minus(SYNC_OVERLAP));
+        syncedUpTo = startedAt;
+    }
+
+    @Scheduled(fixedDelayString = "${register.uniqueness.rebuild-interval:P1D}",
+            initialDelayString = "${register.uniqueness.rebuild-interval:P1D}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Builds new filters from every row in the table and swaps them in, so
+     * values of deleted accounts are forgotten. Checks keep using the old
+     * filters meanwhile. Returns false, doing nothing, before warm-up or while
+     * another rebuild runs.
+     */
+    public boolean rebuild() {
+        if (!ready || !rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        long releasedBefore = released.getAndSet(0);
+        try {
+            Map<Field, BloomFilter> next = newFilters();
+            building = next;
+            long rows = scan(next, BEGINNING);
+            // Rows committed with a lower id while the scan was past it
+            scan(next, startedAt.minus(SYNC_OVERLAP));
+            filters = next;
+            log.info("Uniqueness index rebuilt after {} released values: {} rows in {} ms",
+                releasedBefore, rows, Duration.between(startedAt, LocalDateTime.now()).toMillis());
+        } catch (RuntimeException e) {
+            released.addAndGet(releasedBefore);
+            log.warn("Could not rebuild the uniqueness index, keeping the current filters", e);
+            return false;
+        } finally {
+            building = null;
+            rebuilding.set(false);
+        }
+        writeSnapshot();
+        return true;
+    }
+
+    @PreDestroy
+    public void writeSnapshot() {
+        if (snapshotPath == null || !ready) {
+            return;
+        }
+        Map<Field, BloomFilter> current = filters;
+        long size = 4 + 4 + 8 + 8 + 8;
+        for (BloomFilter filter : current.values()) {
+            size += 8 + 4 + filter.sizeInBytes();
+        }
+        try {
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, snapshotPath.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(SNAPSHOT_MAGIC);
+                buffer.putInt(SNAPSHOT_VERSION);
+                buffer.putLong(expectedInsertions);
+                buffer.putDouble(falsePositiveProbability);
+                buffer.putLong(syncedUpTo.toEpochSecond(ZoneOffset.UTC));
+                for (Field field : Field.values()) {
+                    BloomFilter filter = current.get(field);
+                    buffer.putLong(filter.numBits());
+                    buffer.putInt(filter.numHashes());
+                    filter.writeTo(buffer);
+                }
+                buffer.force();
+            }
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write uniqueness index snapshot to {}", snapshotPath, e);
+        }
+    }
+
+    // Returns the point in time the snapshot covers, or null when it is missing or unusable
+    private LocalDateTime loadSnapshot() {
+        if (snapshotPath == null || !Files.isRegularFile(snapshotPath)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_VERSION
+                    || buffer.getLong() != expectedInsertions
+                    || buffer.getDouble() != falsePositiveProbability) {
+                log.info("Ignoring uniqueness index snapshot {} written with different settings", snapshotPath);
+                return null;
+            }
+            LocalDateTime takenAt = LocalDateTime.ofEpochSecond(buffer.getLong(), 0, ZoneOffset.UTC);
+            Map<Field, BloomFilter> loaded = new EnumMap<>(Field.class);
+            for (Field field : Field.values()) {
+                long numBits = buffer.getLong();
+                int numHashes = buffer.getInt();
+                loaded.put(field, BloomFilter.readFrom(buffer, numBits, numHashes));
+            }
+            filters = loaded;
+            return takenAt.minus(SYNC_OVERLAP);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read uniqueness index snapshot {}, rebuilding from the database", snapshotPath, e);
+            return null;
+        }
+    }
+
+    private long scan(Map<Field, BloomFilter> target, LocalDateTime since) {
+        long afterId = 0;
+        long rows = 0;
+        List<UniqueKeys> page;
+        do {
+            page = userRepository.findUniqueKeys(afterId, since, PageRequest.of(0, SCAN_PAGE_SIZE));
+            for (UniqueKeys keys : page) {
+                put(target, keys.username(), keys.email(), keys.phone());
+                afterId = keys.id();
+            }
+            rows += page.size();
+        } while (page.size() == SCAN_PAGE_SIZE);
+        return rows;
+    }
+
+    private Map<Field, BloomFilter> newFilters() {
+        Map<Field, BloomFilter> created = new EnumMap<>(Field.class);
+        for (Field field : Field.values()) {
+            created.put(field, BloomFilter.create(expectedInsertions, falsePositiveProbability));
+        }
+        return created;
+    }
+
+    private static void put(Map<Field, BloomFilter> target, String username, String email, String phone) {
+        if (username != null) {
+            target.get(Field.USERNAME).put(username);
+        }
+        if (email != null) {
+            target.get(Field.EMAIL).put(email);
+        }
+        if (phone != null) {
+            target.get(Field.PHONE).put(phone);
+        }
+    }
+
+    private static final class FieldStats {
+        private final LongAdder absent = new LongAdder();
+        private final LongAdder maybePresent = new LongAdder();
+        private final LongAdder falsePositives = new LongAdder();
+
+        // False positives over all checks for values that turned out to be absent
+        double falsePositiveRate() {
+            long fp = falsePositives.sum();
+            long negatives = absent.sum() + fp;
+            return negatives == 0 ? 0.0 : (double) fp / negatives;
+        }
+    }
+}
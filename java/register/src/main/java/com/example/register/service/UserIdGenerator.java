@@ -0,0 +1,10 @@
+package com.example.register.service;
+
+/**
+ * Public user identifiers ({@code usr_...}). Implementations must never
+ * return the same id twice across every instance writing to the same table.
+ */
+public interface UserIdGenerator {
+    
+    String next();
+}
@@ -0,0 +1,148 @@
+package com.example.register.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.register.datasource.ReadRouting;
+import com.example.register.dto.RegisterResponse;
+import com.example.register.dto.UserResponse;
+import com.example.register.repository.UserRepository;
+import com.example.register.repository.UserStatusView;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Size-bounded near-cache of the public view of a user, for clients polling
+ * registration status right after sign-up. Concurrent misses for one user
+ * share a single query, and unknown ids are not cached, so a user becomes
+ * visible as soon as the registration commits. The query runs on the thread
+ * that missed first, outside the cache's bin lock, so a virtual thread
+ * waiting on JDBC neither pins its carrier nor blocks other keys; the other
+ * callers wait on its future.
+ *
+ * Whatever changes the view (dispatching the verification email, changing
+ * the status) calls {@link #invalidate}; the TTL bounds how stale other
+ * nodes' copies can be. Hit, miss and eviction counts are published as
+ * {@code cache.*} meters tagged {@code cache=register.users}.
+ *
+ * With read replicas, a view is loaded from a replica unless the user
+ * changed on this node within the read-your-writes window, and an unknown
+ * id is looked up again on the primary, since a replica can be behind a
+ * registration that just committed.
+ */
+@Component
+public class UserStatusCache {
+
+    /**
+     * @param etag strong entity tag derived from the fields that can change,
+     *             so every node computes the same tag for the same state
+     */
+    public record Entry(UserResponse response, String etag) {
+    }
+
+    private final UserRepository userRepository;
+    private final ReadRouting readRouting;
+    private final AsyncCache<String, Entry> cache;
+
+    @Autowired
+    public UserStatusCache(
+            UserRepository userRepository,
+            ReadRouting readRouting,
+            MeterRegistry meterRegistry,
+            @Value("${register.users.cache.max-size:100000}") long maxSize,
+            @Value("${register.users.cache.ttl:30s}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.readRouting = readRouting;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "register.users");
+    }
+
+    /**
+     * @return the user's view, or null when there is no such user
+     */
+    public Entry find(String userId) {
+        CompletableFuture<Entry> loading = new CompletableFuture<>();
+        CompletableFuture<Entry> future = cache.get(userId, (id, executor) -> loading);
+        if (future == loading) {
+            // A future completed with null is dropped from the cache, as is a failed one
+            try {
+                loading.complete(load(userId));
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private Entry load(String userId) {
+        boolean onPrimary = readRouting.writtenRecently(userId);
+        Optional<UserStatusView> view = onPrimary
+            ? readRouting.onPrimary(() -> userRepository.findStatusByUserId(userId))
+            : userRepository.findStatusByUserId(userId);
+        if (view.isEmpty() && !onPrimary && readRouting.hasReplicas()) {
+            view = readRouting.onPrimary(() -> userRepository.findStatusByUserId(userId));
+        }
+        return view.map(UserStatusCache::entry).orElse(null);
+    }
+
+    /**
+     * Drops the cached view now and, inside a transaction, again after it
+     * commits, so a concurrent miss cannot cache the state being replaced.
+     */
+    public void invalidate(String userId) {
+        readRouting.markWritten(userId);
+        cache.synchronous().invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.synchronous().invalidate(userId);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll(Collection<String> userIds) {
+        userIds.forEach(this::invalidate);
+    }
+
+    static Entry entry(UserStatusView view) {
+        UserResponse response = new UserResponse(
+            view.userId(),
+            view.status().name().toLowerCase(),
+            new RegisterResponse.VerificationInfo("email", view.sentAt()),
+            view.createdAt());
+        long sentAt = view.sentAt() == null ? 0 : micros(view.sentAt());
+        String etag = "\"" + view.status().ordinal() + "-" + Long.toString(sentAt, 36) + "\"";
+        return new Entry(response, etag);
+    }
+
+    private static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.register.service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.register.audit.AuditLog;
+import com.example.register.dto.VerifyResponse;
+import com.example.register.entity.User;
+import com.example.register.exception.ValidationException;
+import com.example.register.repository.UserRepository;
+import com.example.register.repository.UserStatusView;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Activates a pending account from its verification token. The token is
+ * checked in memory and the activation is one conditional UPDATE, so a
+ * verification costs a single write; the user row is read only when that
+ * UPDATE changes nothing, to tell a repeated click from a refused one.
+ */
+@Service
+public class VerificationService {
+    
+    private static final Map<String, String> NOT_ACTIVATABLE = Map.of(
+        "token", "This account cannot be activated");
+    
+    private final VerificationTokens verificationTokens;
+    private final UserRepository userRepository;
+    private final UserStatusCache userStatusCache;
+    private final AuditLog auditLog;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter activatedCounter;
+    
+    @Autowired
+    public VerificationService(VerificationTokens verificationTokens, UserRepository userRepository,
+            UserStatusCache userStatusCache, AuditLog auditLog, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.verificationTokens = verificationTokens;
+        this.userRepository = userRepository;
+        this.userStatusCache = userStatusCache;
+        this.auditLog = auditLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.activatedCounter = Counter.builder("register.verification.activated")
+            .description("Accounts activated from a verification token")
+            .register(meterRegistry);
+    }
+    
+    public VerifyResponse verify(String token) {
+        String userId;
+        try {
+            userId = verificationTokens.verify(token);
+        } catch (ValidationException e) {
+            auditLog.rejected(null, null, e.getErrorCode(), null);
+            throw e;
+        }
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        int activated = transactionTemplate.execute(status -> {
+            int updated = userRepository.activate(userId, now);
+            if (updated == 1) {
+                userStatusCache.invalidate(userId);
+            }
+            return updated;
+        });
+        if (activated == 1) {
+            activatedCounter.increment();
+            auditLog.verified(userId);
+            return response(userId, User.UserStatus.ACTIVE);
+        }
+        
+        // Already active (a second click) succeeds again; unknown or suspended accounts are refused
+        Optional<UserStatusView> current = userRepository.findStatusByUserId(userId);
+        if (current.isPresent() && current.get().status() == User.UserStatus.ACTIVE) {
+            return response(userId, User.UserStatus.ACTIVE);
+        }
+        auditLog.rejected(userId, null, "VERIFICATION_FAILED", null);
+        throw new ValidationException("VERIFICATION_FAILED", NOT_ACTIVATABLE);
+    }
+    
+    private static VerifyResponse response(String userId, User.UserStatus status) {
+        return new VerifyResponse(userId, status.name().toLowerCase());
+    }
+}
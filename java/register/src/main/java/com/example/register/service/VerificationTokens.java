@@ -0,0 +1,123 @@
+package com.example.register.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.example.register.exception.ValidationException;
+
+/**
+ * Self-contained email verification tokens:
+ * {@code <key id>.<base64url(expiry, userId)>.<base64url(HMAC-SHA256)>}.
+ *
+ * A token is checked with nothing but the keys in memory, so verifying costs
+ * no lookup. Tokens are signed with the first key; every listed key is
+ * accepted, so a new key is rolled out by putting it first and the old one
+ * is dropped once the tokens it signed have expired.
+ */
+public class VerificationTokens {
+
+    public static final int MIN_KEY_BYTES = 32;
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Map<String, String> INVALID = Map.of("token", "Verification link is invalid");
+    private static final Map<String, String> EXPIRED = Map.of("token", "Verification link has expired");
+
+    private final String signingKeyId;
+    private final Map<String, Mac> keys = new LinkedHashMap<>();
+    private final long ttlSeconds;
+    private final LongSupplier epochSeconds;
+
+    /**
+     * @param keys         key id to secret, signing key first; ids may not contain {@code '.'}
+     * @param ttl          how long a token stays valid after it is issued
+     * @param epochSeconds clock, {@code System.currentTimeMillis() / 1000} outside tests
+     */
+    public VerificationTokens(Map<String, byte[]> keys, Duration ttl, LongSupplier epochSeconds) {
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("at least one verification key is required");
+        }
+        for (Map.Entry<String, byte[]> key : keys.entrySet()) {
+            if (key.getKey().isEmpty() || key.getKey().indexOf('.') >= 0) {
+                throw new IllegalArgumentException("verification key id must be non-empty and contain no '.'");
+            }
+            if (key.getValue().length < MIN_KEY_BYTES) {
+                throw new IllegalArgumentException(
+                    "verification key " + key.getKey() + " must be at least " + MIN_KEY_BYTES + " bytes");
+            }
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(new SecretKeySpec(key.getValue(), ALGORITHM));
+                this.keys.put(key.getKey(), mac);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 is required by every Java platform", e);
+            }
+        }
+        this.signingKeyId = keys.keySet().iterator().next();
+        this.ttlSeconds = ttl.toSeconds();
+        this.epochSeconds = epochSeconds;
+    }
+
+    public String issue(String userId) {
+        byte[] id = userId.getBytes(StandardCharsets.UTF_8);
+        byte[] payload = ByteBuffer.allocate(Long.BYTES + id.length)
+            .putLong(epochSeconds.getAsLong() + ttlSeconds)
+            .put(id)
+            .array();
+        String body = signingKeyId + '.' + Base64.getUrlEncoder().withoutPadding().encodeToString(payload);
+        return body + '.' + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(keys.get(signingKeyId), body));
+    }
+
+    /**
+     * @return the user the token was issued for
+     * @throws ValidationException {@code TOKEN_INVALID} or {@code TOKEN_EXPIRED}
+     */
+    public String verify(String token) {
+        int first = token == null ? -1 : token.indexOf('.');
+        int last = token == null ? -1 : token.lastIndexOf('.');
+        if (first <= 0 || last == first) {
+            throw new ValidationException("TOKEN_INVALID", INVALID);
+        }
+        Mac key = keys.get(token.substring(0, first));
+        if (key == null) {
+            throw new ValidationException("TOKEN_INVALID", INVALID);
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = Base64.getUrlDecoder().decode(token.substring(first + 1, last));
+            signature = Base64.getUrlDecoder().decode(token.substring(last + 1));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("TOKEN_INVALID", INVALID);
+        }
+        if (payload.length <= Long.BYTES
+                || !MessageDigest.isEqual(sign(key, token.substring(0, last)), signature)) {
+            throw new ValidationException("TOKEN_INVALID", INVALID);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        if (buffer.getLong() < epochSeconds.getAsLong()) {
+            throw new ValidationException("TOKEN_EXPIRED", EXPIRED);
+        }
+        return new String(payload, Long.BYTES, payload.length - Long.BYTES, StandardCharsets.UTF_8);
+    }
+
+    // Mac is not thread-safe: sign with a copy of the initialized prototype
+    private static byte[] sign(Mac prototype, String body) {
+        Mac mac;
+        try {
+            mac = (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(ALGORITHM + " provider does not support cloning", e);
+        }
+        return mac.doFinal(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
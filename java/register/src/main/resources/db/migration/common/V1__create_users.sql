@@ -0,0 +1,28 @@
+-- Matches com.example.register.entity.User; Hibernate validates it at startup (ddl-auto=validate)
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE users (
+    id BIGINT NOT NULL,
+    user_id VARCHAR(255) NOT NULL,
+    full_name VARCHAR(255) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    phone VARCHAR(255) NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    dob DATE NOT NULL,
+    accept_terms BOOLEAN NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    verified_at TIMESTAMP(6),
+    idempotency_key VARCHAR(255),
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_user_id UNIQUE (user_id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_phone UNIQUE (phone),
+    CONSTRAINT ck_users_status CHECK (status IN ('PENDING_VERIFICATION', 'ACTIVE', 'SUSPENDED'))
+);
+
+-- The unique constraints above already index user_id, username, email and phone.
+-- UniquenessIndex catches up every few seconds on rows created since its last sync.
+CREATE INDEX idx_users_created_at ON users (created_at);
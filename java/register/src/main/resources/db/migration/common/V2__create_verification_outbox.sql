@@ -0,0 +1,22 @@
+-- Matches com.example.register.entity.OutboxMessage
+CREATE SEQUENCE verification_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE verification_outbox (
+    id BIGINT NOT NULL,
+    user_id VARCHAR(255) NOT NULL,
+    channel VARCHAR(255) NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    attempts INTEGER NOT NULL,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    sent_at TIMESTAMP(6),
+    last_error VARCHAR(1000),
+    CONSTRAINT pk_verification_outbox PRIMARY KEY (id),
+    CONSTRAINT ck_verification_outbox_status CHECK (status IN ('PENDING', 'SENT', 'FAILED'))
+);
+
+-- OutboxDispatcher: due PENDING messages
+CREATE INDEX idx_verification_outbox_due ON verification_outbox (status, next_attempt_at);
+-- Replays: max(sent_at) per user
+CREATE INDEX idx_verification_outbox_user_id ON verification_outbox (user_id);
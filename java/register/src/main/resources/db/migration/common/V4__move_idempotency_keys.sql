@@ -0,0 +1,24 @@
+-- Idempotency keys move out of users into their own table with an expiry (IdempotencyRecord),
+-- so the users table and its indexes only grow with accounts
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(255) NOT NULL,
+    fingerprint VARCHAR(64),
+    user_id VARCHAR(255) NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (idempotency_key),
+    CONSTRAINT ck_idempotency_keys_status CHECK (status IN ('PENDING_VERIFICATION', 'ACTIVE', 'SUSPENDED'))
+);
+
+-- IdempotencyPurger: keys with expires_at <= now
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
+
+-- Existing keys get the default register.idempotency.ttl; their fingerprint is unknown
+INSERT INTO idempotency_keys (idempotency_key, user_id, status, created_at, expires_at)
+SELECT idempotency_key, user_id, status, created_at, created_at + INTERVAL '1' DAY
+FROM users
+WHERE idempotency_key IS NOT NULL;
+
+DROP INDEX ux_users_idempotency_key;
+ALTER TABLE users DROP COLUMN idempotency_key;
@@ -0,0 +1,2 @@
+-- H2 has no partial indexes; NULLs are distinct, so keyless rows never conflict here either
+CREATE UNIQUE INDEX ux_users_idempotency_key ON users (idempotency_key);
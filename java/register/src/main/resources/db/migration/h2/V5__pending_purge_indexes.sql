@@ -0,0 +1,3 @@
+-- H2 has no partial indexes: lead with status instead
+CREATE INDEX idx_users_pending_created_at ON users (status, created_at, id);
+CREATE INDEX idx_idempotency_keys_user_id ON idempotency_keys (user_id);
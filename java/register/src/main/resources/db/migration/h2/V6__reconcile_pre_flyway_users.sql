@@ -0,0 +1,13 @@
+-- See the PostgreSQL migration: brings a users table created by ddl-auto=update in line with V1
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id DROP DEFAULT;
+
+-- BASE_VALUE is the next value the sequence returns
+ALTER SEQUENCE users_seq RESTART WITH (
+    SELECT GREATEST(COALESCE(MAX(id), 0) + 50,
+        (SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES
+         WHERE SEQUENCE_SCHEMA = CURRENT_SCHEMA AND SEQUENCE_NAME = 'USERS_SEQ'))
+    FROM users);
+
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users (created_at);
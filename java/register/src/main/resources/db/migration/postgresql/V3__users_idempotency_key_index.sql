@@ -0,0 +1,2 @@
+-- Lookups are always by a non-null key, so rows without one (the column is nullable) need no entry
+CREATE UNIQUE INDEX ux_users_idempotency_key ON users (idempotency_key) WHERE idempotency_key IS NOT NULL;
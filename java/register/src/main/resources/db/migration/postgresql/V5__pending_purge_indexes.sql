@@ -0,0 +1,4 @@
+-- PendingAccountReaper: keyset scan over pending accounts only, so verified rows are never walked
+CREATE INDEX idx_users_pending_created_at ON users (created_at, id) WHERE status = 'PENDING_VERIFICATION';
+-- PendingAccountReaper: idempotency records of purged users
+CREATE INDEX idx_idempotency_keys_user_id ON idempotency_keys (user_id);
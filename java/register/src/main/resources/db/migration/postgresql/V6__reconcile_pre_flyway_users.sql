@@ -0,0 +1,12 @@
+-- Databases created by ddl-auto=update before Flyway are baselined at version 1 (spring.flyway.baseline-on-migrate):
+-- their users table has an identity id, no users_seq and no created_at index. Bring them in line with V1;
+-- on databases V1 created every statement is a no-op.
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id DROP DEFAULT;
+
+-- Hibernate's pooled optimizer hands out (value - 49 .. value), so the next value must be at least max(id) + 50;
+-- never move the sequence back, instances may still hold blocks from it
+SELECT setval('users_seq', GREATEST(last_value, (SELECT COALESCE(MAX(id), 0) + 50 FROM users))) FROM users_seq;
+
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users (created_at);
@@ -0,0 +1,95 @@
+package com.example.register.audit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AuditLogTest {
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testStop_WritesEverythingRecordedBefore() throws IOException {
+        // Arrange
+        AuditLog auditLog = new AuditLog(meterRegistry, true, dir.toString(), 1024, DataSize.ofKilobytes(64),
+            Duration.ofSeconds(1));
+        Instant before = Instant.now();
+
+        // Act
+        auditLog.registered("usr_1", "key-1");
+        auditLog.replayed("usr_1", "key-1");
+        auditLog.rejected(null, "key-2", "VALIDATION_FAILED", Map.of("username", "Username already exists"));
+        auditLog.verified("usr_1");
+        auditLog.stop();
+
+        // Assert
+        List<AuditEvent> events = new ArrayList<>();
+        AuditSegmentReader.scan(dir, null, null, events::add);
+        assertEquals(List.of(AuditEvent.Type.REGISTERED, AuditEvent.Type.REPLAYED, AuditEvent.Type.REJECTED,
+            AuditEvent.Type.VERIFIED), events.stream().map(AuditEvent::type).toList());
+        assertEquals(List.of("username"), events.get(2).fields());
+        assertFalse(events.get(0).time().isBefore(before.minusMillis(1)));
+        assertEquals(4, meterRegistry.get("register.audit.written").counter().count());
+        assertTrue(meterRegistry.get("register.audit.fsync").timer().count() >= 1);
+    }
+
+    @Test
+    void testRecord_WrittenAfterWriterWentIdle() throws Exception {
+        // Arrange - long enough for the idle writer to back off to its longest park
+        AuditLog auditLog = new AuditLog(meterRegistry, true, dir.toString(), 1024, DataSize.ofKilobytes(64),
+            Duration.ZERO);
+        auditLog.registered("usr_1", null);
+        Thread.sleep(500);
+
+        // Act
+        auditLog.registered("usr_2", null);
+        auditLog.stop();
+
+        // Assert
+        List<AuditEvent> events = new ArrayList<>();
+        AuditSegmentReader.scan(dir, null, null, events::add);
+        assertEquals(List.of("usr_1", "usr_2"), events.stream().map(AuditEvent::userId).toList());
+        assertEquals(2, meterRegistry.get("register.audit.written").counter().count());
+    }
+
+    @Test
+    void testRecord_UnwritableDirectoryDropsWithoutThrowing() throws IOException {
+        // Arrange - a regular file where the directory should be
+        Path file = Files.createFile(dir.resolve("taken"));
+        AuditLog auditLog = new AuditLog(meterRegistry, true, file.toString(), 1024, DataSize.ofKilobytes(64),
+            Duration.ZERO);
+
+        // Act
+        auditLog.registered("usr_1", null);
+        auditLog.stop();
+
+        // Assert
+        assertEquals(1, meterRegistry.get("register.audit.dropped").tag("reason", "write_failed").counter().count());
+        assertEquals(0, meterRegistry.get("register.audit.written").counter().count());
+    }
+
+    @Test
+    void testDisabled_RecordsNothing() {
+        AuditLog auditLog = AuditLog.disabled();
+
+        auditLog.registered("usr_1", "key-1");
+        auditLog.stop();
+    }
+}
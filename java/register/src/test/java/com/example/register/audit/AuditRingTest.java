@@ -0,0 +1,103 @@
+package com.example.register.audit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class AuditRingTest {
+
+    @Test
+    void testDrain_InClaimOrder() {
+        // Arrange
+        AuditRing ring = new AuditRing(8);
+        ring.offer(1, AuditEvent.Type.REGISTERED, "usr_1", "key-1", null, null);
+        ring.offer(2, AuditEvent.Type.REJECTED, null, "key-2", "VALIDATION_FAILED", Set.of("email"));
+        List<String> drained = new ArrayList<>();
+
+        // Act
+        int count = ring.drain((micros, type, userId, key, code, fields) ->
+            drained.add(micros + " " + type + " " + userId + " " + key + " " + code + " " + fields), 10);
+
+        // Assert
+        assertEquals(2, count);
+        assertEquals(List.of("1 REGISTERED usr_1 key-1 null null", "2 REJECTED null key-2 VALIDATION_FAILED [email]"),
+            drained);
+        assertEquals(0, ring.backlog());
+    }
+
+    @Test
+    void testOffer_FullRingRefusesUntilDrained() {
+        // Arrange - rounded up to 4
+        AuditRing ring = new AuditRing(3);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i, AuditEvent.Type.VERIFIED, "usr_" + i, null, null, null));
+        }
+
+        // Act & Assert
+        assertFalse(ring.offer(4, AuditEvent.Type.VERIFIED, "usr_4", null, null, null));
+        assertEquals(4, ring.backlog());
+
+        assertEquals(1, ring.drain((micros, type, userId, key, code, fields) -> { }, 1));
+        assertTrue(ring.offer(5, AuditEvent.Type.VERIFIED, "usr_5", null, null, null));
+        assertEquals(4, ring.backlog());
+    }
+
+    @Test
+    void testOffer_ConcurrentProducersLoseNothingTheyWereToldWasQueued() throws InterruptedException {
+        // Arrange
+        int producers = 4;
+        int perProducer = 20_000;
+        AuditRing ring = new AuditRing(256);
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            String producer = "p" + p;
+            Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        if (ring.offer(i, AuditEvent.Type.REGISTERED, producer, null, null, null)) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        // Act - one consumer, as in AuditLog
+        long[] lastSeen = {-1, -1, -1, -1};
+        AtomicLong received = new AtomicLong();
+        AtomicInteger outOfOrder = new AtomicInteger();
+        AuditRing.Handler handler = (micros, type, userId, key, code, fields) -> {
+            int p = userId.charAt(1) - '0';
+            if (micros <= lastSeen[p]) {
+                outOfOrder.incrementAndGet();
+            }
+            lastSeen[p] = micros;
+            received.incrementAndGet();
+        };
+        start.countDown();
+        while (done.getCount() > 0) {
+            ring.drain(handler, 64);
+        }
+        ring.drain(handler, Integer.MAX_VALUE);
+
+        // Assert - each producer's accepted events arrive once and in its own order
+        assertEquals(accepted.get(), received.get());
+        assertEquals(0, outOfOrder.get());
+        assertEquals(0, ring.backlog());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.register.audit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AuditSegmentReaderTest {
+
+    private static final long T0 = Instant.parse("2026-10-16T00:00:00Z").toEpochMilli();
+
+    @TempDir
+    Path dir;
+
+    private final AtomicLong clock = new AtomicLong(T0);
+
+    @Test
+    void testScan_ReadsBackWhatWasAppended() throws IOException {
+        // Arrange
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(dir, AuditSegmentWriter.MIN_SEGMENT_SIZE, clock::get)) {
+            writer.append(micros(T0) + 1, AuditEvent.Type.REGISTERED, "usr_1", "key-1", null, null);
+            writer.append(micros(T0) + 2, AuditEvent.Type.REJECTED, null, "key-2", "VALIDATION_FAILED",
+                Set.of("phone", "email"));
+            writer.append(micros(T0) + 3, AuditEvent.Type.VERIFIED, "usr_1", null, null, Set.of());
+        }
+
+        // Act
+        List<AuditEvent> events = scan(null, null);
+
+        // Assert
+        assertEquals(3, events.size());
+        assertEquals(new AuditEvent(Instant.ofEpochMilli(T0).plusNanos(1_000), AuditEvent.Type.REGISTERED, "usr_1",
+            "key-1", null, List.of()), events.get(0));
+        assertEquals(List.of("email", "phone"), events.get(1).fields());
+        assertNull(events.get(1).userId());
+        assertEquals("VALIDATION_FAILED", events.get(1).errorCode());
+        assertEquals(AuditEvent.Type.VERIFIED, events.get(2).type());
+        assertEquals("2026-10-16T00:00:00.000002Z\tREJECTED\t-\tkey-2\tVALIDATION_FAILED\temail,phone",
+            AuditSegmentReader.format(events.get(1)));
+    }
+
+    @Test
+    void testAppend_RollsToNewSegmentWhenFull() throws IOException {
+        // Arrange - records of about 300 bytes, so a few hundred fill a minimal segment
+        String key = "k".repeat(AuditSegmentWriter.MAX_VALUE_CHARS + 100);
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(dir, AuditSegmentWriter.MIN_SEGMENT_SIZE, clock::get)) {
+            for (int i = 0; i < 1000; i++) {
+                writer.append(micros(T0) + i, AuditEvent.Type.REPLAYED, "usr_" + i, key, null, null);
+            }
+        }
+
+        // Act
+        List<AuditEvent> events = scan(null, null);
+
+        // Assert - same clock reading, so later segments take the following milliseconds as names
+        assertTrue(AuditSegmentReader.segments(dir).size() > 1);
+        assertEquals(1000, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals("usr_" + i, events.get(i).userId());
+        }
+        assertEquals(AuditSegmentWriter.MAX_VALUE_CHARS, events.get(0).idempotencyKey().length());
+    }
+
+    @Test
+    void testScan_OnlyEventsInRangeAndOnlySegmentsThatCanHoldThem() throws IOException {
+        // Arrange - three segments opened an hour apart, two events each
+        for (int hour = 0; hour < 3; hour++) {
+            clock.set(T0 + hour * 3_600_000L);
+            try (AuditSegmentWriter writer = new AuditSegmentWriter(dir, AuditSegmentWriter.MIN_SEGMENT_SIZE,
+                    clock::get)) {
+                writer.append(micros(clock.get()), AuditEvent.Type.REGISTERED, "usr_" + hour + "a", null, null, null);
+                writer.append(micros(clock.get() + 1_800_000), AuditEvent.Type.REGISTERED, "usr_" + hour + "b",
+                    null, null, null);
+            }
+        }
+        // The first segment ends before the range starts: it is skipped, so its content does not matter
+        Path first = AuditSegmentReader.segments(dir).get(0);
+        Files.write(first, new byte[] {1, 2, 3});
+
+        // Act
+        List<AuditEvent> events = scan(Instant.ofEpochMilli(T0 + 3_600_000L + 1_800_000),
+            Instant.ofEpochMilli(T0 + 2 * 3_600_000L + 1));
+
+        // Assert - from is inclusive, to exclusive
+        assertEquals(List.of("usr_1b", "usr_2a"), events.stream().map(AuditEvent::userId).toList());
+        assertThrows(IOException.class, () -> scan(null, null));
+    }
+
+    @Test
+    void testScan_IgnoresOtherFilesAndMissingDirectory() throws IOException {
+        // Arrange
+        Files.writeString(dir.resolve("notes.txt"), "not a segment");
+
+        // Act & Assert
+        assertEquals(List.of(), scan(null, null));
+        assertEquals(0, AuditSegmentReader.scan(dir.resolve("missing"), null, null, event -> { }));
+    }
+
+    private List<AuditEvent> scan(Instant from, Instant to) throws IOException {
+        List<AuditEvent> events = new ArrayList<>();
+        long count = AuditSegmentReader.scan(dir, from, to, events::add);
+        assertEquals(events.size(), count);
+        return events;
+    }
+
+    private static long micros(long epochMillis) {
+        return epochMillis * 1_000;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.register.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.register.RegisterApplication;
+
+/**
+ * Registration throughput and latency with platform request threads versus
+ * virtual threads, at a client concurrency well above Tomcat's 200 platform
+ * threads. Not part of the regular build; run it with
+ * {@code ./mvnw test -Pbenchmark}. Tune with {@code -Dbenchmark.concurrency},
+ * {@code -Dbenchmark.requests}, and point {@code -Dspring.datasource.url} at
+ * PostgreSQL for numbers that include real JDBC round trips.
+ */
+class ThreadModeBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 1000);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 20000);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("benchmark.warmup", 2000);
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+
+    @Test
+    void compareThreadModes() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%nRegistration at concurrency %d, %d requests%n", CONCURRENCY, REQUESTS);
+        System.out.printf("%-10s %12s %10s %10s %10s %8s%n", "mode", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        platform.print("platform");
+        virtual.print("virtual");
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(RegisterApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.jpa.show-sql=false",
+                "--register.hashing.queue-capacity=" + (CONCURRENCY * 2),
+                "--spring.datasource.hikari.maximum-pool-size=20",
+                "--spring.datasource.hikari.connection-timeout=2000",
+                "--logging.level.root=WARN")) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            // Each load gets its own digit so usernames, emails and phones never collide across runs
+            int run = virtualThreads ? 3 : 1;
+            load(port, run, WARMUP_REQUESTS);
+            return load(port, run + 1, REQUESTS);
+        }
+    }
+
+    private Result load(int port, int run, int requests) throws Exception {
+        URI uri = URI.create("http://localhost:" + port + "/api/v1/register");
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                int n = i;
+                inFlight.acquire();
+                executor.submit(() -> {
+                    try {
+                        HttpRequest request = HttpRequest.newBuilder(uri)
+                            .header("Content-Type", "application/json")
+                            .header("Idempotency-Key", "bench-" + run + "-" + n)
+                            .POST(HttpRequest.BodyPublishers.ofString(body(run, n)))
+                            .build();
+                        long sent = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[n] = System.nanoTime() - sent;
+                        if (response.statusCode() != 201) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return new Result(requests, System.nanoTime() - started, latencies, errors.get());
+    }
+
+    private static String body(int run, int n) {
+        return """
+            {"fullName": "Bench User", "username": "bench.%d.%d", "email": "bench.%d.%d@example.com",
+             "phone": "+66%d%08d", "password": "Pa$$w0rd2025!", "confirmPassword": "Pa$$w0rd2025!",
+             "dob": "1990-01-01", "acceptTerms": true}
+            """.formatted(run, n, run, n, run, n);
+    }
+
+    private record Result(int requests, long elapsedNanos, long[] latencies, int errors) {
+
+        void print(String mode) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            System.out.printf("%-10s %12.0f %10.1f %10.1f %10.1f %8d%n", mode,
+                requests / (elapsedNanos / 1e9), percentile(sorted, 0.50), percentile(sorted, 0.99),
+                sorted[sorted.length - 1] / 1e6, errors);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.register.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class ConnectionPoolCheckTest {
+
+    @Test
+    void testViolations_PoolFitsDatabase() {
+        // Act
+        List<String> violations = ConnectionPoolCheck.violations(20, 4, 97, true,
+            Duration.ofSeconds(2), Duration.ofSeconds(5));
+
+        // Assert
+        assertTrue(violations.isEmpty());
+    }
+
+    @Test
+    void testViolations_PoolsAcrossInstancesExceedDatabaseLimit() {
+        // Act
+        List<String> violations = ConnectionPoolCheck.violations(30, 4, 97, false,
+            Duration.ofSeconds(30), Duration.ofSeconds(5));
+
+        // Assert
+        assertEquals(1, violations.size());
+        assertTrue(violations.get(0).contains("exceeds the 97 connections"));
+    }
+
+    @Test
+    void testViolations_LongConnectionWaitWithVirtualThreads() {
+        // Act
+        List<String> violations = ConnectionPoolCheck.violations(10, 1, null, true,
+            Duration.ofSeconds(30), Duration.ofSeconds(5));
+
+        // Assert
+        assertEquals(1, violations.size());
+        assertTrue(violations.get(0).contains("connection-timeout 30000 ms"));
+    }
+}
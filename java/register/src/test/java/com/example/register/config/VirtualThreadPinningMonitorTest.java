@@ -0,0 +1,43 @@
+package com.example.register.config;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final Object lock = new Object();
+
+    @Test
+    void testMonitor_RecordsBlockingInsideSynchronized() throws Exception {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(1));
+        monitor.start();
+        try {
+            // Act - sleeping while holding a monitor pins the virtual thread to its carrier
+            Thread.ofVirtual().start(() -> {
+                synchronized (lock) {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }).join();
+
+            // Assert - JFR delivers events asynchronously, roughly once per second
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (meterRegistry.get("register.virtual_threads.pinned").timer().count() == 0
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+            assertTrue(meterRegistry.get("register.virtual_threads.pinned").timer().count() > 0);
+        } finally {
+            monitor.stop();
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package com.example.register.controller;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,15 +18,34 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.example.register.dto.ErrorResponse;
 import com.example.register.dto.RegisterRequest;
+import com.example.register.entity.IdempotencyRecord;
+import com.example.register.entity.OutboxMessage;
 import com.example.register.entity.User;
+import com.example.register.mail.MailTransport;
+import com.example.register.repository.IdempotencyRecordRepository;
+import com.example.register.repository.OutboxMessageRepository;
 import com.example.register.repository.UserRepository;
+import com.example.register.service.OutboxDispatcher;
+import com.example.register.service.RequestFingerprint;
+import com.example.register.service.UserStatusCache;
+import com.example.register.service.VerificationTokens;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @SpringBootTest
 @AutoConfigureMockMvc
 class RegisterControllerIntegrationTest {
@@ -33,8 +59,28 @@ class RegisterControllerIntegrationTest {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private OutboxMessageRepository outboxRepository;
+    
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRepository;
+    
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+    
+    @Autowired
+    private UserStatusCache userStatusCache;
+    
+    @Autowired
+    private VerificationTokens verificationTokens;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
     @BeforeEach
     void setUp() {
+        outboxRepository.deleteAll();
+        idempotencyRepository.deleteAll();
         userRepository.deleteAll();
     }
     
@@ -52,9 +98,93 @@ class RegisterControllerIntegrationTest {
                 .andExpect(jsonPath("$.userId", notNullValue()))
                 .andExpect(jsonPath("$.status", is("pending_verification")))
                 .andExpect(jsonPath("$.verification.channel", is("email")))
+                .andExpect(jsonPath("$.verification.sentAt", nullValue()));
+        
+        assertThat(outboxRepository.count(), is(1L));
+    }
+    
+    @Test
+    void testRegister_ReplayReportsDispatchedEmail() throws Exception {
+        // Arrange
+        RegisterRequest request = createValidRequest();
+        String idempotencyKey = "test-key-outbox";
+        mockMvc.perform(post("/api/v1/register")
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.verification.sentAt", nullValue()));
+        
+        // Act
+        assertThat(outboxDispatcher.dispatchPending(), is(1));
+        
+        // Assert
+        mockMvc.perform(post("/api/v1/register")
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.verification.sentAt", notNullValue()));
     }
     
+    @Test
+    void testDispatch_MessagePurgedWhileSendingDoesNotFailBatch() throws Exception {
+        // Arrange - one account is purged while its email is being sent
+        for (RegisterRequest request : List.of(
+                createRequest("purged.user", "purged@example.com", "+66811111111"),
+                createRequest("kept.user", "kept@example.com", "+66822222222"))) {
+            mockMvc.perform(post("/api/v1/register")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+        }
+        User purged = userRepository.findByEmail("purged@example.com").orElseThrow();
+        MailTransport purgingTransport = mails -> {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                userRepository.delete(purged);
+                outboxRepository.deleteOrphaned(List.of(purged.getUserId()));
+            });
+            return Map.of();
+        };
+        OutboxDispatcher dispatcher = new OutboxDispatcher(outboxRepository, purgingTransport, userStatusCache,
+            verificationTokens, transactionManager, new SimpleMeterRegistry(), "https://example.com/verify?token=",
+            false, 10, 8, Duration.ofSeconds(2), Duration.ofMinutes(10), Duration.ofMinutes(2));
+        
+        // Act
+        int delivered = dispatcher.dispatchPending();
+        
+        // Assert
+        assertThat(delivered, is(2));
+        List<OutboxMessage> left = outboxRepository.findAll();
+        assertThat(left.size(), is(1));
+        assertThat(left.get(0).getRecipient(), is("kept@example.com"));
+        assertThat(left.get(0).getStatus(), is(OutboxMessage.OutboxStatus.SENT));
+    }
+    
+    @Test
+    void testRegister_ReplayReportsCurrentStatus() throws Exception {
+        // Arrange - a key stored while the account was pending, not in the replay cache
+        RegisterRequest request = createValidRequest();
+        mockMvc.perform(post("/api/v1/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+        User user = userRepository.findByEmail(request.getEmail()).orElseThrow();
+        idempotencyRepository.save(IdempotencyRecord.of("test-key-stored", RequestFingerprint.of(request), user,
+            LocalDateTime.now().plusDays(1)));
+        user.setStatus(User.UserStatus.ACTIVE);
+        userRepository.save(user);
+        
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/register")
+                .header("Idempotency-Key", "test-key-stored")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.userId", is(user.getUserId())))
+                .andExpect(jsonPath("$.status", is("active")));
+    }
+    
     @Test
     void testRegister_Idempotency() throws Exception {
         // Arrange
@@ -85,6 +215,27 @@ class RegisterControllerIntegrationTest {
         assertEquals(firstResponse, secondResponse);
     }
     
+    @Test
+    void testRegister_IdempotencyKeyReusedForDifferentRequest() throws Exception {
+        // Arrange
+        String idempotencyKey = "test-key-reused";
+        mockMvc.perform(post("/api/v1/register")
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createValidRequest())))
+                .andExpect(status().isCreated());
+        
+        // Act & Assert - same key, someone else's details
+        mockMvc.perform(post("/api/v1/register")
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createRequest("other.user", "other@example.com", "+66811111111"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code", is("IDEMPOTENCY_KEY_REUSED")))
+                .andExpect(jsonPath("$.error.fields.idempotencyKey", notNullValue()));
+        assertThat(userRepository.count(), is(1L));
+    }
+    
     @Test
     void testRegister_ValidationErrors() throws Exception {
         // Arrange
@@ -108,6 +259,30 @@ class RegisterControllerIntegrationTest {
                 .andExpect(jsonPath("$.error.fields", notNullValue()));
     }
     
+    @Test
+    void testRegister_ValidationErrorBodyMatchesJackson() throws Exception {
+        // Arrange
+        RegisterRequest request = createValidRequest();
+        request.setFullName("A");
+        request.setEmail("invalid-email");
+        Map<String, String> fields = new HashMap<>();
+        fields.put("fullName", "Full name must be between 2 and 100 characters");
+        fields.put("email", "Enter a valid email address");
+        String expected = objectMapper.writeValueAsString(
+            new ErrorResponse(new ErrorResponse.ErrorDetail("VALIDATION_FAILED", fields)));
+        
+        // Act & Assert: the second response comes from the cached body
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/v1/register")
+                    .header("Idempotency-Key", "test-key-body-" + i)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(content().string(expected));
+        }
+    }
+    
     @Test
     void testRegister_PasswordMismatch() throws Exception {
         // Arrange
@@ -205,18 +380,142 @@ class RegisterControllerIntegrationTest {
         assertTrue(savedUser.getPassword().startsWith("$2a$") || savedUser.getPassword().startsWith("$2b$"));
     }
     
+    @Test
+    void testAvailability_ReportsRequestedFields() throws Exception {
+        // Arrange
+        RegisterRequest request = createValidRequest();
+        mockMvc.perform(post("/api/v1/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+        
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/register/availability")
+                .param("username", request.getUsername())
+                .param("email", "someone.new@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username", is("taken")))
+                .andExpect(jsonPath("$.email", is("available")))
+                .andExpect(jsonPath("$.phone").doesNotExist());
+    }
+    
+    @Test
+    void testAvailability_NothingToCheck() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/register/availability"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code", is("VALIDATION_FAILED")))
+                .andExpect(jsonPath("$.error.fields.query", notNullValue()));
+    }
+    
+    @Test
+    void testAvailability_ValueTooLongToRegister() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/register/availability")
+                .param("username", "u".repeat(256))
+                .param("email", "somkiat@example.com"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code", is("VALIDATION_FAILED")))
+                .andExpect(jsonPath("$.error.fields.username", notNullValue()))
+                .andExpect(jsonPath("$.error.fields.email").doesNotExist());
+    }
+    
     @Test
     void testRegister_MissingIdempotencyKey() throws Exception {
         // Arrange
         RegisterRequest request = createValidRequest();
         
-        // Act & Assert - Should succeed with auto-generated idempotency key
+        // Act & Assert - Should succeed without storing a key
         mockMvc.perform(post("/api/v1/register")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.userId", notNullValue()))
                 .andExpect(jsonPath("$.status", is("pending_verification")));
+        assertThat(idempotencyRepository.count(), is(0L));
+    }
+    
+    @Test
+    void testRegisterBatch_JsonArray() throws Exception {
+        // Arrange - second item reuses the first item's username
+        RegisterRequest first = createValidRequest();
+        RegisterRequest duplicate = createRequest("other.user", "other@example.com", "+66811111111");
+        duplicate.setUsername(first.getUsername());
+        RegisterRequest third = createRequest("third.user", "third@example.com", "+66822222222");
+        
+        // Act
+        MvcResult started = mockMvc.perform(post("/api/v1/register:batch")
+                .header("Idempotency-Key", "batch-key-001")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(first, duplicate, third))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(3)))
+                .andExpect(jsonPath("$[0].index", is(0)))
+                .andExpect(jsonPath("$[0].status", is(201)))
+                .andExpect(jsonPath("$[0].registration.status", is("pending_verification")))
+                .andExpect(jsonPath("$[1].status", is(400)))
+                .andExpect(jsonPath("$[1].error.fields.username", is("Username already exists")))
+                .andExpect(jsonPath("$[2].status", is(201)));
+        assertThat(userRepository.count(), is(2L));
+        assertThat(outboxRepository.count(), is(2L));
+    }
+    
+    @Test
+    void testRegisterBatch_NdjsonReplay() throws Exception {
+        // Arrange
+        String body = objectMapper.writeValueAsString(createValidRequest()) + "\n"
+            + objectMapper.writeValueAsString(createRequest("second.user", "second@example.com", "+66833333333")) + "\n";
+        
+        // Act - same batch sent twice with the same key
+        String firstResponse = registerBatchNdjson("batch-key-002", body);
+        String secondResponse = registerBatchNdjson("batch-key-002", body);
+        
+        // Assert
+        assertEquals(firstResponse, secondResponse);
+        assertThat(firstResponse.lines().count(), is(2L));
+        assertThat(userRepository.count(), is(2L));
+    }
+    
+    @Test
+    void testRegisterBatch_MalformedItemStopsStream() throws Exception {
+        // Arrange
+        String body = objectMapper.writeValueAsString(createValidRequest()) + "\n{\"dob\": \"not-a-date\"}\n";
+        
+        // Act
+        String response = registerBatchNdjson("batch-key-003", body);
+        
+        // Assert
+        List<String> lines = response.lines().toList();
+        assertThat(lines.size(), is(2));
+        assertThat(objectMapper.readTree(lines.get(0)).get("status").asInt(), is(201));
+        assertThat(objectMapper.readTree(lines.get(1)).get("error").get("code").asText(), is("MALFORMED_REQUEST"));
+    }
+    
+    private String registerBatchNdjson(String idempotencyKey, String body) throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/v1/register:batch")
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+    
+    private RegisterRequest createRequest(String username, String email, String phone) {
+        RegisterRequest request = createValidRequest();
+        request.setUsername(username);
+        request.setEmail(email);
+        request.setPhone(phone);
+        return request;
     }
     
     private RegisterRequest createValidRequest() {
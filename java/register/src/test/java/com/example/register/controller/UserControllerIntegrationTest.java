@@ -0,0 +1,226 @@
+package com.example.register.controller;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.register.dto.RegisterRequest;
+import com.example.register.dto.VerifyRequest;
+import com.example.register.entity.User;
+import com.example.register.repository.IdempotencyRecordRepository;
+import com.example.register.repository.OutboxMessageRepository;
+import com.example.register.repository.UserRepository;
+import com.example.register.service.OutboxDispatcher;
+import com.example.register.service.PendingAccountReaper;
+import com.example.register.service.VerificationTokens;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserControllerIntegrationTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private OutboxMessageRepository outboxRepository;
+    
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRepository;
+    
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+    
+    @Autowired
+    private VerificationTokens verificationTokens;
+    
+    @Autowired
+    private PendingAccountReaper pendingAccountReaper;
+    
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+        idempotencyRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+    
+    @Test
+    void testGetUser_ReturnsPublicView() throws Exception {
+        // Arrange
+        String userId = register();
+        
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/users/{userId}", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, notNullValue()))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(jsonPath("$.userId", is(userId)))
+                .andExpect(jsonPath("$.status", is("pending_verification")))
+                .andExpect(jsonPath("$.verification.channel", is("email")))
+                .andExpect(jsonPath("$.verification.sentAt", nullValue()))
+                .andExpect(jsonPath("$.createdAt", notNullValue()))
+                .andExpect(jsonPath("$.password").doesNotExist());
+    }
+    
+    @Test
+    void testGetUser_MatchingEtagIsNotModified() throws Exception {
+        // Arrange
+        String userId = register();
+        String etag = mockMvc.perform(get("/api/v1/users/{userId}", userId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/users/{userId}", userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+    
+    @Test
+    void testGetUser_DispatchChangesEtag() throws Exception {
+        // Arrange
+        String userId = register();
+        String etag = mockMvc.perform(get("/api/v1/users/{userId}", userId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        
+        // Act
+        assertThat(outboxDispatcher.dispatchPending(), is(1));
+        
+        // Assert - the dispatcher invalidated the cached view
+        String newEtag = mockMvc.perform(get("/api/v1/users/{userId}", userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.verification.sentAt", notNullValue()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newEtag, is(not(etag)));
+    }
+    
+    @Test
+    void testGetUser_UnknownUser() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/users/{userId}", "usr_unknown"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error.code", is("USER_NOT_FOUND")))
+                .andExpect(jsonPath("$.error.fields.userId", notNullValue()));
+    }
+    
+    @Test
+    void testVerify_ActivatesAccount() throws Exception {
+        // Arrange
+        String userId = register();
+        mockMvc.perform(get("/api/v1/users/{userId}", userId))
+                .andExpect(jsonPath("$.status", is("pending_verification")));
+        String token = verificationTokens.issue(userId);
+        
+        // Act & Assert
+        verify(token)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId", is(userId)))
+                .andExpect(jsonPath("$.status", is("active")));
+        
+        User user = userRepository.findByEmail("somkiat.p@example.com").orElseThrow();
+        assertThat(user.getStatus(), is(User.UserStatus.ACTIVE));
+        assertThat(user.getVerifiedAt(), notNullValue());
+        // The cached pending view was dropped
+        mockMvc.perform(get("/api/v1/users/{userId}", userId))
+                .andExpect(jsonPath("$.status", is("active")));
+        // A second click is still a success
+        verify(token)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("active")));
+    }
+    
+    @Test
+    void testVerify_InvalidToken() throws Exception {
+        // Arrange
+        String token = verificationTokens.issue(register());
+        
+        // Act & Assert
+        verify(token.substring(0, token.lastIndexOf('.') + 1) + "AAAA")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code", is("TOKEN_INVALID")));
+        verify(verificationTokens.issue("usr_unknown"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code", is("VERIFICATION_FAILED")));
+    }
+    
+    @Test
+    void testPendingPurge_DeletesUnverifiedAccountAndFreesIdentifiers() throws Exception {
+        // Arrange
+        String userId = register();
+        mockMvc.perform(get("/api/v1/register/availability").param("username", "somkiat.p"))
+                .andExpect(jsonPath("$.username", is("taken")));
+        
+        // Act - eight days later, with the default seven-day window
+        int purged = pendingAccountReaper.purgePending(LocalDateTime.now().plusDays(8));
+        
+        // Assert
+        assertThat(purged, is(1));
+        assertThat(userRepository.count(), is(0L));
+        assertThat(outboxRepository.count(), is(0L));
+        mockMvc.perform(get("/api/v1/users/{userId}", userId))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/register/availability").param("username", "somkiat.p"))
+                .andExpect(jsonPath("$.username", is("available")));
+    }
+    
+    @Test
+    void testPendingPurge_KeepsVerifiedAccount() throws Exception {
+        // Arrange
+        String userId = register();
+        verify(verificationTokens.issue(userId)).andExpect(status().isOk());
+        
+        // Act & Assert
+        assertThat(pendingAccountReaper.purgePending(LocalDateTime.now().plusDays(8)), is(0));
+        assertThat(userRepository.count(), is(1L));
+    }
+    
+    private ResultActions verify(String token) throws Exception {
+        return mockMvc.perform(post("/api/v1/verify")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new VerifyRequest(token))));
+    }
+    
+    private String register() throws Exception {
+        RegisterRequest request = new RegisterRequest();
+        request.setFullName("Somkiat Pui");
+        request.setUsername("somkiat.p");
+        request.setEmail("somkiat.p@example.com");
+        request.setPhone("+66812345678");
+        request.setPassword("Pa$$w0rd2025!");
+        request.setConfirmPassword("Pa$$w0rd2025!");
+        request.setDob(LocalDate.of(1995, 5, 10));
+        request.setAcceptTerms(true);
+        String body = mockMvc.perform(post("/api/v1/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("userId").asText();
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.register.datasource;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.example.register.dto.RegisterRequest;
+import com.example.register.dto.RegisterResponse;
+import com.example.register.repository.IdempotencyRecordRepository;
+import com.example.register.repository.OutboxMessageRepository;
+import com.example.register.repository.UserRepository;
+import com.example.register.service.RegisterService;
+import com.example.register.service.UserStatusCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Two local H2 databases: the usual test database as primary and an empty
+ * one with the same schema as its replica, never replicated to. Whatever a
+ * query finds tells which of the two it ran on.
+ */
+@SpringBootTest(properties = {
+    "register.datasource.replicas.enabled=true",
+    "register.datasource.replicas.urls=" + ReadReplicaIntegrationTest.REPLICA_URL,
+    "register.datasource.replicas.username=sa",
+    "register.datasource.replicas.password="
+})
+class ReadReplicaIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private JdbcTemplate primary;
+
+    @Autowired
+    private RegisterService registerService;
+
+    @Autowired
+    private UserStatusCache userStatusCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+            .dataSource(REPLICA_URL, "sa", "")
+            .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+            .load()
+            .migrate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+        idempotencyRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testRegister_InsertGoesToPrimary() {
+        // Act
+        registerService.register(request("replica.one", "+66810000001"), "replica-key-1");
+
+        // Assert
+        assertThat(count(primary), is(1));
+        assertThat(count(replica), is(0));
+    }
+
+    @Test
+    void testReadOnlyLookup_ReplicaUnlessThisThreadJustWrote() throws Exception {
+        // Arrange
+        registerService.register(request("replica.two", "+66810000002"), null);
+
+        // Act
+        boolean onWriter = userRepository.existsByUsername("replica.two");
+        boolean elsewhere = onFreshThread(() -> userRepository.existsByUsername("replica.two"));
+
+        // Assert - the replica never saw the row
+        assertThat(onWriter, is(true));
+        assertThat(elsewhere, is(false));
+        assertThat(reads("replica"), greaterThan(0.0));
+    }
+
+    @Test
+    void testUserLookup_MissOnReplicaIsReadFromPrimary() throws Exception {
+        // Arrange
+        RegisterResponse registered = registerService.register(request("replica.three", "+66810000003"), null);
+
+        // Act
+        UserStatusCache.Entry entry = onFreshThread(() -> userStatusCache.find(registered.getUserId()));
+
+        // Assert
+        assertThat(entry, notNullValue());
+        assertThat(entry.response().getUserId(), is(registered.getUserId()));
+    }
+
+    private double reads(String target) {
+        return meterRegistry.get("register.datasource.reads").tag("target", target).counters().stream()
+            .mapToDouble(counter -> counter.count()).sum();
+    }
+
+    private static int count(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("select count(*) from users", Integer.class);
+    }
+
+    // A thread that has not written, as another request would be
+    private static <T> T onFreshThread(Supplier<T> work) throws Exception {
+        return CompletableFuture.supplyAsync(work, runnable -> new Thread(runnable).start()).get();
+    }
+
+    private static RegisterRequest request(String username, String phone) {
+        RegisterRequest request = new RegisterRequest();
+        request.setFullName("Somkiat Pui");
+        request.setUsername(username);
+        request.setEmail(username + "@example.com");
+        request.setPhone(phone);
+        request.setPassword("Pa$$w0rd2025!");
+        request.setConfirmPassword("Pa$$w0rd2025!");
+        request.setDob(LocalDate.of(1995, 5, 10));
+        request.setAcceptTerms(true);
+        return request;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.register.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BooleanSupplier;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica1;
+
+    @Mock
+    private DataSource replica2;
+
+    @Mock
+    private Connection connection;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReadRouting readRouting = new ReadRouting(true, Duration.ofMinutes(1));
+
+    @Test
+    void testGetConnection_ReplicasInTurn() throws SQLException {
+        // Arrange
+        ReplicaRoutingDataSource dataSource = routing();
+        when(replica1.getConnection()).thenReturn(connection);
+        when(replica2.getConnection()).thenReturn(connection);
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            dataSource.getConnection();
+        }
+
+        // Assert
+        verify(replica1, times(2)).getConnection();
+        verify(replica2, times(2)).getConnection();
+        verify(primary, never()).getConnection();
+        assertEquals(4, reads("replica", "read_only"));
+    }
+
+    @Test
+    void testGetConnection_ThreadThatWroteReadsPrimary() throws Exception {
+        // Arrange - a read-write connection taken on this thread
+        ReplicaRoutingDataSource dataSource = routing();
+        when(primary.getConnection()).thenReturn(connection);
+        new WriteMarkingDataSource(primary, readRouting).getConnection();
+
+        // Act
+        dataSource.getConnection();
+        boolean otherThreadOnPrimary = onOtherThread(() -> readRouting.readFromPrimary());
+        dataSource.getConnection();
+
+        // Assert - the other thread did not write, so it would still read a replica
+        assertFalse(otherThreadOnPrimary);
+        verify(primary, times(3)).getConnection();
+        verify(replica1, never()).getConnection();
+        assertEquals(2, reads("primary", "read_your_writes"));
+    }
+
+    @Test
+    void testGetConnection_OnPrimaryOnlyInsideTheBlock() throws SQLException {
+        // Arrange
+        ReplicaRoutingDataSource dataSource = routing();
+        when(primary.getConnection()).thenReturn(connection);
+        when(replica1.getConnection()).thenReturn(connection);
+
+        // Act
+        Connection inside = readRouting.onPrimary(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        dataSource.getConnection();
+
+        // Assert
+        assertSame(connection, inside);
+        verify(primary).getConnection();
+        verify(replica1).getConnection();
+    }
+
+    @Test
+    void testGetConnection_UnavailableReplicaFailsOverToPrimary() throws SQLException {
+        // Arrange
+        ReplicaRoutingDataSource dataSource = routing();
+        when(replica1.getConnection()).thenThrow(new SQLException("Connection is not available"));
+        when(primary.getConnection()).thenReturn(connection);
+
+        // Act
+        Connection result = dataSource.getConnection();
+
+        // Assert
+        assertSame(connection, result);
+        assertEquals(1, reads("primary", "replica_unavailable"));
+        assertEquals(0, reads("replica", "read_only"));
+    }
+
+    @Test
+    void testReadRouting_WithoutReplicasNothingIsTracked() {
+        ReadRouting withoutReplicas = new ReadRouting(false, Duration.ofMinutes(1));
+
+        withoutReplicas.markWritten("usr_1");
+
+        assertFalse(withoutReplicas.writtenRecently("usr_1"));
+        readRouting.markWritten("usr_1");
+        assertTrue(readRouting.writtenRecently("usr_1"));
+    }
+
+    private ReplicaRoutingDataSource routing() {
+        return new ReplicaRoutingDataSource(primary, List.of(replica1, replica2), readRouting, meterRegistry);
+    }
+
+    private double reads(String target, String reason) {
+        return meterRegistry.get("register.datasource.reads").tag("target", target).tag("reason", reason)
+            .counter().count();
+    }
+
+    private static boolean onOtherThread(BooleanSupplier check)
+            throws InterruptedException, ExecutionException {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        Thread thread = new Thread(() -> result.complete(check.getAsBoolean()));
+        thread.start();
+        return result.get();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.register.importer;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.register.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+class BulkImportRunnerTest {
+    
+    @Autowired
+    private BulkImportRunner bulkImportRunner;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testImportFile_NdjsonWithRejectsAndResume() throws Exception {
+        // Arrange - valid, password mismatch, malformed, valid
+        Path file = tempDir.resolve("legacy-users.ndjson");
+        Files.writeString(file, String.join("\n",
+            record("import.one", "import.one@example.com", "+66900000001", "Pa$$w0rd2025!"),
+            record("import.two", "import.two@example.com", "+66900000002", "Mismatch2025!"),
+            "{\"username\": ",
+            record("import.three", "import.three@example.com", "+66900000003", "Pa$$w0rd2025!")) + "\n",
+            StandardCharsets.UTF_8);
+        
+        // Act
+        BulkImportRunner.ImportSummary summary = bulkImportRunner.importFile(file);
+        BulkImportRunner.ImportSummary rerun = bulkImportRunner.importFile(file);
+        
+        // Assert
+        assertEquals(4, summary.records());
+        assertEquals(2, summary.imported());
+        assertEquals(2, summary.rejected());
+        assertEquals(Files.size(file), summary.nextOffset());
+        assertEquals(0, rerun.records());
+        assertTrue(userRepository.findByEmail("import.three@example.com").isPresent());
+        
+        List<String> rejects = Files.readAllLines(tempDir.resolve("legacy-users.ndjson.rejects.ndjson"));
+        assertEquals(2, rejects.size());
+        JsonNode mismatch = objectMapper.readTree(rejects.get(0));
+        assertEquals("VALIDATION_FAILED", mismatch.get("error").get("code").asText());
+        assertEquals("Passwords do not match", mismatch.get("error").get("fields").get("confirmPassword").asText());
+        assertEquals("MALFORMED_REQUEST", objectMapper.readTree(rejects.get(1)).get("error").get("code").asText());
+        assertTrue(rejects.stream().noneMatch(line -> line.contains("Pa$$w0rd2025!")));
+    }
+    
+    @Test
+    void testImportFile_Csv() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("legacy-users.csv");
+        Files.writeString(file, String.join("\n",
+            "fullName,username,email,phone,password,confirmPassword,dob,acceptTerms",
+            "\"Pui, Somkiat\",csv.one,csv.one@example.com,+66910000001,Pa$$w0rd2025!,Pa$$w0rd2025!,1995-05-10,true",
+            "Csv Two,csv.two,csv.two@example.com,+66910000002,Pa$$w0rd2025!,Pa$$w0rd2025!,1995-05-10,true"),
+            StandardCharsets.UTF_8);
+        
+        // Act
+        BulkImportRunner.ImportSummary summary = bulkImportRunner.importFile(file);
+        
+        // Assert
+        assertEquals(2, summary.imported());
+        assertEquals(0, summary.rejected());
+        assertEquals("Pui, Somkiat", userRepository.findByEmail("csv.one@example.com").orElseThrow().getFullName());
+    }
+    
+    private String record(String username, String email, String phone, String confirmPassword) throws Exception {
+        return objectMapper.writeValueAsString(Map.of(
+            "fullName", "Imported User",
+            "username", username,
+            "email", email,
+            "phone", phone,
+            "password", "Pa$$w0rd2025!",
+            "confirmPassword", confirmPassword,
+            "dob", "1990-01-01",
+            "acceptTerms", true));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.register.importer;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedLineReaderTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testRead_LinesSpanningWindowBoundaries() throws Exception {
+        // Arrange - a 16-byte window forces several remaps
+        Path file = tempDir.resolve("users.ndjson");
+        Files.writeString(file, "alpha\r\nbeta\n\ngamma-delta\nlast", StandardCharsets.UTF_8);
+        
+        // Act
+        List<MappedLineReader.Line> lines = readAll(file, 0, 16);
+        
+        // Assert
+        assertEquals(List.of("alpha", "beta", "", "gamma-delta", "last"), lines.stream().map(MappedLineReader.Line::text).toList());
+        assertEquals(7, lines.get(1).offset());
+        assertEquals(Files.size(file), lines.get(4).nextOffset());
+    }
+    
+    @Test
+    void testRead_ResumesFromOffset() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("users.ndjson");
+        Files.writeString(file, "first\nsecond\nthird\n", StandardCharsets.UTF_8);
+        long resumeAt = readAll(file, 0, 1024).get(0).nextOffset();
+        
+        // Act
+        List<MappedLineReader.Line> lines = readAll(file, resumeAt, 1024);
+        
+        // Assert
+        assertEquals(List.of("second", "third"), lines.stream().map(MappedLineReader.Line::text).toList());
+    }
+    
+    @Test
+    void testRead_LineLongerThanWindowFails() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("users.ndjson");
+        Files.writeString(file, "a-line-that-does-not-fit\n", StandardCharsets.UTF_8);
+        
+        // Act & Assert
+        assertThrows(UncheckedIOException.class, () -> readAll(file, 0, 8));
+    }
+    
+    private static List<MappedLineReader.Line> readAll(Path file, long offset, int window) throws Exception {
+        List<MappedLineReader.Line> lines = new ArrayList<>();
+        try (MappedLineReader reader = new MappedLineReader(file, offset, window)) {
+            reader.forEachRemaining(lines::add);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.register.mail;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import jakarta.mail.internet.MimeMessage;
+
+class SmtpMailTransportTest {
+    
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+    
+    @Test
+    void testSend_DeliversBatch() throws Exception {
+        // Arrange
+        SmtpMailTransport transport = new SmtpMailTransport(mailSender(ServerSetupTest.SMTP.getPort()), "no-reply@example.com");
+        List<OutgoingMail> batch = List.of(
+            new OutgoingMail(1L, "somkiat.p@example.com", "Verify your account", "Welcome!"),
+            new OutgoingMail(2L, "nattapong@example.com", "Verify your account", "Welcome!"));
+        
+        // Act
+        Map<Long, String> failures = transport.send(batch);
+        
+        // Assert
+        assertTrue(failures.isEmpty());
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(2, received.length);
+        assertEquals("Verify your account", received[0].getSubject());
+        assertEquals("Welcome!", GreenMailUtil.getBody(received[0]));
+    }
+    
+    @Test
+    void testSend_ReportsEveryMessageWhenServerIsDown() {
+        // Arrange - nothing listens on this port
+        SmtpMailTransport transport = new SmtpMailTransport(mailSender(1), "no-reply@example.com");
+        List<OutgoingMail> batch = List.of(
+            new OutgoingMail(1L, "somkiat.p@example.com", "Verify your account", "Welcome!"),
+            new OutgoingMail(2L, "nattapong@example.com", "Verify your account", "Welcome!"));
+        
+        // Act
+        Map<Long, String> failures = transport.send(batch);
+        
+        // Assert
+        assertEquals(2, failures.size());
+    }
+    
+    private static JavaMailSenderImpl mailSender(int port) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+        return mailSender;
+    }
+}
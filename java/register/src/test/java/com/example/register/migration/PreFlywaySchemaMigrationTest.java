@@ -0,0 +1,104 @@
+package com.example.register.migration;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * A database created by the baseline's ddl-auto=update (identity id, no
+ * users_seq, idempotency_key on users) migrated with the application's
+ * Flyway settings.
+ */
+class PreFlywaySchemaMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:pre-flyway;DB_CLOSE_DELAY=-1";
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""));
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        // As Hibernate created it for the baseline User entity
+        jdbcTemplate.execute("""
+            CREATE TABLE users (
+                id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+                accept_terms BOOLEAN NOT NULL,
+                created_at TIMESTAMP(6) NOT NULL,
+                dob DATE NOT NULL,
+                email VARCHAR(255) NOT NULL UNIQUE,
+                full_name VARCHAR(255) NOT NULL,
+                idempotency_key VARCHAR(255) UNIQUE,
+                password_hash VARCHAR(255) NOT NULL,
+                phone VARCHAR(255) NOT NULL UNIQUE,
+                status VARCHAR(255) NOT NULL CHECK (status IN ('PENDING_VERIFICATION', 'ACTIVE', 'SUSPENDED')),
+                user_id VARCHAR(255) NOT NULL UNIQUE,
+                username VARCHAR(255) NOT NULL UNIQUE,
+                verified_at TIMESTAMP(6),
+                PRIMARY KEY (id)
+            )""");
+        for (int i = 1; i <= 3; i++) {
+            jdbcTemplate.update("""
+                INSERT INTO users (accept_terms, created_at, dob, email, full_name, idempotency_key, password_hash,
+                    phone, status, user_id, username)
+                VALUES (TRUE, CURRENT_TIMESTAMP, DATE '1995-05-10', ?, 'Somkiat Pui', ?, 'hash', ?,
+                    'PENDING_VERIFICATION', ?, ?)""",
+                "user" + i + "@example.com", i == 1 ? "key-1" : null, "+6681000000" + i, "usr_" + i, "user" + i);
+        }
+    }
+
+    @Test
+    void testMigrate_BaselinesAndReconcilesExistingUsers() {
+        // Act
+        migrate();
+
+        // Assert - ids handed out by the sequence start past the existing rows
+        long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR users_seq", Long.class);
+        assertTrue(next - 49 > 3, "next block starts at " + (next - 49));
+        assertEquals("NO", jdbcTemplate.queryForObject(
+            "SELECT is_identity FROM information_schema.columns WHERE table_name = 'USERS' AND column_name = 'ID'",
+            String.class));
+        assertEquals(List.of("usr_1"), jdbcTemplate.queryForList(
+            "SELECT user_id FROM idempotency_keys WHERE idempotency_key = 'key-1'", String.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM information_schema.columns WHERE table_name = 'USERS'"
+                + " AND column_name = 'IDEMPOTENCY_KEY'", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM information_schema.indexes WHERE index_name = 'IDX_USERS_CREATED_AT'",
+            Integer.class));
+    }
+
+    @Test
+    void testMigrate_NeverMovesTheSequenceBack() {
+        // Arrange - a fresh database that has handed out blocks beyond max(id)
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        migrate();
+        for (int i = 0; i < 10; i++) {
+            jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR users_seq", Long.class);
+        }
+        long last = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR users_seq", Long.class);
+
+        // Act - V6 again, as on a database V1 created
+        jdbcTemplate.update("DELETE FROM \"flyway_schema_history\" WHERE \"version\" = '6'");
+        migrate();
+
+        // Assert
+        assertTrue(jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR users_seq", Long.class) > last);
+    }
+
+    // Same settings as application.properties
+    private static void migrate() {
+        Flyway.configure()
+            .dataSource(URL, "sa", "")
+            .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+            .baselineOnMigrate(true)
+            .baselineVersion("1")
+            .load()
+            .migrate();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.register.ratelimit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RateLimitFilterTest {
+
+    private record Result(boolean passed, MockHttpServletResponse response) {
+    }
+
+    // Frozen clock: nothing refills during a test
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testDoFilter_RejectsOverLimitBeforeChain() throws Exception {
+        // Arrange: one request per second per client
+        RateLimitFilter filter = filter("", 0);
+        assertTrue(send(filter, "POST", "10.0.0.1", null, null).passed());
+
+        // Act
+        Result result = send(filter, "POST", "10.0.0.1", null, null);
+
+        // Assert
+        assertFalse(result.passed());
+        assertEquals(429, result.response().getStatus());
+        assertEquals("1", result.response().getHeader("Retry-After"));
+        assertEquals("{\"error\":{\"code\":\"RATE_LIMITED\",\"fields\":{\"message\":"
+            + "\"Too many registration attempts, please retry later\"}}}",
+            new String(result.response().getContentAsByteArray(), StandardCharsets.UTF_8));
+        assertEquals(1, meterRegistry.get("register.rate_limit.rejected").tag("key", "address").counter().count());
+    }
+
+    @Test
+    void testDoFilter_ApiKeyHasItsOwnBucket() throws Exception {
+        RateLimitFilter filter = filter("X-API-Key", 0);
+        send(filter, "POST", "10.0.0.1", null, null);
+
+        assertTrue(send(filter, "POST", "10.0.0.1", "partner-1", null).passed());
+        assertFalse(send(filter, "POST", "10.0.0.2", "partner-1", null).passed());
+        assertEquals(1, meterRegistry.get("register.rate_limit.rejected").tag("key", "api_key").counter().count());
+    }
+
+    @Test
+    void testDoFilter_UnknownApiKeysShareTheAddressBucket() throws Exception {
+        RateLimitFilter filter = filter("X-API-Key", 0);
+        assertTrue(send(filter, "POST", "10.0.0.1", "rotated-1", null).passed());
+
+        // Act: a new made-up key per request
+        Result result = send(filter, "POST", "10.0.0.1", "rotated-2", null);
+
+        // Assert
+        assertFalse(result.passed());
+        assertEquals(1, meterRegistry.get("register.rate_limit.rejected").tag("key", "address").counter().count());
+        assertEquals(1.0, meterRegistry.get("register.rate_limit.clients").gauge().value());
+    }
+
+    @Test
+    void testDoFilter_IdempotencyPrefixSplitsAddress() throws Exception {
+        RateLimitFilter filter = filter("", 7);
+
+        assertTrue(send(filter, "POST", "10.0.0.1", null, "tenantA-1").passed());
+        assertTrue(send(filter, "POST", "10.0.0.1", null, "tenantB-1").passed());
+        assertFalse(send(filter, "POST", "10.0.0.1", null, "tenantA-2").passed());
+    }
+
+    @Test
+    void testDoFilter_RotatingPrefixesStayWithinTheAddressLimit() throws Exception {
+        // Arrange: the address may spend two clients' worth
+        RateLimitFilter filter = filter("", 7);
+        assertTrue(send(filter, "POST", "10.0.0.1", null, "rotate1-x").passed());
+        assertTrue(send(filter, "POST", "10.0.0.1", null, "rotate2-x").passed());
+
+        // Act
+        Result result = send(filter, "POST", "10.0.0.1", null, "rotate3-x");
+
+        // Assert
+        assertFalse(result.passed());
+        assertTrue(send(filter, "POST", "10.0.0.2", null, "rotate3-x").passed());
+    }
+
+    @Test
+    void testDoFilter_OnlyLimitsPost() throws Exception {
+        RateLimitFilter filter = filter("", 0);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(send(filter, "GET", "10.0.0.1", null, null).passed());
+        }
+    }
+
+    private RateLimitFilter filter(String apiKeyHeader, int idempotencyPrefixLength) throws Exception {
+        TokenBucketTable buckets = new TokenBucketTable(1, 1, 100, 4, clock::get);
+        TokenBucketTable addressBuckets = new TokenBucketTable(2, 2, 100, 4, clock::get);
+        return new RateLimitFilter(buckets, addressBuckets, apiKeyHeader, Set.of("partner-1"), idempotencyPrefixLength,
+            new ObjectMapper(), meterRegistry);
+    }
+
+    private static Result send(RateLimitFilter filter, String method, String address, String apiKey,
+            String idempotencyKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/v1/register");
+        request.setRemoteAddr(address);
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        if (idempotencyKey != null) {
+            request.addHeader("Idempotency-Key", idempotencyKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        return new Result(chain.getRequest() != null, response);
+    }
+}
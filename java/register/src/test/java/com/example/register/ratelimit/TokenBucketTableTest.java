@@ -0,0 +1,67 @@
+package com.example.register.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTableTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void testTryAcquire_BurstThenRate() {
+        // Arrange: 2 per second, burst of 3
+        TokenBucketTable table = new TokenBucketTable(2, 3, 100, 4, clock::get);
+
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, table.tryAcquire("10.0.0.1"));
+        }
+        long wait = table.tryAcquire("10.0.0.1");
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), wait);
+
+        clock.addAndGet(wait);
+        assertEquals(0, table.tryAcquire("10.0.0.1"));
+        assertTrue(table.tryAcquire("10.0.0.1") > 0);
+    }
+
+    @Test
+    void testTryAcquire_ClientsHaveSeparateBuckets() {
+        TokenBucketTable table = new TokenBucketTable(1, 1, 100, 4, clock::get);
+
+        assertEquals(0, table.tryAcquire("10.0.0.1"));
+        assertTrue(table.tryAcquire("10.0.0.1") > 0);
+        assertEquals(0, table.tryAcquire("10.0.0.2"));
+    }
+
+    @Test
+    void testEvictIdle_DropsOnlyRefilledBuckets() {
+        TokenBucketTable table = new TokenBucketTable(1, 2, 100, 4, clock::get);
+        table.tryAcquire("idle");
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        table.tryAcquire("busy");
+        table.tryAcquire("busy");
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        assertEquals(1, table.evictIdle());
+        assertEquals(1, table.size());
+
+        // Still limited: its state was kept
+        assertTrue(table.tryAcquire("busy") > 0);
+    }
+
+    @Test
+    void testTryAcquire_FullStripeSharesOverflowBucket() {
+        // One stripe of two clients, none idle
+        TokenBucketTable table = new TokenBucketTable(1, 1, 2, 1, clock::get);
+        table.tryAcquire("a");
+        table.tryAcquire("b");
+
+        assertEquals(0, table.tryAcquire("c"));
+        assertTrue(table.tryAcquire("d") > 0);
+        assertEquals(2, table.size());
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.register.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import com.example.register.repository.UniqueKeys;
+import com.example.register.repository.UserRepository;
+import com.example.register.service.AvailabilityChecker.Availability;
+import com.example.register.service.UniquenessIndex.Field;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityCheckerTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UniquenessIndex uniquenessIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findUniqueKeys(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(List.of(new UniqueKeys(1L, "somkiat.p", "somkiat.p@example.com", "+66812345678")));
+        uniquenessIndex = new UniquenessIndex(userRepository, meterRegistry, 1000, 0.01, "", 1000);
+        uniquenessIndex.warmUp();
+    }
+
+    @Test
+    void testCheck_IndexAnswersNewValuesWithoutQuery() {
+        // Arrange
+        AvailabilityChecker checker = checker(4);
+
+        // Act & Assert
+        assertEquals(Availability.AVAILABLE, checker.check(Field.USERNAME, "someone.new"));
+        assertNull(checker.check(Field.EMAIL, null));
+        verify(userRepository, never()).existsByUsername(any());
+        assertEquals(1, checks("username", "index"));
+    }
+
+    @Test
+    void testCheck_TakenValueQueriedOnceThenCached() {
+        // Arrange
+        when(userRepository.existsByEmail("somkiat.p@example.com")).thenReturn(true);
+        AvailabilityChecker checker = checker(4);
+
+        // Act
+        Availability first = checker.check(Field.EMAIL, "somkiat.p@example.com");
+        Availability second = checker.check(Field.EMAIL, "somkiat.p@example.com");
+
+        // Assert
+        assertEquals(Availability.TAKEN, first);
+        assertEquals(Availability.TAKEN, second);
+        verify(userRepository, times(1)).existsByEmail("somkiat.p@example.com");
+        assertEquals(1, checks("email", "database"));
+        assertEquals(1, checks("email", "cache"));
+    }
+
+    @Test
+    void testCheck_FalsePositiveCachedAsAvailable() {
+        // Arrange - the filter still holds a value whose account is gone
+        when(userRepository.existsByPhone("+66812345678")).thenReturn(false);
+        AvailabilityChecker checker = checker(4);
+
+        // Act & Assert
+        assertEquals(Availability.AVAILABLE, checker.check(Field.PHONE, "+66812345678"));
+        assertEquals(Availability.AVAILABLE, checker.check(Field.PHONE, "+66812345678"));
+        verify(userRepository, times(1)).existsByPhone("+66812345678");
+    }
+
+    @Test
+    void testCheck_ShedsInsteadOfQueryingWhenLookupsAreBusy() {
+        // Arrange
+        AvailabilityChecker checker = checker(0);
+
+        // Act & Assert
+        assertEquals(Availability.UNKNOWN, checker.check(Field.USERNAME, "somkiat.p"));
+        verify(userRepository, never()).existsByUsername(any());
+        assertEquals(1, checks("username", "shed"));
+    }
+
+    private AvailabilityChecker checker(int maxConcurrentLookups) {
+        return new AvailabilityChecker(uniquenessIndex, userRepository, meterRegistry, 100,
+            Duration.ofMinutes(10), Duration.ofSeconds(5), maxConcurrentLookups);
+    }
+
+    private double checks(String field, String source) {
+        return meterRegistry.get("register.availability.checks").tag("field", field).tag("source", source)
+            .counter().count();
+    }
+}
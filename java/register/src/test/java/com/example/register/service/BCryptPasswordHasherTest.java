@@ -0,0 +1,67 @@
+package com.example.register.service;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class BCryptPasswordHasherTest {
+    
+    private static final long MILLIS = 1_000_000L;
+    
+    @Test
+    void testSelectCost_HighestCostWithinBudget() {
+        // Arrange - 10 ms at cost 4, doubling with every step
+        long budget = 250 * MILLIS;
+        
+        // Act
+        int cost = BCryptPasswordHasher.selectCost(4, 14, budget, c -> (10 * MILLIS) << (c - 4));
+        
+        // Assert - cost 8 takes 160 ms, cost 9 would take 320 ms
+        assertEquals(8, cost);
+    }
+    
+    @Test
+    void testSelectCost_NeverBelowFloor() {
+        // Act - even the floor is over budget on this machine
+        int cost = BCryptPasswordHasher.selectCost(10, 14, 50 * MILLIS, c -> 100 * MILLIS);
+        
+        // Assert
+        assertEquals(10, cost);
+    }
+    
+    @Test
+    void testSelectCost_CappedAtCeiling() {
+        // Act
+        int cost = BCryptPasswordHasher.selectCost(4, 6, 250 * MILLIS, c -> MILLIS);
+        
+        // Assert
+        assertEquals(6, cost);
+    }
+    
+    @Test
+    void testCalibrate_UsesFloorWhenBudgetIsTiny() {
+        // Act
+        BCryptPasswordHasher hasher = BCryptPasswordHasher.calibrate(4, 6, Duration.ofNanos(1));
+        
+        // Assert
+        assertEquals(4, hasher.getCost());
+        assertTrue(hasher.hash("Pa$$w0rd2025!").startsWith("$2a$04$"));
+    }
+    
+    @Test
+    void testMatches_HashesFromOtherCostsStayVerifiable() {
+        // Arrange
+        BCryptPasswordHasher oldHasher = new BCryptPasswordHasher(4);
+        BCryptPasswordHasher newHasher = new BCryptPasswordHasher(5);
+        String oldHash = oldHasher.hash("Pa$$w0rd2025!");
+        
+        // Act & Assert
+        assertTrue(newHasher.matches("Pa$$w0rd2025!", oldHash));
+        assertFalse(newHasher.matches("WrongPassword1!", oldHash));
+        assertTrue(newHasher.needsRehash(oldHash));
+        assertFalse(oldHasher.needsRehash(oldHash));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.register.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import com.example.register.repository.IdempotencyRecordRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyPurgerTest {
+    
+    @Mock
+    private IdempotencyRecordRepository idempotencyRepository;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @Test
+    void testPurgeExpired_DeletesBatchesUntilShortOne() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyPurger purger = new IdempotencyPurger(idempotencyRepository, meterRegistry, true, 2);
+        when(idempotencyRepository.findExpiredKeys(eq(now), any(Pageable.class)))
+            .thenReturn(List.of("a", "b"))
+            .thenReturn(List.of("c"));
+        
+        // Act
+        int purged = purger.purgeExpired(now);
+        
+        // Assert
+        assertEquals(3, purged);
+        verify(idempotencyRepository).deleteAllByIdInBatch(List.of("a", "b"));
+        verify(idempotencyRepository).deleteAllByIdInBatch(List.of("c"));
+        assertEquals(3, meterRegistry.get("register.idempotency.purged").counter().count());
+    }
+    
+    @Test
+    void testPurgeExpired_NothingExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyPurger purger = new IdempotencyPurger(idempotencyRepository, meterRegistry, true, 2);
+        when(idempotencyRepository.findExpiredKeys(eq(now), any(Pageable.class))).thenReturn(List.of());
+        
+        assertEquals(0, purger.purgeExpired(now));
+        verify(idempotencyRepository, never()).deleteAllByIdInBatch(any());
+    }
+}
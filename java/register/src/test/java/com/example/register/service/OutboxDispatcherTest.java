@@ -0,0 +1,151 @@
+package com.example.register.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.register.entity.OutboxMessage;
+import com.example.register.entity.OutboxMessage.OutboxStatus;
+import com.example.register.entity.User;
+import com.example.register.mail.MailTransport;
+import com.example.register.mail.OutgoingMail;
+import com.example.register.repository.OutboxMessageRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+    
+    @Mock
+    private OutboxMessageRepository outboxRepository;
+    
+    @Mock
+    private UserStatusCache userStatusCache;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VerificationTokens verificationTokens = new VerificationTokens(
+        Map.of("k1", new byte[VerificationTokens.MIN_KEY_BYTES]), Duration.ofHours(48), () -> 1_000_000L);
+    
+    @Test
+    void testDispatchPending_SendsBatchInOneCall() {
+        // Arrange
+        List<OutboxMessage> due = List.of(message(1L, "a@example.com"), message(2L, "b@example.com"));
+        when(outboxRepository.findDueForUpdate(any(), any())).thenReturn(due);
+        List<List<OutgoingMail>> calls = new ArrayList<>();
+        OutboxDispatcher dispatcher = dispatcher(batch -> {
+            calls.add(batch);
+            return Map.of();
+        }, 3);
+        
+        // Act
+        int delivered = dispatcher.dispatchPending();
+        
+        // Assert
+        assertEquals(2, delivered);
+        assertEquals(1, calls.size());
+        assertEquals("b@example.com", calls.get(0).get(1).to());
+        String body = calls.get(0).get(1).body();
+        assertEquals("usr_2", verificationTokens.verify(body.substring(body.indexOf("?token=") + 7)));
+        for (OutboxMessage message : due) {
+            assertEquals(OutboxStatus.SENT, message.getStatus());
+            assertNotNull(message.getSentAt());
+        }
+        verify(outboxRepository).markSent(eq(List.of(1L, 2L)), any());
+        verify(userStatusCache).invalidateAll(List.of("usr_1", "usr_2"));
+        assertEquals(2, meterRegistry.get("register.outbox.delivered").counter().count());
+    }
+    
+    @Test
+    void testDispatchPending_FailedSendIsRescheduled() {
+        // Arrange
+        OutboxMessage ok = message(1L, "a@example.com");
+        OutboxMessage bounced = message(2L, "b@example.com");
+        when(outboxRepository.findDueForUpdate(any(), any())).thenReturn(List.of(ok, bounced));
+        OutboxDispatcher dispatcher = dispatcher(batch -> Map.of(2L, "mailbox unavailable"), 3);
+        
+        // Act
+        int delivered = dispatcher.dispatchPending();
+        
+        // Assert
+        assertEquals(1, delivered);
+        assertEquals(OutboxStatus.PENDING, bounced.getStatus());
+        assertEquals(1, bounced.getAttempts());
+        assertEquals("mailbox unavailable", bounced.getLastError());
+        assertNull(bounced.getSentAt());
+        assertTrue(bounced.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        verify(outboxRepository).markSent(eq(List.of(1L)), any());
+        verify(outboxRepository).reschedule(2L, 1, "mailbox unavailable", bounced.getNextAttemptAt());
+        verify(userStatusCache).invalidateAll(List.of("usr_1"));
+        assertEquals(1, meterRegistry.get("register.outbox.retried").counter().count());
+    }
+    
+    @Test
+    void testDispatchPending_GivesUpAfterMaxAttempts() {
+        // Arrange
+        OutboxMessage message = message(1L, "a@example.com");
+        message.setAttempts(2);
+        when(outboxRepository.findDueForUpdate(any(), any())).thenReturn(List.of(message));
+        OutboxDispatcher dispatcher = dispatcher(batch -> {
+            throw new IllegalStateException("connection refused");
+        }, 3);
+        
+        // Act
+        int delivered = dispatcher.dispatchPending();
+        
+        // Assert
+        assertEquals(0, delivered);
+        assertEquals(OutboxStatus.FAILED, message.getStatus());
+        assertEquals("connection refused", message.getLastError());
+        verify(outboxRepository).markFailed(1L, 3, "connection refused");
+        verify(outboxRepository, never()).markSent(any(), any());
+        assertEquals(1, meterRegistry.get("register.outbox.failed").counter().count());
+    }
+    
+    @Test
+    void testBackoff_DoublesUpToMax() {
+        // Arrange
+        OutboxDispatcher dispatcher = dispatcher(batch -> Map.of(), 20);
+        
+        // Act & Assert
+        assertEquals(Duration.ofSeconds(2), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(4), dispatcher.backoff(2));
+        assertEquals(Duration.ofSeconds(16), dispatcher.backoff(4));
+        assertEquals(Duration.ofMinutes(10), dispatcher.backoff(15));
+    }
+    
+    private OutboxDispatcher dispatcher(MailTransport transport, int maxAttempts) {
+        return new OutboxDispatcher(outboxRepository, transport, userStatusCache, verificationTokens,
+            transactionManager, meterRegistry, "https://example.com/verify?token=",
+            false, 10, maxAttempts, Duration.ofSeconds(2), Duration.ofMinutes(10), Duration.ofMinutes(2));
+    }
+    
+    private static OutboxMessage message(Long id, String email) {
+        User user = new User();
+        user.setUserId("usr_" + id);
+        user.setEmail(email);
+        user.setCreatedAt(LocalDateTime.now().minusSeconds(1));
+        OutboxMessage message = OutboxMessage.verificationEmail(user);
+        message.setId(id);
+        return message;
+    }
+}
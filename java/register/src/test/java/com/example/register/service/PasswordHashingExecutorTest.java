@@ -0,0 +1,107 @@
+package com.example.register.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.register.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testHash_HashesOnPool() {
+        // Arrange
+        BCryptPasswordHasher hasher = new BCryptPasswordHasher(4);
+        executor = new PasswordHashingExecutor(hasher, meterRegistry, 2, 4, 1);
+
+        // Act
+        String hash = executor.hash("Pa$$w0rd2025!");
+
+        // Assert
+        assertTrue(hasher.matches("Pa$$w0rd2025!", hash));
+        assertEquals(1, meterRegistry.get("register.hashing.duration").timer().count());
+        assertEquals(1, meterRegistry.get("register.hashing.wait").timer().count());
+    }
+
+    @Test
+    void testHashAll_KeepsInputOrder() {
+        // Arrange - more passwords than threads plus queue slots
+        executor = new PasswordHashingExecutor(blockingHasher(new CountDownLatch(0), new CountDownLatch(0)),
+            meterRegistry, 2, 1, 1);
+        List<String> passwords = List.of("a", "b", "c", "d", "e", "f");
+
+        // Act
+        List<String> hashes = executor.hashAll(passwords);
+
+        // Assert
+        assertEquals(List.of("hashed:a", "hashed:b", "hashed:c", "hashed:d", "hashed:e", "hashed:f"), hashes);
+        assertEquals(0, meterRegistry.get("register.hashing.rejected").counter().count());
+    }
+
+    @Test
+    void testHash_RejectsWhenQueueIsFull() throws Exception {
+        // Arrange - one thread, one queue slot, and a hasher that blocks until released
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor = new PasswordHashingExecutor(blockingHasher(started, release), meterRegistry, 1, 1, 3);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> executor.hash("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> executor.hash("second"));
+        while (meterRegistry.get("register.hashing.queue.depth").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // Act & Assert
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+            () -> executor.hash("third"));
+        assertEquals(3, exception.getRetryAfterSeconds());
+        assertEquals(1, meterRegistry.get("register.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("hashed:first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed:second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private static PasswordHasher blockingHasher(CountDownLatch started, CountDownLatch release) {
+        return new PasswordHasher() {
+            @Override
+            public String hash(String rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hashed:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(String rawPassword, String hash) {
+                return hash.equals("hashed:" + rawPassword);
+            }
+
+            @Override
+            public boolean needsRehash(String hash) {
+                return false;
+            }
+        };
+    }
+}
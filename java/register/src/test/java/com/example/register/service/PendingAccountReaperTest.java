@@ -0,0 +1,116 @@
+package com.example.register.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.register.repository.IdempotencyRecordRepository;
+import com.example.register.repository.OutboxMessageRepository;
+import com.example.register.repository.PendingAccount;
+import com.example.register.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class PendingAccountReaperTest {
+    
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @Mock
+    private OutboxMessageRepository outboxRepository;
+    
+    @Mock
+    private IdempotencyRecordRepository idempotencyRepository;
+    
+    @Mock
+    private AvailabilityChecker availabilityChecker;
+    
+    @Mock
+    private UserStatusCache userStatusCache;
+    
+    @Mock
+    private UniquenessIndex uniquenessIndex;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @Test
+    void testPurgePending_WalksChunksInKeysetOrder() {
+        // Arrange
+        LocalDateTime cutoff = NOW.minusDays(7);
+        PendingAccount first = account(1L, cutoff.minusDays(3));
+        PendingAccount second = account(2L, cutoff.minusDays(2));
+        PendingAccount third = account(3L, cutoff.minusDays(1));
+        when(userRepository.findPendingCreatedBefore(eq(cutoff), any(), anyLong(), any(Pageable.class)))
+            .thenReturn(List.of(first, second))
+            .thenReturn(List.of(third));
+        when(userRepository.deletePending(any())).thenReturn(2, 1);
+        
+        // Act
+        int purged = reaper().purgePending(NOW);
+        
+        // Assert
+        assertEquals(3, purged);
+        verify(userRepository).findPendingCreatedBefore(eq(cutoff), eq(second.createdAt()), eq(2L), any(Pageable.class));
+        verify(userRepository).deletePending(List.of(1L, 2L));
+        verify(outboxRepository).deleteOrphaned(List.of("usr_1", "usr_2"));
+        verify(idempotencyRepository).deleteOrphaned(List.of("usr_3"));
+        verify(availabilityChecker).release("user1", "user1@example.com", "+6681000001");
+        verify(userStatusCache).invalidateAll(List.of("usr_3"));
+        verify(uniquenessIndex).released(3);
+        assertEquals(3, meterRegistry.get("register.pending_purge.deleted").counter().count());
+        assertEquals(2, meterRegistry.get("register.pending_purge.chunk").timer().count());
+    }
+    
+    @Test
+    void testPurgePending_CountsOnlyRowsStillPending() {
+        // Arrange - usr_1 was verified between the read and the delete
+        when(userRepository.findPendingCreatedBefore(any(), any(), anyLong(), any(Pageable.class)))
+            .thenReturn(List.of(account(1L, NOW.minusDays(9)), account(2L, NOW.minusDays(8))))
+            .thenReturn(List.of());
+        when(userRepository.deletePending(any())).thenReturn(1);
+        
+        // Act & Assert
+        assertEquals(1, reaper().purgePending(NOW));
+    }
+    
+    @Test
+    void testPurgePending_NothingPending() {
+        when(userRepository.findPendingCreatedBefore(any(), any(), anyLong(), any(Pageable.class)))
+            .thenReturn(List.of());
+        
+        assertEquals(0, reaper().purgePending(NOW));
+        verify(userRepository, never()).deletePending(any());
+        verify(uniquenessIndex, never()).released(anyInt());
+    }
+    
+    private PendingAccountReaper reaper() {
+        return new PendingAccountReaper(userRepository, outboxRepository, idempotencyRepository, availabilityChecker,
+            userStatusCache, uniquenessIndex, transactionManager, meterRegistry, true, Duration.ofDays(7), 2, Duration.ZERO);
+    }
+    
+    private static PendingAccount account(long id, LocalDateTime createdAt) {
+        return new PendingAccount(id, "usr_" + id, "user" + id, "user" + id + "@example.com", "+668100000" + id,
+            createdAt);
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.register.service;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,34 +16,76 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
-import org.mockito.InjectMocks;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import com.example.register.audit.AuditLog;
 import com.example.register.dto.RegisterRequest;
 import com.example.register.dto.RegisterResponse;
+import com.example.register.entity.IdempotencyRecord;
+import com.example.register.entity.OutboxMessage;
 import com.example.register.entity.User;
 import com.example.register.exception.ValidationException;
+import com.example.register.repository.IdempotencyRecordRepository;
+import com.example.register.repository.OutboxMessageRepository;
+import com.example.register.repository.RegistrationView;
 import com.example.register.repository.UserRepository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+
 @ExtendWith(MockitoExtension.class)
 class RegisterServiceTest {
     
     @Mock
     private UserRepository userRepository;
     
-    @InjectMocks
+    @Mock
+    private OutboxMessageRepository outboxRepository;
+    
+    @Mock
+    private IdempotencyRecordRepository idempotencyRepository;
+    
+    @Mock
+    private AuditLog auditLog;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
     private RegisterService registerService;
     
+    private IdempotencyCache idempotencyCache;
+    
+    private SimpleMeterRegistry meterRegistry;
+    
     private RegisterRequest validRequest;
     private String idempotencyKey;
     
     @BeforeEach
     void setUp() {
+        // Index is never warmed up here, so every uniqueness check reaches the repository
+        UniquenessIndex uniquenessIndex = new UniquenessIndex(userRepository, new SimpleMeterRegistry(), 1000, 0.01, "",
+            1000);
+        PasswordHashingExecutor passwordHashingExecutor = new PasswordHashingExecutor(
+            new BCryptPasswordHasher(4), new SimpleMeterRegistry(), 1, 8, 1);
+        idempotencyCache = new IdempotencyCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        meterRegistry = new SimpleMeterRegistry();
+        RegistrationValidator registrationValidator = new RegistrationValidator(
+            Validation.buildDefaultValidatorFactory().getValidator());
+        registerService = new RegisterService(userRepository, outboxRepository, idempotencyRepository, uniquenessIndex,
+            registrationValidator, new TimeOrderedUserIdGenerator(0, System::currentTimeMillis), passwordHashingExecutor,
+            idempotencyCache, auditLog, transactionManager, meterRegistry, Duration.ofHours(24));
+        
         validRequest = new RegisterRequest();
         validRequest.setFullName("Somkiat Pui");
         validRequest.setUsername("somkiat.p");
@@ -56,7 +102,7 @@ class RegisterServiceTest {
     @Test
     void testRegister_Success() {
         // Arrange
-        when(userRepository.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
+        when(idempotencyRepository.findRegistration(anyString())).thenReturn(Optional.empty());
         when(userRepository.existsByUsername(anyString())).thenReturn(false);
         when(userRepository.existsByEmail(anyString())).thenReturn(false);
         when(userRepository.existsByPhone(anyString())).thenReturn(false);
@@ -77,19 +123,40 @@ class RegisterServiceTest {
         assertNotNull(response.getUserId());
         assertEquals("pending_verification", response.getStatus());
         assertEquals("email", response.getVerification().getChannel());
-        assertNotNull(response.getVerification().getSentAt());
+        assertNull(response.getVerification().getSentAt());
         
         verify(userRepository, times(1)).save(any(User.class));
+        verify(outboxRepository, times(1)).save(any(OutboxMessage.class));
+        verify(auditLog).registered("usr_12345", idempotencyKey);
+    }
+    
+    @Test
+    void testRegister_RecordsEveryStage() {
+        when(idempotencyRepository.findRegistration(anyString())).thenReturn(Optional.empty());
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        registerService.register(validRequest, idempotencyKey);
+        
+        // The outer cache lookup and the one inside the single flight are both timed
+        assertEquals(2, stageCount("idempotency_lookup"));
+        for (String stage : new String[] {"uniqueness_username", "uniqueness_email", "uniqueness_phone",
+                "password_hash", "user_insert", "idempotency_insert", "outbox_insert"}) {
+            assertEquals(1, stageCount(stage), stage);
+        }
+    }
+    
+    private long stageCount(String stage) {
+        return meterRegistry.get("register.stage").tag("stage", stage).timer().count();
     }
     
     @Test
     void testRegister_IdempotencyCheck() {
         // Arrange
-        User existingUser = new User();
-        existingUser.setUserId("usr_existing");
-        existingUser.setStatus(User.UserStatus.PENDING_VERIFICATION);
+        RegistrationView existingUser = new RegistrationView(
+            idempotencyKey, RequestFingerprint.of(validRequest), "usr_existing", User.UserStatus.PENDING_VERIFICATION,
+            LocalDateTime.now(), LocalDateTime.now());
         
-        when(userRepository.findByIdempotencyKey(idempotencyKey)).thenReturn(Optional.of(existingUser));
+        when(idempotencyRepository.findRegistration(idempotencyKey)).thenReturn(Optional.of(existingUser));
         
         // Act
         RegisterResponse response = registerService.register(validRequest, idempotencyKey);
@@ -97,15 +164,134 @@ class RegisterServiceTest {
         // Assert
         assertNotNull(response);
         assertEquals("usr_existing", response.getUserId());
+        assertNotNull(response.getVerification().getSentAt());
+        
+        verify(userRepository, never()).save(any(User.class));
+        verify(auditLog).replayed("usr_existing", idempotencyKey);
+        verify(auditLog, never()).registered(any(), any());
+    }
+    
+    @Test
+    void testRegister_ReplayServedFromCache() {
+        // Arrange
+        RegisterResponse cached = new RegisterResponse("usr_cached", "pending_verification",
+            new RegisterResponse.VerificationInfo("email", LocalDateTime.now()));
+        idempotencyCache.put(idempotencyKey, RequestFingerprint.of(validRequest), cached);
+        
+        // Act
+        RegisterResponse response = registerService.register(validRequest, idempotencyKey);
+        
+        // Assert
+        assertSame(cached, response);
+        verifyNoInteractions(userRepository, outboxRepository, idempotencyRepository);
+        verify(auditLog).replayed("usr_cached", idempotencyKey);
+    }
+    
+    @Test
+    void testRegister_CachedReplayPicksUpDispatch() {
+        // Arrange - cached before the verification email went out
+        RegisterResponse cached = new RegisterResponse("usr_cached", "pending_verification",
+            new RegisterResponse.VerificationInfo("email", null));
+        idempotencyCache.put(idempotencyKey, RequestFingerprint.of(validRequest), cached);
+        LocalDateTime sentAt = LocalDateTime.now();
+        when(outboxRepository.findSentAtByUserId("usr_cached")).thenReturn(Optional.of(sentAt));
+        
+        // Act
+        RegisterResponse response = registerService.register(validRequest, idempotencyKey);
+        
+        // Assert
+        assertEquals(sentAt, response.getVerification().getSentAt());
+        assertSame(response, idempotencyCache.get(idempotencyKey).response());
+        verifyNoInteractions(userRepository);
+    }
+    
+    @Test
+    void testRegister_SuccessPopulatesCache() {
+        // Arrange
+        when(idempotencyRepository.findRegistration(anyString())).thenReturn(Optional.empty());
+        User savedUser = new User();
+        savedUser.setUserId("usr_12345");
+        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        
+        // Act
+        RegisterResponse first = registerService.register(validRequest, idempotencyKey);
+        RegisterResponse second = registerService.register(validRequest, idempotencyKey);
         
+        // Assert
+        assertSame(first, second);
+        verify(idempotencyRepository, times(1)).findRegistration(idempotencyKey);
+        verify(userRepository, times(1)).save(any(User.class));
+    }
+    
+    @Test
+    void testRegister_WithoutKeyNothingLookedUpOrStored() {
+        // Arrange
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        RegisterResponse response = registerService.register(validRequest, null);
+        
+        // Assert
+        assertNotNull(response.getUserId());
+        verifyNoInteractions(idempotencyRepository);
+        assertEquals(0, stageCount("idempotency_lookup"));
+    }
+    
+    @Test
+    void testRegister_StoresKeyWithFingerprintAndExpiry() {
+        // Arrange
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<IdempotencyRecord> record = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        
+        // Act
+        RegisterResponse response = registerService.register(validRequest, idempotencyKey);
+        
+        // Assert
+        verify(idempotencyRepository).save(record.capture());
+        assertEquals(idempotencyKey, record.getValue().getIdempotencyKey());
+        assertEquals(RequestFingerprint.of(validRequest), record.getValue().getFingerprint());
+        assertEquals(response.getUserId(), record.getValue().getUserId());
+        assertEquals(record.getValue().getCreatedAt().plusHours(24), record.getValue().getExpiresAt());
+    }
+    
+    @Test
+    void testRegister_KeyReusedForDifferentRequest() {
+        // Arrange - the key was first used by another request
+        RegistrationView stored = new RegistrationView(idempotencyKey, "0".repeat(64), "usr_other",
+            User.UserStatus.PENDING_VERIFICATION, LocalDateTime.now(), null);
+        when(idempotencyRepository.findRegistration(idempotencyKey)).thenReturn(Optional.of(stored));
+        
+        // Act & Assert
+        ValidationException exception = assertThrows(ValidationException.class, () -> {
+            registerService.register(validRequest, idempotencyKey);
+        });
+        
+        assertEquals("IDEMPOTENCY_KEY_REUSED", exception.getErrorCode());
+        assertTrue(exception.getFieldErrors().containsKey("idempotencyKey"));
         verify(userRepository, never()).save(any(User.class));
+        verify(auditLog).rejected(isNull(), eq(idempotencyKey), eq("IDEMPOTENCY_KEY_REUSED"),
+            eq(exception.getFieldErrors()));
+    }
+    
+    @Test
+    void testRegister_ConstraintRaceReportedAsValidationError() {
+        // Arrange - pre-checks pass, then another node inserts the same username first
+        when(idempotencyRepository.findRegistration(anyString())).thenReturn(Optional.empty());
+        when(userRepository.existsByUsername(anyString())).thenReturn(false, true);
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+        
+        // Act & Assert
+        ValidationException exception = assertThrows(ValidationException.class, () -> {
+            registerService.register(validRequest, idempotencyKey);
+        });
+        
+        assertEquals("Username already exists", exception.getFieldErrors().get("username"));
     }
     
     @Test
     void testRegister_PasswordMismatch() {
         // Arrange
         validRequest.setConfirmPassword("DifferentPassword123!");
-        when(userRepository.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
         
         // Act & Assert
         ValidationException exception = assertThrows(ValidationException.class, () -> {
@@ -115,12 +301,14 @@ class RegisterServiceTest {
         assertEquals("VALIDATION_FAILED", exception.getErrorCode());
         assertTrue(exception.getFieldErrors().containsKey("confirmPassword"));
         assertEquals("Passwords do not match", exception.getFieldErrors().get("confirmPassword"));
+        verifyNoInteractions(userRepository, outboxRepository);
+        verify(auditLog).rejected(null, idempotencyKey, "VALIDATION_FAILED", exception.getFieldErrors());
     }
     
     @Test
     void testRegister_UsernameExists() {
         // Arrange
-        when(userRepository.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
+        when(idempotencyRepository.findRegistration(anyString())).thenReturn(Optional.empty());
         when(userRepository.existsByUsername(validRequest.getUsername())).thenReturn(true);
         
         // Act & Assert
@@ -136,7 +324,7 @@ class RegisterServiceTest {
     @Test
     void testRegister_EmailExists() {
         // Arrange
-        when(userRepository.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
+        when(idempotencyRepository.findRegistration(anyString())).thenReturn(Optional.empty());
         when(userRepository.existsByUsername(anyString())).thenReturn(false);
         when(userRepository.existsByEmail(validRequest.getEmail())).thenReturn(true);
         
@@ -153,7 +341,7 @@ class RegisterServiceTest {
     @Test
     void testRegister_PhoneExists() {
         // Arrange
-        when(userRepository.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
+        when(idempotencyRepository.findRegistration(anyString())).thenReturn(Optional.empty());
         when(userRepository.existsByUsername(anyString())).thenReturn(false);
         when(userRepository.existsByEmail(anyString())).thenReturn(false);
         when(userRepository.existsByPhone(validRequest.getPhone())).thenReturn(true);
@@ -171,8 +359,7 @@ class RegisterServiceTest {
     @Test
     void testRegister_MultipleValidationErrors() {
         // Arrange
-        validRequest.setConfirmPassword("WrongPassword!");
-        when(userRepository.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
+        when(idempotencyRepository.findRegistration(anyString())).thenReturn(Optional.empty());
         when(userRepository.existsByUsername(validRequest.getUsername())).thenReturn(true);
         when(userRepository.existsByEmail(validRequest.getEmail())).thenReturn(true);
         
@@ -184,4 +371,21 @@ class RegisterServiceTest {
         assertEquals("VALIDATION_FAILED", exception.getErrorCode());
         assertTrue(exception.getFieldErrors().size() >= 2);
     }
+    
+    @Test
+    void testRegister_InvalidFieldsNeverReachRepository() {
+        // Arrange
+        validRequest.setEmail("not-an-email");
+        validRequest.setPassword("weak");
+        
+        // Act & Assert
+        ValidationException exception = assertThrows(ValidationException.class, () -> {
+            registerService.register(validRequest, idempotencyKey);
+        });
+        
+        assertEquals("Enter a valid email address", exception.getFieldErrors().get("email"));
+        assertEquals("Password must be 8–64 chars incl. upper/lower/digit/special",
+            exception.getFieldErrors().get("password"));
+        verifyNoInteractions(userRepository, outboxRepository);
+    }
 }
@@ -0,0 +1,166 @@
+package com.example.register.service;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.register.dto.RegisterRequest;
+import com.example.register.exception.ValidationException;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+class RegistrationValidatorTest {
+
+    private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+    private final Validator beanValidator = validatorFactory.getValidator();
+    private final RegistrationValidator registrationValidator = new RegistrationValidator(beanValidator);
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void testErrors_ValidRequest() {
+        assertNull(registrationValidator.errors(validRequest()));
+    }
+
+    @Test
+    void testErrors_FullNameMatchesBeanValidation() {
+        assertSameAsBeanValidation(RegisterRequest::setFullName,
+            null, "", "   ", "A", "Al", "x".repeat(100), "x".repeat(101), " A ", "\tA");
+    }
+
+    @Test
+    void testErrors_UsernameMatchesBeanValidation() {
+        assertSameAsBeanValidation(RegisterRequest::setUsername,
+            null, "", "  ", "ab", "abc", "a.b_c-d", "a b c", "abc!", "abc\n", "x".repeat(50), "x".repeat(51), "ñandú");
+    }
+
+    @Test
+    void testErrors_EmailMatchesBeanValidation() {
+        assertSameAsBeanValidation(RegisterRequest::setEmail,
+            null, "", " ", "plain", "@example.com", "user@", "user@example.com", "USER@EXAMPLE.COM",
+            "first.last@example.co.th", ".user@example.com", "user.@example.com", "us..er@example.com",
+            "user+tag@example.com", "o'hara@example.com", "user@localhost", "user@exa_mple.com",
+            "user@-example.com", "user@example-.com", "user@ex--ample.com", "user@example..com",
+            "user@example.com.", "user@.example.com", "user@@example.com", "a@b@example.com",
+            "user name@example.com", "user@exam ple.com", "user@example.com\n",
+            "x".repeat(64) + "@example.com", "x".repeat(65) + "@example.com",
+            "user@" + "x".repeat(63) + ".com", "user@" + "x".repeat(64) + ".com",
+            "user@" + ("x".repeat(62) + ".").repeat(4) + "com",
+            "\"quoted user\"@example.com", "user@[192.168.0.1]", "user@[IPv6:2001:db8::1]", "usér@example.com",
+            "user@exämple.com");
+    }
+
+    @Test
+    void testErrors_PhoneMatchesBeanValidation() {
+        assertSameAsBeanValidation(RegisterRequest::setPhone,
+            null, "", " ", "+", "1", "+1", "12", "+66812345678", "0812345678", "+0812345678",
+            "123456789012345", "1234567890123456", "++6681", "+66 812", "+66-812", "٣٤٥٦٧");
+    }
+
+    @Test
+    void testErrors_PasswordMatchesBeanValidation() {
+        assertSameAsBeanValidation((request, password) -> {
+            request.setPassword(password);
+            request.setConfirmPassword(password);
+        },
+            null, "", "        ", "Pa$$w0rd2025!", "Aa1!", "Aa1!Aa1!", "aa1!aa1!", "AA1!AA1!", "Aaa!aaa!", "Aa1aAa1a",
+            "Aa1!" + "x".repeat(60), "Aa1!" + "x".repeat(61), "Aa1! Aa1!", "Aa1!Aa1!é", "Aa1\\Aa1\\", "Aa1\"Aa1'",
+            "Aa1~Aa1`", "Aa1[Aa1]", "Aa1{Aa1}", "Aa1|Aa1:", "Aa1;Aa1<", "Aa1>Aa1,", "Aa1.Aa1/", "Aa1?Aa1-");
+    }
+
+    @Test
+    void testErrors_OtherFieldsMatchBeanValidation() {
+        assertSameAsBeanValidation(RegisterRequest::setConfirmPassword, null, "", "  ");
+        assertSameAsBeanValidation(RegisterRequest::setDob,
+            null, LocalDate.now(), LocalDate.now().minusDays(1), LocalDate.now().plusDays(1));
+        assertSameAsBeanValidation(RegisterRequest::setAcceptTerms, null, true, false);
+    }
+
+    @Test
+    void testErrors_PasswordMismatchOnlyWhenFieldsAreValid() {
+        RegisterRequest request = validRequest();
+        request.setConfirmPassword("Different1!");
+        assertEquals(Map.of("confirmPassword", "Passwords do not match"), registrationValidator.errors(request));
+
+        request.setEmail("not-an-email");
+        assertEquals(Map.of("email", "Enter a valid email address"), registrationValidator.errors(request));
+    }
+
+    @Test
+    void testErrors_SameRulesShareOneMap() {
+        RegisterRequest first = validRequest();
+        first.setEmail("first");
+        RegisterRequest second = validRequest();
+        second.setEmail("second");
+
+        assertSame(registrationValidator.errors(first), registrationValidator.errors(second));
+    }
+
+    @Test
+    void testValidate_ThrowsValidationFailed() {
+        RegisterRequest request = validRequest();
+        request.setUsername("a b");
+        request.setPhone("abc");
+
+        ValidationException exception = assertThrows(ValidationException.class,
+            () -> registrationValidator.validate(request));
+
+        assertEquals("VALIDATION_FAILED", exception.getErrorCode());
+        assertEquals(Set.of("username", "phone"), exception.getFieldErrors().keySet());
+    }
+
+    // Same invalid fields as Bean Validation, and for each one a message it also reports for that field
+    @SafeVarargs
+    private <T> void assertSameAsBeanValidation(BiConsumer<RegisterRequest, T> setter, T... values) {
+        for (T value : values) {
+            RegisterRequest request = validRequest();
+            setter.accept(request, value);
+
+            Map<String, Set<String>> expected = new HashMap<>();
+            for (ConstraintViolation<RegisterRequest> violation : beanValidator.validate(request)) {
+                expected.computeIfAbsent(violation.getPropertyPath().toString(), field -> new HashSet<>())
+                    .add(violation.getMessage());
+            }
+            Map<String, String> actual = registrationValidator.errors(request);
+            if (actual == null) {
+                actual = Map.of();
+            }
+
+            assertEquals(expected.keySet(), actual.keySet(), "fields for " + value);
+            for (Map.Entry<String, String> error : actual.entrySet()) {
+                assertTrue(expected.get(error.getKey()).contains(error.getValue()),
+                    error.getValue() + " for " + value);
+            }
+        }
+    }
+
+    private static RegisterRequest validRequest() {
+        RegisterRequest request = new RegisterRequest();
+        request.setFullName("Somkiat Pui");
+        request.setUsername("somkiat.p");
+        request.setEmail("somkiat.p@example.com");
+        request.setPhone("+66812345678");
+        request.setPassword("Pa$$w0rd2025!");
+        request.setConfirmPassword("Pa$$w0rd2025!");
+        request.setDob(LocalDate.of(1995, 5, 10));
+        request.setAcceptTerms(true);
+        return request;
+    }
+}
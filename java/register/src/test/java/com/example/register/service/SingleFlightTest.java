@@ -0,0 +1,121 @@
+package com.example.register.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.register.exception.ValidationException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightTest {
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(4);
+    private final Counter coalesced = new SimpleMeterRegistry().counter("coalesced");
+    private final SingleFlight<String, Object> singleFlight = new SingleFlight<>(coalesced);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testExecute_FollowersShareLeaderResult() throws Exception {
+        // Arrange
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        Object result = new Object();
+
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> {
+            executions.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return result;
+        }), pool);
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        // Act
+        List<CompletableFuture<Object>> followers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            followers.add(CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> {
+                executions.incrementAndGet();
+                return new Object();
+            }), pool));
+        }
+        while (coalesced.count() < 3) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        // Assert
+        assertSame(result, leader.get(5, TimeUnit.SECONDS));
+        for (CompletableFuture<Object> follower : followers) {
+            assertSame(result, follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executions.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void testExecute_FollowersSeeLeaderException() throws Exception {
+        // Arrange
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ValidationException failure = new ValidationException("VALIDATION_FAILED", Map.of());
+
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> {
+            leaderStarted.countDown();
+            await(release);
+            throw failure;
+        }), pool);
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Object> follower = CompletableFuture.supplyAsync(
+            () -> singleFlight.execute("key", Object::new), pool);
+        while (coalesced.count() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // Act
+        release.countDown();
+
+        // Assert
+        Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertSame(failure, leaderError.getCause());
+        assertSame(failure, followerError.getCause());
+    }
+
+    @Test
+    void testExecute_SequentialCallsRunIndependently() {
+        // Act
+        Object first = singleFlight.execute("key", Object::new);
+        Object second = singleFlight.execute("key", Object::new);
+
+        // Assert
+        assertTrue(first != second);
+        assertEquals(0, coalesced.count());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.register.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class TimeOrderedUserIdGeneratorTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeOrderedUserIdGenerator.EPOCH_MILLIS + 1_000);
+
+    @Test
+    void testNext_PrefixedFixedWidthBase32() {
+        String id = new TimeOrderedUserIdGenerator(0, clock::get).next();
+
+        assertTrue(id.matches("usr_[0-9A-HJKMNP-TV-Z]{13}"), id);
+    }
+
+    @Test
+    void testNext_OrderedByTimeAndWithinMillisecond() {
+        // Arrange
+        TimeOrderedUserIdGenerator generator = new TimeOrderedUserIdGenerator(0, clock::get);
+        List<String> ids = new ArrayList<>();
+
+        // Act: more ids in one millisecond than the sequence holds, then a later one
+        for (int i = 0; i < 1_000; i++) {
+            ids.add(generator.next());
+        }
+        clock.addAndGet(10);
+        ids.add(generator.next());
+
+        // Assert
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0, ids.get(i - 1) + " before " + ids.get(i));
+        }
+    }
+
+    @Test
+    void testNext_ClockStepsBack() {
+        TimeOrderedUserIdGenerator generator = new TimeOrderedUserIdGenerator(0, clock::get);
+        String before = generator.next();
+
+        clock.addAndGet(-5_000);
+
+        assertTrue(before.compareTo(generator.next()) < 0);
+    }
+
+    @Test
+    void testNext_UniqueAcrossThreads() throws Exception {
+        // Arrange: frozen clock, so every thread keeps borrowing sequence numbers
+        TimeOrderedUserIdGenerator generator = new TimeOrderedUserIdGenerator(0, clock::get);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 20_000;
+
+        // Act
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(generator.next());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    void testNext_NodesNeverCollide() {
+        String first = new TimeOrderedUserIdGenerator(1, clock::get).next();
+        String second = new TimeOrderedUserIdGenerator(2, clock::get).next();
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void testConstructor_RejectsNodeIdOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedUserIdGenerator(-1, clock::get));
+        assertThrows(IllegalArgumentException.class,
+            () -> new TimeOrderedUserIdGenerator(TimeOrderedUserIdGenerator.MAX_NODE_ID + 1, clock::get));
+    }
+}
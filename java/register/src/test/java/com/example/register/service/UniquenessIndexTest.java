@@ -0,0 +1,250 @@
+package com.example.register.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import com.example.register.entity.User;
+import com.example.register.repository.UniqueKeys;
+import com.example.register.repository.UserRepository;
+import com.example.register.service.UniquenessIndex.Field;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class UniquenessIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testExists_DelegatesToRepositoryBeforeWarmUp() {
+        // Arrange
+        UniquenessIndex index = new UniquenessIndex(userRepository, meterRegistry, 1000, 0.01, "", 1000);
+        Predicate<String> repositoryCheck = repositoryCheck(true);
+
+        // Act & Assert
+        assertFalse(index.isReady());
+        assertTrue(index.exists(Field.USERNAME, "somkiat.p", repositoryCheck));
+        verify(repositoryCheck).test("somkiat.p");
+    }
+
+    @Test
+    void testExists_AbsentValueSkipsRepository() {
+        // Arrange
+        when(userRepository.findUniqueKeys(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(List.of(new UniqueKeys(1L, "somkiat.p", "somkiat.p@example.com", "+66812345678")));
+        UniquenessIndex index = new UniquenessIndex(userRepository, meterRegistry, 1000, 0.01, "", 1000);
+        index.warmUp();
+        Predicate<String> repositoryCheck = repositoryCheck(false);
+
+        // Act & Assert
+        assertFalse(index.exists(Field.USERNAME, "someone.else", repositoryCheck));
+        assertFalse(index.exists(Field.EMAIL, "someone.else@example.com", repositoryCheck));
+        verify(repositoryCheck, never()).test(any());
+    }
+
+    @Test
+    void testExists_MaybePresentValueIsConfirmedByRepository() {
+        // Arrange
+        when(userRepository.findUniqueKeys(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(List.of(new UniqueKeys(1L, "somkiat.p", "somkiat.p@example.com", "+66812345678")));
+        UniquenessIndex index = new UniquenessIndex(userRepository, meterRegistry, 1000, 0.01, "", 1000);
+        index.warmUp();
+        Predicate<String> repositoryCheck = repositoryCheck(true);
+
+        // Act & Assert
+        assertTrue(index.exists(Field.PHONE, "+66812345678", repositoryCheck));
+        verify(repositoryCheck).test("+66812345678");
+    }
+
+    @Test
+    void testExisting_QueriesOnlyMaybePresentValues() {
+        // Arrange
+        when(userRepository.findUniqueKeys(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(List.of(new UniqueKeys(1L, "somkiat.p", "somkiat.p@example.com", "+66812345678")));
+        UniquenessIndex index = new UniquenessIndex(userRepository, meterRegistry, 1000, 0.01, "", 1000);
+        index.warmUp();
+        List<Collection<String>> queried = new ArrayList<>();
+
+        // Act
+        Set<String> taken = index.existing(Field.USERNAME, List.of("somkiat.p", "someone.else"), values -> {
+            queried.add(values);
+            return Set.of("somkiat.p");
+        });
+
+        // Assert
+        assertEquals(Set.of("somkiat.p"), taken);
+        assertEquals(List.of(List.of("somkiat.p")), queried);
+    }
+
+    @Test
+    void testAdd_NewUserIsSeenAfterSave() {
+        // Arrange
+        when(userRepository.findUniqueKeys(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(List.of());
+        UniquenessIndex index = new UniquenessIndex(userRepository, meterRegistry, 1000, 0.01, "", 1000);
+        index.warmUp();
+
+        User user = new User();
+        user.setUsername("new.user");
+        user.setEmail("new.user@example.com");
+        user.setPhone("+66899999999");
+
+        // Act
+        index.add(user);
+
+        // Assert - repository says absent, so this counts as a false positive
+        assertFalse(index.exists(Field.USERNAME, "new.user", repositoryCheck(false)));
+        assertEquals(1.0, meterRegistry.get("register.uniqueness.bloom.false_positive_rate")
+            .tag("field", "username").gauge().value());
+        assertEquals(1.0, meterRegistry.get("register.uniqueness.bloom.false_positives")
+            .tag("field", "username").functionCounter().count());
+    }
+
+    @Test
+    void testWarmUp_RestoresFromSnapshot(@TempDir Path tempDir) {
+        // Arrange - first instance builds from the table and writes a snapshot
+        Path snapshot = tempDir.resolve("uniqueness-index.bin");
+        when(userRepository.findUniqueKeys(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(List.of(new UniqueKeys(1L, "somkiat.p", "somkiat.p@example.com", "+66812345678")));
+        new UniquenessIndex(userRepository, meterRegistry, 1000, 0.01, snapshot.toString(), 1000).warmUp();
+        assertTrue(Files.exists(snapshot));
+
+        // Act - second instance restarts with an empty catch-up scan
+        UserRepository restartedRepository = mock(UserRepository.class);
+        when(restartedRepository.findUniqueKeys(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(List.of());
+        UniquenessIndex restarted = new UniquenessIndex(
+            restartedRepository, new SimpleMeterRegistry(), 1000, 0.01, snapshot.toString(), 1000);
+        restarted.warmUp();
+
+        // Assert - only rows newer than the snapshot were scanned, old values are still known
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(restartedRepository).findUniqueKeys(eq(0L), since.capture(), any(Pageable.class));
+        assertTrue(since.getValue().isAfter(LocalDateTime.now().minusHours(1)));
+
+        Predicate<String> repositoryCheck = repositoryCheck(true);
+        assertTrue(restarted.exists(Field.USERNAME, "somkiat.p", repositoryCheck));
+        verify(repositoryCheck).test("somkiat.p");
+    }
+
+    @Test
+    void testReleased_RebuildForgetsDeletedValuesOnceThresholdReached() {
+        // Arrange - somkiat.p is deleted after warm-up
+        when(userRepository.findUniqueKeys(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(List.of(new UniqueKeys(1L, "somkiat.p", "somkiat.p@example.com", "+66812345678")))
+            .thenReturn(List.of(new UniqueKeys(2L, "other.user", "other.user@example.com", "+66887654321")));
+        UniquenessIndex index = new UniquenessIndex(userRepository, meterRegistry, 1000, 0.01, "", 2);
+        index.warmUp();
+
+        // Act & Assert - below the threshold the filters are kept
+        index.released(1);
+        assertTrue(index.mightExist(Field.USERNAME, "somkiat.p"));
+
+        index.released(1);
+        assertFalse(index.mightExist(Field.USERNAME, "somkiat.p"));
+        assertTrue(index.mightExist(Field.USERNAME, "other.user"));
+    }
+
+    @Test
+    void testRebuild_NewUsersDuringRebuildAreKept() {
+        // Arrange
+        User user = new User();
+        user.setUsername("new.user");
+        user.setEmail("new.user@example.com");
+        user.setPhone("+66899999999");
+        UniquenessIndex[] index = new UniquenessIndex[1];
+        when(userRepository.findUniqueKeys(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(List.of())
+            .thenAnswer(invocation -> {
+                // Saved while the rebuild scan runs, after the scan passed its id
+                index[0].add(user);
+                return List.of();
+            })
+            .thenReturn(List.of());
+        index[0] = new UniquenessIndex(userRepository, meterRegistry, 1000, 0.01, "", 1000);
+        index[0].warmUp();
+
+        // Act
+        assertTrue(index[0].rebuild());
+
+        // Assert
+        assertTrue(index[0].mightExist(Field.USERNAME, "new.user"));
+    }
+
+    @Test
+    void testAdd_RebuildSwappedInMidAddKeepsTheUser() {
+        // Arrange - a rebuild completes while add is writing to the old filters
+        when(userRepository.findUniqueKeys(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(List.of());
+        UniquenessIndex index = new UniquenessIndex(userRepository, meterRegistry, 1000, 0.01, "", 1000);
+        index.warmUp();
+        User user = new User() {
+            private boolean rebuilt;
+
+            @Override
+            public String getUsername() {
+                if (!rebuilt) {
+                    rebuilt = true;
+                    assertTrue(index.rebuild());
+                }
+                return "new.user";
+            }
+        };
+
+        // Act
+        index.add(user);
+
+        // Assert
+        assertTrue(index.mightExist(Field.USERNAME, "new.user"));
+    }
+
+    @Test
+    void testRebuild_NotBeforeWarmUp() {
+        UniquenessIndex index = new UniquenessIndex(userRepository, meterRegistry, 1000, 0.01, "", 1000);
+
+        assertFalse(index.rebuild());
+        verify(userRepository, never()).findUniqueKeys(anyLong(), any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate<String> repositoryCheck(boolean result) {
+        Predicate<String> check = mock(Predicate.class);
+        if (result) {
+            when(check.test(any())).thenReturn(true);
+        }
+        return check;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.register.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.register.datasource.ReadRouting;
+import com.example.register.entity.User;
+import com.example.register.repository.UserRepository;
+import com.example.register.repository.UserStatusView;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class UserStatusCacheTest {
+    
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 2, 3, 4, 5, 6_000);
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    private UserStatusCache userStatusCache;
+    
+    @BeforeEach
+    void setUp() {
+        userStatusCache = new UserStatusCache(userRepository, new ReadRouting(false, Duration.ofSeconds(2)),
+            new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+    }
+    
+    @Test
+    void testFind_LoadsOnceThenServesFromCache() {
+        // Arrange
+        when(userRepository.findStatusByUserId("usr_1")).thenReturn(Optional.of(
+            new UserStatusView("usr_1", User.UserStatus.PENDING_VERIFICATION, CREATED_AT, null)));
+        
+        // Act
+        UserStatusCache.Entry first = userStatusCache.find("usr_1");
+        UserStatusCache.Entry second = userStatusCache.find("usr_1");
+        
+        // Assert
+        assertSame(first, second);
+        assertEquals("pending_verification", first.response().getStatus());
+        assertEquals(CREATED_AT, first.response().getCreatedAt());
+        assertEquals("email", first.response().getVerification().getChannel());
+        assertNull(first.response().getVerification().getSentAt());
+        verify(userRepository, times(1)).findStatusByUserId("usr_1");
+    }
+    
+    @Test
+    void testFind_UnknownUserIsNotCached() {
+        // Arrange
+        when(userRepository.findStatusByUserId("usr_1")).thenReturn(Optional.empty()).thenReturn(Optional.of(
+            new UserStatusView("usr_1", User.UserStatus.PENDING_VERIFICATION, CREATED_AT, null)));
+        
+        // Act & Assert
+        assertNull(userStatusCache.find("usr_1"));
+        assertEquals("usr_1", userStatusCache.find("usr_1").response().getUserId());
+    }
+    
+    @Test
+    void testFind_UnknownOnReplicaIsLookedUpOnPrimary() {
+        // Arrange - the replica has not seen the registration yet
+        userStatusCache = new UserStatusCache(userRepository, new ReadRouting(true, Duration.ofSeconds(2)),
+            new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        when(userRepository.findStatusByUserId("usr_1")).thenReturn(Optional.empty()).thenReturn(Optional.of(
+            new UserStatusView("usr_1", User.UserStatus.PENDING_VERIFICATION, CREATED_AT, null)));
+        
+        // Act
+        UserStatusCache.Entry entry = userStatusCache.find("usr_1");
+        
+        // Assert
+        assertEquals("usr_1", entry.response().getUserId());
+        verify(userRepository, times(2)).findStatusByUserId("usr_1");
+    }
+    
+    @Test
+    void testInvalidate_ReloadsWithNewEtag() {
+        // Arrange
+        LocalDateTime sentAt = CREATED_AT.plusSeconds(2);
+        Optional<UserStatusView> queued = Optional.of(
+            new UserStatusView("usr_1", User.UserStatus.PENDING_VERIFICATION, CREATED_AT, null));
+        Optional<UserStatusView> sent = Optional.of(
+            new UserStatusView("usr_1", User.UserStatus.PENDING_VERIFICATION, CREATED_AT, sentAt));
+        when(userRepository.findStatusByUserId("usr_1")).thenReturn(queued).thenReturn(sent);
+        UserStatusCache.Entry before = userStatusCache.find("usr_1");
+        
+        // Act
+        userStatusCache.invalidateAll(List.of("usr_1"));
+        UserStatusCache.Entry after = userStatusCache.find("usr_1");
+        
+        // Assert
+        assertEquals(sentAt, after.response().getVerification().getSentAt());
+        assertNotEquals(before.etag(), after.etag());
+    }
+    
+    @Test
+    void testFind_ConcurrentMissesShareOneQueryOutsideTheCache() throws Exception {
+        // Arrange - the first load blocks until a second caller is waiting on it
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findStatusByUserId("usr_1")).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(new UserStatusView("usr_1", User.UserStatus.PENDING_VERIFICATION, CREATED_AT, null));
+        });
+        CompletableFuture<UserStatusCache.Entry> first =
+            CompletableFuture.supplyAsync(() -> userStatusCache.find("usr_1"));
+        loading.await(5, TimeUnit.SECONDS);
+        
+        // Act - other keys are served while the load is in flight
+        when(userRepository.findStatusByUserId("usr_2")).thenReturn(Optional.empty());
+        assertNull(userStatusCache.find("usr_2"));
+        CompletableFuture<UserStatusCache.Entry> second =
+            CompletableFuture.supplyAsync(() -> userStatusCache.find("usr_1"));
+        release.countDown();
+        
+        // Assert
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        verify(userRepository, times(1)).findStatusByUserId("usr_1");
+    }
+    
+    @Test
+    void testEntry_EtagDependsOnlyOnState() {
+        // Arrange
+        UserStatusView view = new UserStatusView("usr_1", User.UserStatus.ACTIVE, CREATED_AT, CREATED_AT.plusSeconds(1));
+        
+        // Act & Assert - another node builds the same tag for the same row
+        assertEquals(UserStatusCache.entry(view).etag(), UserStatusCache.entry(view).etag());
+        assertNotEquals(UserStatusCache.entry(view).etag(), UserStatusCache.entry(
+            new UserStatusView("usr_1", User.UserStatus.SUSPENDED, CREATED_AT, CREATED_AT.plusSeconds(1))).etag());
+    }
+}
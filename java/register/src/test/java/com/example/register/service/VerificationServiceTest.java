@@ -0,0 +1,117 @@
+package com.example.register.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.register.audit.AuditLog;
+import com.example.register.dto.VerifyResponse;
+import com.example.register.entity.User;
+import com.example.register.exception.ValidationException;
+import com.example.register.repository.UserRepository;
+import com.example.register.repository.UserStatusView;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class VerificationServiceTest {
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @Mock
+    private UserStatusCache userStatusCache;
+    
+    @Mock
+    private AuditLog auditLog;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VerificationTokens verificationTokens = new VerificationTokens(
+        Map.of("k1", new byte[VerificationTokens.MIN_KEY_BYTES]), Duration.ofHours(48),
+        () -> System.currentTimeMillis() / 1000);
+    
+    private VerificationService verificationService;
+    
+    @BeforeEach
+    void setUp() {
+        verificationService = new VerificationService(verificationTokens, userRepository, userStatusCache,
+            auditLog, transactionManager, meterRegistry);
+    }
+    
+    @Test
+    void testVerify_ActivatesWithOneUpdate() {
+        // Arrange
+        when(userRepository.activate(eq("usr_1"), any(LocalDateTime.class))).thenReturn(1);
+        
+        // Act
+        VerifyResponse response = verificationService.verify(verificationTokens.issue("usr_1"));
+        
+        // Assert
+        assertEquals("usr_1", response.getUserId());
+        assertEquals("active", response.getStatus());
+        verify(userStatusCache).invalidate("usr_1");
+        verify(userRepository, never()).findStatusByUserId(any());
+        assertEquals(1, meterRegistry.get("register.verification.activated").counter().count());
+        verify(auditLog).verified("usr_1");
+    }
+    
+    @Test
+    void testVerify_RepeatedClickSucceedsAgain() {
+        // Arrange
+        when(userRepository.activate(eq("usr_1"), any(LocalDateTime.class))).thenReturn(0);
+        when(userRepository.findStatusByUserId("usr_1")).thenReturn(Optional.of(
+            new UserStatusView("usr_1", User.UserStatus.ACTIVE, LocalDateTime.now(), LocalDateTime.now())));
+        
+        // Act
+        VerifyResponse response = verificationService.verify(verificationTokens.issue("usr_1"));
+        
+        // Assert
+        assertEquals("active", response.getStatus());
+        verify(userStatusCache, never()).invalidate(any());
+        verify(auditLog, never()).verified(any());
+    }
+    
+    @Test
+    void testVerify_SuspendedAccountIsRefused() {
+        // Arrange
+        when(userRepository.activate(eq("usr_1"), any(LocalDateTime.class))).thenReturn(0);
+        when(userRepository.findStatusByUserId("usr_1")).thenReturn(Optional.of(
+            new UserStatusView("usr_1", User.UserStatus.SUSPENDED, LocalDateTime.now(), null)));
+        String token = verificationTokens.issue("usr_1");
+        
+        // Act & Assert
+        ValidationException exception = assertThrows(ValidationException.class,
+            () -> verificationService.verify(token));
+        assertEquals("VERIFICATION_FAILED", exception.getErrorCode());
+        verify(auditLog).rejected(eq("usr_1"), isNull(), eq("VERIFICATION_FAILED"), isNull());
+    }
+    
+    @Test
+    void testVerify_InvalidTokenNeverReachesDatabase() {
+        // Act & Assert
+        ValidationException exception = assertThrows(ValidationException.class,
+            () -> verificationService.verify("k1.AAAA.AAAA"));
+        assertEquals("TOKEN_INVALID", exception.getErrorCode());
+        verify(userRepository, never()).activate(any(), any());
+        verify(auditLog).rejected(isNull(), isNull(), eq("TOKEN_INVALID"), isNull());
+    }
+}
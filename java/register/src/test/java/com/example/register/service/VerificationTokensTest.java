@@ -0,0 +1,101 @@
+package com.example.register.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.example.register.exception.ValidationException;
+
+class VerificationTokensTest {
+
+    private final AtomicLong now = new AtomicLong(1_750_000_000L);
+
+    @Test
+    void testVerify_ReturnsUserOfIssuedToken() {
+        // Arrange
+        VerificationTokens tokens = tokens(keys("k1", 1));
+
+        // Act
+        String token = tokens.issue("usr_01JB8Z2KQ0G0A");
+
+        // Assert
+        assertTrue(token.startsWith("k1."));
+        assertEquals("usr_01JB8Z2KQ0G0A", tokens.verify(token));
+    }
+
+    @Test
+    void testVerify_RejectsTamperedToken() {
+        // Arrange
+        VerificationTokens tokens = tokens(keys("k1", 1));
+        String token = tokens.issue("usr_1");
+        String other = tokens.issue("usr_2");
+        // Payload of one token under the signature of the other
+        String swapped = other.substring(0, other.lastIndexOf('.')) + token.substring(token.lastIndexOf('.'));
+
+        // Act & Assert
+        assertCode("TOKEN_INVALID", tokens, swapped);
+        assertCode("TOKEN_INVALID", tokens, token.substring(0, token.length() - 2));
+        assertCode("TOKEN_INVALID", tokens, "k1.not base64.x");
+        assertCode("TOKEN_INVALID", tokens, "garbage");
+        assertCode("TOKEN_INVALID", tokens, null);
+    }
+
+    @Test
+    void testVerify_RejectsExpiredToken() {
+        // Arrange
+        VerificationTokens tokens = tokens(keys("k1", 1));
+        String token = tokens.issue("usr_1");
+
+        // Act
+        now.addAndGet(Duration.ofHours(48).toSeconds() + 1);
+
+        // Assert
+        assertCode("TOKEN_EXPIRED", tokens, token);
+    }
+
+    @Test
+    void testVerify_AcceptsTokensOfRotatedOutKeyWhileListed() {
+        // Arrange
+        String oldToken = tokens(keys("k1", 1)).issue("usr_1");
+        Map<String, byte[]> rotated = keys("k2", 2);
+        rotated.putAll(keys("k1", 1));
+
+        // Act
+        VerificationTokens tokens = tokens(rotated);
+
+        // Assert - new tokens use the new key, old ones verify until k1 is removed
+        assertTrue(tokens.issue("usr_2").startsWith("k2."));
+        assertEquals("usr_1", tokens.verify(oldToken));
+        assertCode("TOKEN_INVALID", tokens(keys("k2", 2)), oldToken);
+    }
+
+    @Test
+    void testConstructor_RejectsShortKey() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new VerificationTokens(Map.of("k1", new byte[16]), Duration.ofHours(1), now::get));
+    }
+
+    private VerificationTokens tokens(Map<String, byte[]> keys) {
+        return new VerificationTokens(keys, Duration.ofHours(48), now::get);
+    }
+
+    private static Map<String, byte[]> keys(String id, int fill) {
+        byte[] secret = new byte[VerificationTokens.MIN_KEY_BYTES];
+        Arrays.fill(secret, (byte) fill);
+        Map<String, byte[]> keys = new LinkedHashMap<>();
+        keys.put(id, secret);
+        return keys;
+    }
+
+    private static void assertCode(String code, VerificationTokens tokens, String token) {
+        ValidationException exception = assertThrows(ValidationException.class, () -> tokens.verify(token));
+        assertEquals(code, exception.getErrorCode());
+    }
+}